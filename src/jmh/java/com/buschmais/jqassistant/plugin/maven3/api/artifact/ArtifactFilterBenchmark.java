@@ -0,0 +1,43 @@
+package com.buschmais.jqassistant.plugin.maven3.api.artifact;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for {@link ArtifactFilter#match(Artifact)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactFilterBenchmark {
+
+    private ArtifactFilter includeAllFilter;
+
+    private ArtifactFilter patternFilter;
+
+    private Artifact artifact;
+
+    @Setup
+    public void setUp() {
+        includeAllFilter = new ArtifactFilter(null, null);
+        patternFilter = new ArtifactFilter("com.acme:*, org.example:*:jar, *:core:*:*:1.*", "*:*:test-jar, com.acme:internal-*");
+        artifact = new DefaultArtifact("com.acme", "core", "1.2.3", "compile", "jar", null, new DefaultArtifactHandler("jar"));
+    }
+
+    @Benchmark
+    public boolean matchIncludeAll() {
+        return includeAllFilter.match(artifact);
+    }
+
+    @Benchmark
+    public boolean matchPatterns() {
+        return patternFilter.match(artifact);
+    }
+}
@@ -0,0 +1,45 @@
+package com.buschmais.jqassistant.plugin.maven3.api.artifact;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for {@link MavenArtifactHelper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenArtifactHelperBenchmark {
+
+    @Param({ "1.0.0", "1.0.0-SNAPSHOT", "1.0.0-20240102.030405-6" })
+    private String version;
+
+    private Coordinates coordinates;
+
+    @Setup
+    public void setUp() {
+        DefaultArtifact artifact = new DefaultArtifact("com.acme", "artifact", version, "compile", "jar", "sources", new DefaultArtifactHandler("jar"));
+        coordinates = new MavenArtifactCoordinates(artifact, false);
+    }
+
+    @Benchmark
+    public String getId() {
+        return MavenArtifactHelper.getId(coordinates);
+    }
+
+    @Benchmark
+    public boolean isSnapshot() {
+        return MavenArtifactHelper.isSnapshot(coordinates);
+    }
+
+    @Benchmark
+    public String getBaseVersion() {
+        return MavenArtifactHelper.getBaseVersion(coordinates);
+    }
+}
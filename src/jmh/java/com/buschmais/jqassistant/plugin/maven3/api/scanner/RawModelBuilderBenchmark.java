@@ -0,0 +1,46 @@
+package com.buschmais.jqassistant.plugin.maven3.api.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Benchmarks for {@link RawModelBuilder#getModel(File)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RawModelBuilderBenchmark {
+
+    private final RawModelBuilder rawModelBuilder = new RawModelBuilder();
+
+    private File pomFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        pomFile = File.createTempFile("pom", ".xml");
+        try (InputStream stream = RawModelBuilderBenchmark.class.getResourceAsStream("/pom.xml")) {
+            Files.copy(stream, pomFile.toPath(), REPLACE_EXISTING);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pomFile.delete();
+    }
+
+    @Benchmark
+    public Model getModel() throws IOException {
+        return rawModelBuilder.getModel(pomFile);
+    }
+}
@@ -0,0 +1,197 @@
+package com.buschmais.jqassistant.plugin.maven3.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * A minimal in-memory {@link Store} for benchmarks.
+ *
+ * Descriptors are dynamic proxies holding their properties in a map, relations
+ * are only held by the collections of the descriptors. No queries are
+ * supported, i.e. benchmarks measure the plugin logic without any database
+ * overhead.
+ */
+public final class InMemoryStore {
+
+    private InMemoryStore() {
+    }
+
+    /**
+     * Create a {@link Store}.
+     *
+     * @return The {@link Store}.
+     */
+    public static Store store() {
+        Map<String, Object> caches = new HashMap<>();
+        return proxy(Store.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "create":
+                for (Object arg : args) {
+                    if (arg instanceof Class) {
+                        return descriptor((Class<?>) arg);
+                    }
+                }
+                return null;
+            case "addDescriptorType":
+            case "migrateDescriptor":
+                return addType(args[0], (Class<?>) args[1]);
+            case "getCache":
+                return caches.computeIfAbsent((String) args[0], key -> Caffeine.newBuilder()
+                    .build());
+            default:
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Create a {@link ScannerContext} holding the given {@link Store}.
+     *
+     * @param store
+     *     The {@link Store}.
+     * @return The {@link ScannerContext}.
+     */
+    public static ScannerContext scannerContext(Store store) {
+        Map<Class<?>, Deque<Object>> values = new HashMap<>();
+        return proxy(ScannerContext.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "getStore":
+                return store;
+            case "push":
+                values.computeIfAbsent((Class<?>) args[0], key -> new ArrayDeque<>())
+                    .push(args[1]);
+                return null;
+            case "pop":
+                return values.get(args[0])
+                    .pop();
+            case "peek":
+                return values.get(args[0])
+                    .peek();
+            case "peekOrDefault":
+                Deque<Object> deque = values.get(args[0]);
+                return deque != null && !deque.isEmpty() ? deque.peek() : args[1];
+            default:
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Create a {@link Scanner} providing the given {@link ScannerContext}, nested
+     * scans are not supported.
+     *
+     * @param scannerContext
+     *     The {@link ScannerContext}.
+     * @return The {@link Scanner}.
+     */
+    public static Scanner scanner(ScannerContext scannerContext) {
+        return proxy(Scanner.class, (proxy, method, args) -> "getContext".equals(method.getName()) ? scannerContext : defaultValue(proxy, method, args));
+    }
+
+    /**
+     * Create a descriptor of the given type.
+     *
+     * @param type
+     *     The type.
+     * @param <D>
+     *     The type.
+     * @return The descriptor.
+     */
+    public static <D> D descriptor(Class<D> type) {
+        return type.cast(descriptor(new DescriptorHandler(), type));
+    }
+
+    private static Object addType(Object descriptor, Class<?> type) {
+        if (type.isInstance(descriptor)) {
+            return descriptor;
+        }
+        Set<Class<?>> types = new LinkedHashSet<>(Arrays.asList(descriptor.getClass()
+            .getInterfaces()));
+        types.add(type);
+        return descriptor((DescriptorHandler) Proxy.getInvocationHandler(descriptor), types.toArray(new Class<?>[0]));
+    }
+
+    private static Object descriptor(DescriptorHandler handler, Class<?>... types) {
+        return Proxy.newProxyInstance(InMemoryStore.class.getClassLoader(), types, handler);
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InMemoryStore.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "toString":
+            return proxy.getClass()
+                .getName();
+        default:
+            return defaultValue(method.getReturnType());
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return (byte) 0;
+    }
+
+    /**
+     * Holds the properties and collections of a descriptor.
+     */
+    private static class DescriptorHandler implements InvocationHandler {
+
+        private static final AtomicLong IDS = new AtomicLong();
+
+        private final long id = IDS.incrementAndGet();
+
+        private final Map<String, Object> properties = new HashMap<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            Class<?> returnType = method.getReturnType();
+            if ("getId".equals(name)) {
+                return id;
+            } else if (name.startsWith("set") && args != null && args.length == 1) {
+                properties.put(name.substring(3), args[0]);
+                return null;
+            } else if ((name.startsWith("get") || name.startsWith("is")) && (args == null || args.length == 0)) {
+                String property = name.substring(name.startsWith("get") ? 3 : 2);
+                if (Collection.class.isAssignableFrom(returnType)) {
+                    return properties.computeIfAbsent(property, key -> Set.class.isAssignableFrom(returnType) ? new LinkedHashSet<>() : new ArrayList<>());
+                }
+                Object value = properties.get(property);
+                return value != null ? value : defaultValue(returnType);
+            }
+            return defaultValue(proxy, method, args);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPomDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+import com.buschmais.jqassistant.plugin.maven3.benchmark.InMemoryStore;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for {@link MavenModelScannerPlugin#scan} against an
+ * {@link InMemoryStore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenModelScannerPluginBenchmark {
+
+    private final MavenModelScannerPlugin plugin = new MavenModelScannerPlugin();
+
+    private Model model;
+
+    private ScannerContext scannerContext;
+
+    private Scanner scanner;
+
+    @Setup
+    public void setUp() throws IOException, XmlPullParserException {
+        try (InputStream stream = MavenModelScannerPluginBenchmark.class.getResourceAsStream("/pom.xml")) {
+            model = new MavenXpp3Reader().read(stream);
+        }
+        scannerContext = InMemoryStore.scannerContext(InMemoryStore.store());
+        scanner = InMemoryStore.scanner(scannerContext);
+        Map<String, MavenArtifactDescriptor> descriptors = new HashMap<>();
+        ArtifactResolver artifactResolver = (coordinates, context) -> descriptors.computeIfAbsent(MavenArtifactHelper.getId(coordinates),
+            id -> InMemoryStore.descriptor(MavenArtifactDescriptor.class));
+        scannerContext.push(ArtifactResolver.class, artifactResolver);
+    }
+
+    @Benchmark
+    public MavenPomDescriptor scan() {
+        scannerContext.push(MavenPomDescriptor.class, InMemoryStore.descriptor(MavenPomDescriptor.class));
+        try {
+            return plugin.scan(model, "/pom.xml", MavenScope.PROJECT, scanner);
+        } finally {
+            scannerContext.pop(MavenPomDescriptor.class);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.plugin.common.api.scanner.filesystem.FileResource;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+
+import org.openjdk.jmh.annotations.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Benchmarks for {@link MavenPomFileScannerPlugin#accepts}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenPomFileScannerPluginBenchmark {
+
+    private static final String POM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- license header -->\n"
+        + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n"
+        + "<modelVersion>4.0.0</modelVersion>\n</project>\n";
+
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans xmlns=\"http://www.springframework.org/schema/beans\"/>\n";
+
+    private final MavenPomFileScannerPlugin plugin = new MavenPomFileScannerPlugin();
+
+    private FileResource pomResource;
+
+    private FileResource xmlResource;
+
+    @Setup
+    public void setUp() {
+        plugin.initialize();
+        pomResource = fileResource(POM);
+        xmlResource = fileResource(XML);
+    }
+
+    @Benchmark
+    public boolean acceptsPomXml() throws IOException {
+        return plugin.accepts(pomResource, "/project/pom.xml", MavenScope.PROJECT);
+    }
+
+    @Benchmark
+    public boolean acceptsPomWithXmlExtension() throws IOException {
+        return plugin.accepts(pomResource, "/project/src/test/resources/module.xml", MavenScope.PROJECT);
+    }
+
+    @Benchmark
+    public boolean acceptsXml() throws IOException {
+        return plugin.accepts(xmlResource, "/project/src/main/resources/beans.xml", MavenScope.PROJECT);
+    }
+
+    @Benchmark
+    public boolean acceptsOther() throws IOException {
+        return plugin.accepts(xmlResource, "/project/src/main/java/Type.java", MavenScope.PROJECT);
+    }
+
+    private static FileResource fileResource(String content) {
+        byte[] bytes = content.getBytes(UTF_8);
+        return (FileResource) Proxy.newProxyInstance(FileResource.class.getClassLoader(), new Class<?>[] { FileResource.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "createStream":
+                return (InputStream) new ByteArrayInputStream(bytes);
+            case "getFile":
+                return new File("resource.xml");
+            default:
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.dependency;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.benchmark.InMemoryStore;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyNode;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for {@link GraphResolver#resolve} using synthetic verbose
+ * dependency trees, i.e. artifacts occur repeatedly within the tree like
+ * duplicates and conflicts reported by the verbose dependency graph builder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphResolverBenchmark {
+
+    @Param({ "3", "5" })
+    private int depth;
+
+    @Param({ "5", "10" })
+    private int fanOut;
+
+    /**
+     * The number of distinct artifacts within the tree.
+     */
+    @Param({ "100" })
+    private int artifacts;
+
+    private final GraphResolver graphResolver = new GraphResolver();
+
+    private DependencyNode root;
+
+    private MavenArtifactDescriptor mainDescriptor;
+
+    private MavenArtifactDescriptor testDescriptor;
+
+    private ArtifactResolver artifactResolver;
+
+    private ScannerContext scannerContext;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        root = createNode(null, "main", Artifact.SCOPE_COMPILE);
+        addChildren(root, 1, random);
+        mainDescriptor = InMemoryStore.descriptor(MavenArtifactDescriptor.class);
+        testDescriptor = InMemoryStore.descriptor(MavenArtifactDescriptor.class);
+        Map<String, MavenArtifactDescriptor> descriptors = new HashMap<>();
+        artifactResolver = (coordinates, context) -> descriptors.computeIfAbsent(MavenArtifactHelper.getId(coordinates),
+            id -> InMemoryStore.descriptor(MavenArtifactDescriptor.class));
+        scannerContext = InMemoryStore.scannerContext(InMemoryStore.store());
+    }
+
+    @Benchmark
+    public Map<Artifact, Set<Artifact>> resolve() {
+        return graphResolver.resolve(root, mainDescriptor, testDescriptor, false, artifactResolver, scannerContext);
+    }
+
+    private void addChildren(DependencyNode parent, int level, Random random) {
+        if (level > depth) {
+            return;
+        }
+        for (int i = 0; i < fanOut; i++) {
+            String scope = level == 1 && i % 4 == 0 ? Artifact.SCOPE_TEST : Artifact.SCOPE_COMPILE;
+            DependencyNode child = createNode(parent, "artifact-" + random.nextInt(artifacts), scope);
+            parent.getChildren()
+                .add(child);
+            addChildren(child, level + 1, random);
+        }
+    }
+
+    private static DependencyNode createNode(DependencyNode parent, String artifactId, String scope) {
+        DefaultArtifact artifact = new DefaultArtifact("com.acme", artifactId, "1.0.0", scope, "jar", null, new DefaultArtifactHandler("jar"));
+        DefaultDependencyNode node = new DefaultDependencyNode(parent, artifact, null, null, null);
+        node.setChildren(new ArrayList<>());
+        return node;
+    }
+}
@@ -3,6 +3,7 @@ package com.buschmais.jqassistant.plugin.maven3.api.artifact;
 import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.DescriptorTypes;
 
 public interface ArtifactResolver {
 
@@ -23,7 +24,7 @@ public interface ArtifactResolver {
      * an existing one and creating new one on demand.
      *
      * This method furthermore migrates the {@link MavenArtifactDescriptor} to the
-     * required type.
+     * required type if it does not have it yet.
      *
      * @param coordinates
      *            The artifact coordinates.
@@ -35,6 +36,6 @@ public interface ArtifactResolver {
      */
     default <D extends Descriptor> D resolve(Coordinates coordinates, Class<D> requiredType, ScannerContext scannerContext) {
         MavenArtifactDescriptor mavenArtifactDescriptor = resolve(coordinates, scannerContext);
-        return scannerContext.getStore().addDescriptorType(mavenArtifactDescriptor, requiredType);
+        return DescriptorTypes.add(mavenArtifactDescriptor, requiredType, scannerContext.getStore());
     }
 }
@@ -1,11 +1,16 @@
 package com.buschmais.jqassistant.plugin.maven3.api.artifact;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.versioning.ComparableVersion;
 
 /**
  * Contains artifact related functionality.
@@ -15,6 +20,22 @@ public final class MavenArtifactHelper {
     private static final String SNAPSHOT = "SNAPSHOT";
     private static final Pattern SNAPSHOT_TIMESTAMP = Pattern.compile("^(.*-)?([0-9]{8}\\.[0-9]{6}-[0-9]+)$");
 
+    /**
+     * The qualifiers ordered before releases, see {@link ComparableVersion}.
+     */
+    private static final List<String> PRE_RELEASE_QUALIFIERS = Arrays.asList("alpha", "beta", "milestone", "rc", "snapshot");
+
+    private static final String SP_QUALIFIER = "sp";
+
+    private static final char KEY_PRE_RELEASE = '1';
+    private static final char KEY_END = '2';
+    private static final char KEY_QUALIFIER = '3';
+    private static final char KEY_LIST = '4';
+    private static final char KEY_NUMBER = '5';
+    private static final char KEY_QUALIFIER_END = '!';
+
+    private static final Cache<String, String> VERSION_KEYS = Caffeine.newBuilder().maximumSize(100000).build();
+
     private MavenArtifactHelper() {
     }
 
@@ -28,11 +49,19 @@ public final class MavenArtifactHelper {
      */
     public static void setCoordinates(MavenArtifactDescriptor artifactDescriptor, Coordinates coordinates) {
         artifactDescriptor.setFullQualifiedName(getId(coordinates));
+        artifactDescriptor.setGa(getGa(coordinates));
+        artifactDescriptor.setGatc(getGatc(coordinates));
         artifactDescriptor.setGroup(coordinates.getGroup());
         artifactDescriptor.setName(coordinates.getName());
         artifactDescriptor.setVersion(coordinates.getVersion());
         artifactDescriptor.setClassifier(coordinates.getClassifier());
         artifactDescriptor.setType(coordinates.getType());
+        String version = coordinates.getVersion();
+        if (StringUtils.isNotEmpty(version)) {
+            artifactDescriptor.setVersionKey(getVersionKey(version));
+            artifactDescriptor.setSnapshot(isSnapshot(version));
+            artifactDescriptor.setBaseVersion(getBaseVersion(version));
+        }
     }
 
     /**
@@ -43,19 +72,7 @@ public final class MavenArtifactHelper {
      * @return The id.
      */
     public static String getId(Coordinates coordinates) {
-        StringBuilder id = new StringBuilder();
-        if (StringUtils.isNotEmpty(coordinates.getGroup())) {
-            id.append(coordinates.getGroup());
-        }
-        id.append(':');
-        id.append(coordinates.getName());
-        id.append(':');
-        id.append(coordinates.getType());
-        String classifier = coordinates.getClassifier();
-        if (StringUtils.isNotEmpty(classifier)) {
-            id.append(':');
-            id.append(classifier);
-        }
+        StringBuilder id = new StringBuilder(getGatc(coordinates));
         String version = coordinates.getVersion();
         if (StringUtils.isNotEmpty(version)) {
             id.append(':');
@@ -64,6 +81,44 @@ public final class MavenArtifactHelper {
         return id.toString();
     }
 
+    /**
+     * Creates the version independent id of the given coordinates, i.e.
+     * <code>groupId:artifactId</code>.
+     *
+     * @param coordinates
+     *            The maven coordinates.
+     * @return The id.
+     */
+    public static String getGa(Coordinates coordinates) {
+        StringBuilder ga = new StringBuilder();
+        if (StringUtils.isNotEmpty(coordinates.getGroup())) {
+            ga.append(coordinates.getGroup());
+        }
+        ga.append(':');
+        ga.append(coordinates.getName());
+        return ga.toString();
+    }
+
+    /**
+     * Creates the version independent id of the given coordinates including
+     * type and classifier, i.e. <code>groupId:artifactId:type[:classifier]</code>.
+     *
+     * @param coordinates
+     *            The maven coordinates.
+     * @return The id.
+     */
+    public static String getGatc(Coordinates coordinates) {
+        StringBuilder gatc = new StringBuilder(getGa(coordinates));
+        gatc.append(':');
+        gatc.append(coordinates.getType());
+        String classifier = coordinates.getClassifier();
+        if (StringUtils.isNotEmpty(classifier)) {
+            gatc.append(':');
+            gatc.append(classifier);
+        }
+        return gatc.toString();
+    }
+
     /**
      * Determines if the given {@link Coordinates} represent a snapshot.
      *
@@ -72,7 +127,17 @@ public final class MavenArtifactHelper {
      * @return <code>true</code> if the {@link Coordinates} represent a snapshot.
      */
     public static boolean isSnapshot(Coordinates coordinates) {
-        String version = coordinates.getVersion();
+        return isSnapshot(coordinates.getVersion());
+    }
+
+    /**
+     * Determines if the given version is a snapshot.
+     *
+     * @param version
+     *            The version.
+     * @return <code>true</code> if the version is a snapshot.
+     */
+    public static boolean isSnapshot(String version) {
         return version.endsWith(SNAPSHOT) || SNAPSHOT_TIMESTAMP.matcher(version).matches();
     }
 
@@ -88,7 +153,18 @@ public final class MavenArtifactHelper {
      * @return The base version.
      */
     public static String getBaseVersion(Coordinates coordinates) {
-        String version = coordinates.getVersion();
+        return getBaseVersion(coordinates.getVersion());
+    }
+
+    /**
+     * Determine the base version of given version.
+     *
+     * @param version
+     *            The version.
+     * @return The base version.
+     * @see #getBaseVersion(Coordinates)
+     */
+    public static String getBaseVersion(String version) {
         Matcher m = SNAPSHOT_TIMESTAMP.matcher(version);
         if (m.matches()) {
             if (m.group(1) != null) {
@@ -100,4 +176,71 @@ public final class MavenArtifactHelper {
         return version;
 
     }
+
+    /**
+     * Determine a key of a version which is sortable by string comparison
+     * according to the ordering of Maven versions (see
+     * {@link ComparableVersion}), e.g. <code>1.0-alpha-1</code> &lt;
+     * <code>1.0-SNAPSHOT</code> &lt; <code>1.0</code> &lt; <code>1.0-sp</code>
+     * &lt; <code>1.10</code>.
+     *
+     * The key is built from the items of the canonical version: numbers are
+     * prefixed by their length, the known qualifiers are replaced by their
+     * rank. Keys are cached per version string.
+     *
+     * @param version
+     *            The version.
+     * @return The version key.
+     */
+    public static String getVersionKey(String version) {
+        return VERSION_KEYS.get(version, MavenArtifactHelper::createVersionKey);
+    }
+
+    private static String createVersionKey(String version) {
+        String canonical = new ComparableVersion(version).getCanonical();
+        StringBuilder key = new StringBuilder();
+        int start = 0;
+        boolean list = false;
+        for (int i = 0; i <= canonical.length(); i++) {
+            char c = i < canonical.length() ? canonical.charAt(i) : '.';
+            if (c == '.' || c == '-') {
+                appendVersionKeyItem(key, canonical.substring(start, i), list);
+                list = c == '-';
+                start = i + 1;
+            }
+        }
+        return key.append(KEY_END).toString();
+    }
+
+    /**
+     * Append an item of a canonical version, sub-lists (separated by
+     * <code>-</code>) starting with a number are ordered after qualifiers but
+     * before numbers of the enclosing list.
+     */
+    private static void appendVersionKeyItem(StringBuilder key, String item, boolean list) {
+        if (item.isEmpty()) {
+            // release qualifier within the version
+            if (key.length() > 0) {
+                key.append(KEY_END);
+            }
+        } else if (Character.isDigit(item.charAt(0))) {
+            if (list) {
+                key.append(KEY_LIST);
+            }
+            String number = StringUtils.stripStart(item, "0");
+            if (number.isEmpty()) {
+                number = "0";
+            }
+            key.append(KEY_NUMBER).append((char) ('0' + number.length())).append(number);
+        } else {
+            int rank = PRE_RELEASE_QUALIFIERS.indexOf(item);
+            if (rank >= 0) {
+                key.append(KEY_PRE_RELEASE).append((char) ('0' + rank));
+            } else if (SP_QUALIFIER.equals(item)) {
+                key.append(KEY_QUALIFIER).append('0');
+            } else {
+                key.append(KEY_QUALIFIER).append('1').append(item).append(KEY_QUALIFIER_END);
+            }
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.buschmais.jqassistant.plugin.maven3.api.artifact;
 
 import java.io.File;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
 import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
@@ -9,6 +10,14 @@ import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactFileDescri
 
 import org.apache.commons.lang3.StringUtils;
 
+/**
+ * Resolves artifacts to files within a local Maven repository.
+ *
+ * Instances are created per module, so they are passed explicitly to the
+ * components of a module scan instead of being looked up from the shared
+ * {@link ScannerContext}. Besides the configuration they only hold the
+ * statistics of the artifact cache for the module.
+ */
 public class MavenRepositoryArtifactResolver implements ArtifactResolver {
 
     private static final String CACHE_KEY = MavenRepositoryArtifactResolver.class.getName();
@@ -17,6 +26,10 @@ public class MavenRepositoryArtifactResolver implements ArtifactResolver {
 
     private final FileResolver fileResolver;
 
+    private final LongAdder cacheRequests = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
     /**
      * Constructor.
      *
@@ -34,7 +47,9 @@ public class MavenRepositoryArtifactResolver implements ArtifactResolver {
     @Override
     public MavenArtifactDescriptor resolve(Coordinates coordinates, ScannerContext scannerContext) {
         String fqn = MavenArtifactHelper.getId(coordinates);
+        cacheRequests.increment();
         return scannerContext.getStore().<String, MavenArtifactFileDescriptor> getCache(CACHE_KEY).get(fqn, key -> {
+            cacheMisses.increment();
             String fileName = getFileName(coordinates);
             MavenArtifactFileDescriptor mavenArtifactDescriptor = fileResolver.require(fileName, MavenArtifactFileDescriptor.class, scannerContext);
             MavenArtifactHelper.setCoordinates(mavenArtifactDescriptor, coordinates);
@@ -42,6 +57,25 @@ public class MavenRepositoryArtifactResolver implements ArtifactResolver {
         });
     }
 
+    /**
+     * Return the number of artifacts resolved from the cache by this instance.
+     *
+     * @return The number of cache hits.
+     */
+    public long getCacheHits() {
+        return cacheRequests.sum() - cacheMisses.sum();
+    }
+
+    /**
+     * Return the number of artifacts which had to be resolved from the local
+     * repository by this instance.
+     *
+     * @return The number of cache misses.
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
     private String getFileName(Coordinates coordinates) {
         String group = coordinates.getGroup();
         String name = coordinates.getName();
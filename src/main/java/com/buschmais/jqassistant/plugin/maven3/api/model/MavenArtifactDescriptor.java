@@ -1,6 +1,9 @@
 package com.buschmais.jqassistant.plugin.maven3.api.model;
 
+import java.util.List;
+
 import com.buschmais.jqassistant.plugin.common.api.model.ArtifactDescriptor;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
 
 /**
  * Describes a maven artifact.
@@ -9,4 +12,59 @@ import com.buschmais.jqassistant.plugin.common.api.model.ArtifactDescriptor;
  */
 public interface MavenArtifactDescriptor extends MavenDescriptor, ArtifactDescriptor {
 
+    /**
+     * The version independent id, i.e. <code>groupId:artifactId</code>.
+     *
+     * @return The id.
+     */
+    String getGa();
+
+    void setGa(String ga);
+
+    /**
+     * The version independent id including type and classifier, i.e.
+     * <code>groupId:artifactId:type[:classifier]</code>.
+     *
+     * @return The id.
+     */
+    String getGatc();
+
+    void setGatc(String gatc);
+
+    /**
+     * The key of the version which is sortable according to the ordering of
+     * Maven versions.
+     *
+     * @return The version key.
+     */
+    String getVersionKey();
+
+    void setVersionKey(String versionKey);
+
+    /**
+     * @return <code>true</code> if the version is a snapshot.
+     */
+    boolean isSnapshot();
+
+    void setSnapshot(boolean snapshot);
+
+    /**
+     * The base version, e.g. <code>1.0-SNAPSHOT</code> for
+     * <code>1.0-20240101.120000-3</code>.
+     *
+     * @return The base version.
+     */
+    String getBaseVersion();
+
+    void setBaseVersion(String baseVersion);
+
+    /**
+     * Return the artifacts of the resolved classpath of a main or test
+     * artifact, requires <code>maven3.dependencies.transitive</code>.
+     *
+     * @return The transitive dependencies.
+     */
+    @Outgoing
+    List<MavenTransitiveDependencyDescriptor> getTransitiveDependencies();
+
 }
@@ -0,0 +1,36 @@
+package com.buschmais.jqassistant.plugin.maven3.api.model;
+
+import java.util.List;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+/**
+ * Groups all versions, types and classifiers of an artifact, i.e. the artifacts
+ * sharing the same <code>groupId:artifactId</code>.
+ *
+ * The nodes are created by the concept <code>maven3:ArtifactFamily</code>.
+ */
+@Label("ArtifactFamily")
+public interface MavenArtifactFamilyDescriptor extends MavenDescriptor {
+
+    /**
+     * The version independent id, i.e. <code>groupId:artifactId</code>.
+     *
+     * @return The id.
+     */
+    String getGa();
+
+    void setGa(String ga);
+
+    String getGroup();
+
+    void setGroup(String group);
+
+    String getName();
+
+    void setName(String name);
+
+    @Relation("CONTAINS_ARTIFACT")
+    List<MavenArtifactDescriptor> getArtifacts();
+}
@@ -32,4 +32,32 @@ public interface MavenArtifactIdDescriptor extends MavenDescriptor, FullQualifie
     @ContainsVersion
     List<MavenVersionDescriptor> getVersions();
 
+    /**
+     * The latest version according to the repository metadata.
+     *
+     * @return The latest version.
+     */
+    String getLatest();
+
+    void setLatest(String latest);
+
+    /**
+     * The latest release version according to the repository metadata.
+     *
+     * @return The release version.
+     */
+    String getRelease();
+
+    void setRelease(String release);
+
+    /**
+     * The last update of the repository metadata as
+     * <code>yyyyMMddHHmmss</code>.
+     *
+     * @return The last update.
+     */
+    String getLastUpdated();
+
+    void setLastUpdated(String lastUpdated);
+
 }
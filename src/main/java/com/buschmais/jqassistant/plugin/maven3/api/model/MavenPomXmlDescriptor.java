@@ -1,11 +1,31 @@
 package com.buschmais.jqassistant.plugin.maven3.api.model;
 
+import com.buschmais.jqassistant.core.store.api.model.FullQualifiedNameDescriptor;
 import com.buschmais.jqassistant.plugin.common.api.model.ValidDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.report.Maven;
 import com.buschmais.jqassistant.plugin.xml.api.model.XmlFileDescriptor;
 
 import static com.buschmais.jqassistant.plugin.maven3.api.report.Maven.MavenLanguageElement.PomXmlFile;
 
+/**
+ * A POM XML file, the fully qualified name, the size and the modification time
+ * are set for POMs contained in a repository.
+ */
 @Maven(PomXmlFile)
-public interface MavenPomXmlDescriptor extends MavenPomDescriptor, XmlFileDescriptor, ValidDescriptor {
+public interface MavenPomXmlDescriptor extends MavenPomDescriptor, XmlFileDescriptor, ValidDescriptor, FullQualifiedNameDescriptor {
+
+    /**
+     * @return The size of the file in bytes.
+     */
+    Long getSize();
+
+    void setSize(Long size);
+
+    /**
+     * @return The modification time of the file in milliseconds.
+     */
+    Long getLastModified();
+
+    void setLastModified(Long lastModified);
+
 }
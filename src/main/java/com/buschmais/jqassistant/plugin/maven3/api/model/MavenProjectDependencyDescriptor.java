@@ -0,0 +1,29 @@
+package com.buschmais.jqassistant.plugin.maven3.api.model;
+
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+/**
+ * Describes a dependency of a Maven project to another project of the same
+ * reactor.
+ */
+@Relation("DEPENDS_ON_PROJECT")
+public interface MavenProjectDependencyDescriptor extends Descriptor {
+
+    @Outgoing
+    MavenProjectDirectoryDescriptor getDependent();
+
+    @Incoming
+    MavenProjectDescriptor getDependency();
+
+    /**
+     * The declared scope, e.g. <code>compile</code>.
+     *
+     * @return The scope.
+     */
+    String getScope();
+
+    void setScope(String scope);
+}
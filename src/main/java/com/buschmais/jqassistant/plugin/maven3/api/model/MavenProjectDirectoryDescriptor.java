@@ -6,6 +6,7 @@ import com.buschmais.jqassistant.plugin.common.api.model.ArtifactDescriptor;
 import com.buschmais.jqassistant.plugin.common.api.model.DirectoryDescriptor;
 import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
 import com.buschmais.xo.neo4j.api.annotation.Relation;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
 
 /**
  * Describes a maven project as it has been executed during a maven build.
@@ -38,6 +39,14 @@ public interface MavenProjectDirectoryDescriptor extends MavenProjectDescriptor,
     @Relation("HAS_MODULE")
     List<MavenProjectDescriptor> getModules();
 
+    /**
+     * Return the dependencies of this project to other projects of the reactor.
+     *
+     * @return The project dependencies.
+     */
+    @Outgoing
+    List<MavenProjectDependencyDescriptor> getProjectDependencies();
+
     /**
      * Return the pom.xml file that defines this project.
      * 
@@ -57,4 +66,31 @@ public interface MavenProjectDirectoryDescriptor extends MavenProjectDescriptor,
     MavenPomDescriptor getEffectiveModel();
 
     void setEffectiveModel(MavenPomDescriptor effectiveModel);
+
+    /**
+     * Return the fingerprint of the test report directories at the time they
+     * have been scanned.
+     *
+     * @return The fingerprint.
+     */
+    String getTestReportsFingerprint();
+
+    void setTestReportsFingerprint(String testReportsFingerprint);
+
+    /**
+     * Return the test reports of this project which have been scanned
+     * individually, i.e. the surefire and failsafe reports.
+     *
+     * @return The test reports.
+     */
+    @Relation("HAS_TEST_REPORT")
+    List<FileDescriptor> getTestReports();
+
+    /**
+     * Return the statistics of the scans of this project.
+     *
+     * @return The scan statistics.
+     */
+    @Relation("HAS_SCAN_STATISTICS")
+    List<MavenScanStatisticsDescriptor> getScanStatistics();
 }
@@ -106,22 +106,52 @@ public interface MavenRepositoryDescriptor extends MavenDescriptor {
 
     String getSnapshotsChecksumPolicy();
 
+    /**
+     * @deprecated Executes a query per call, use
+     *             {@link com.buschmais.jqassistant.plugin.maven3.api.scanner.RepositoryIndex}
+     *             instead.
+     */
+    @Deprecated
     @ResultOf
     @Cypher("MATCH (repository)-[:CONTAINS_POM]->(pom:Maven:Pom:Release:Xml) WHERE id(repository)=$this and pom.fqn=$coordinates RETURN pom")
     MavenPomXmlDescriptor findReleaseModel(@Parameter("coordinates") String coordinates);
 
+    /**
+     * @deprecated Executes a query per call, use
+     *             {@link com.buschmais.jqassistant.plugin.maven3.api.scanner.RepositoryIndex}
+     *             instead.
+     */
+    @Deprecated
     @ResultOf
     @Cypher("MATCH (repository)-[:CONTAINS_POM]->(pom:Maven:Pom:Snapshot:Xml) WHERE id(repository)=$this and pom.fqn=$coordinates RETURN pom")
     MavenPomXmlDescriptor findSnapshotModel(@Parameter("coordinates") String coordinates);
 
+    /**
+     * @deprecated Executes a query per call, use
+     *             {@link com.buschmais.jqassistant.plugin.maven3.api.scanner.RepositoryIndex}
+     *             instead.
+     */
+    @Deprecated
     @ResultOf
     @Cypher("MATCH (repository), (pom:Maven:Pom:Xml) WHERE id(repository)=$this and id(pom)=$pom CREATE (repository)-[:CONTAINS_POM]->(pom)")
     void addModel(@Parameter("pom") MavenPomXmlDescriptor modelDescriptor);
 
+    /**
+     * @deprecated Executes a query per call, use
+     *             {@link com.buschmais.jqassistant.plugin.maven3.api.scanner.RepositoryIndex}
+     *             instead.
+     */
+    @Deprecated
     @ResultOf
     @Cypher("MATCH (repository)-[:CONTAINS_ARTIFACT]->(artifact:Artifact) WHERE id(repository)=$this and artifact.fqn=$coordinates RETURN artifact")
     MavenArtifactDescriptor findArtifact(@Parameter("coordinates") String coordinates);
 
+    /**
+     * @deprecated Executes a query per call, use
+     *             {@link com.buschmais.jqassistant.plugin.maven3.api.scanner.RepositoryIndex}
+     *             instead.
+     */
+    @Deprecated
     @ResultOf
     @Cypher("MATCH (repository), (artifact:Maven:Artifact) WHERE id(repository)=$this and id(artifact)=$artifact CREATE (repository)-[:CONTAINS_ARTIFACT]->(artifact)")
     void addArtifact(@Parameter("artifact") MavenArtifactDescriptor artifactDescriptor);
@@ -0,0 +1,160 @@
+package com.buschmais.jqassistant.plugin.maven3.api.model;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+/**
+ * Describes the statistics of scanning a Maven project.
+ *
+ * A node is created for each scan of the project, i.e. if the store is not
+ * reset between builds the nodes allow tracking the scan performance over
+ * time. All durations are in milliseconds.
+ */
+@Label("ScanStatistics")
+public interface MavenScanStatisticsDescriptor extends MavenDescriptor {
+
+    /**
+     * Return the time when the scan has been finished.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    long getTimestamp();
+
+    void setTimestamp(long timestamp);
+
+    /**
+     * Return the duration of the whole project scan.
+     *
+     * @return The duration.
+     */
+    long getScanTime();
+
+    void setScanTime(long scanTime);
+
+    /**
+     * Return the duration of resolving the dependency graph.
+     *
+     * @return The duration.
+     */
+    long getGraphResolutionTime();
+
+    void setGraphResolutionTime(long graphResolutionTime);
+
+    /**
+     * Return the duration of scanning the dependency artifacts.
+     *
+     * @return The duration.
+     */
+    long getDependenciesTime();
+
+    void setDependenciesTime(long dependenciesTime);
+
+    /**
+     * Return the duration of scanning the classes directories.
+     *
+     * @return The duration.
+     */
+    long getClassesTime();
+
+    void setClassesTime(long classesTime);
+
+    /**
+     * Return the duration of scanning the pom.xml.
+     *
+     * @return The duration.
+     */
+    long getModelTime();
+
+    void setModelTime(long modelTime);
+
+    /**
+     * Return the duration of scanning the effective model.
+     *
+     * @return The duration.
+     */
+    long getEffectiveModelTime();
+
+    void setEffectiveModelTime(long effectiveModelTime);
+
+    /**
+     * Return the duration of scanning the test reports.
+     *
+     * @return The duration.
+     */
+    long getTestReportsTime();
+
+    void setTestReportsTime(long testReportsTime);
+
+    /**
+     * Return the duration of scanning the additional includes.
+     *
+     * @return The duration.
+     */
+    long getIncludesTime();
+
+    void setIncludesTime(long includesTime);
+
+    /**
+     * Return the number of nodes created by the scan.
+     *
+     * @return The number of nodes.
+     */
+    long getCreatedNodes();
+
+    void setCreatedNodes(long createdNodes);
+
+    /**
+     * Return the number of relations created by the scan.
+     *
+     * @return The number of relations.
+     */
+    long getCreatedRelations();
+
+    void setCreatedRelations(long createdRelations);
+
+    /**
+     * Return the number of artifacts which have been resolved from the
+     * artifact cache.
+     *
+     * @return The number of cache hits.
+     */
+    long getArtifactCacheHits();
+
+    void setArtifactCacheHits(long artifactCacheHits);
+
+    /**
+     * Return the number of artifacts which had to be looked up in the store.
+     *
+     * @return The number of cache misses.
+     */
+    long getArtifactCacheMisses();
+
+    void setArtifactCacheMisses(long artifactCacheMisses);
+
+    /**
+     * Return the ratio of artifact cache hits to all artifact resolutions.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    double getArtifactCacheHitRate();
+
+    void setArtifactCacheHitRate(double artifactCacheHitRate);
+
+    /**
+     * Return the number of scanned dependency artifacts.
+     *
+     * @return The number of scanned dependencies.
+     */
+    long getScannedDependencies();
+
+    void setScannedDependencies(long scannedDependencies);
+
+    /**
+     * Return the number of dependency artifacts which have been skipped, i.e.
+     * filtered, not available or already scanned by another project.
+     *
+     * @return The number of skipped dependencies.
+     */
+    long getSkippedDependencies();
+
+    void setSkippedDependencies(long skippedDependencies);
+}
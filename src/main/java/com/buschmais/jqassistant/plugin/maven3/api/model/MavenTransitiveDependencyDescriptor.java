@@ -0,0 +1,48 @@
+package com.buschmais.jqassistant.plugin.maven3.api.model;
+
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+/**
+ * Describes an artifact of the resolved classpath of a main or test artifact.
+ */
+@Relation("DEPENDS_ON_TRANSITIVELY")
+public interface MavenTransitiveDependencyDescriptor extends Descriptor {
+
+    @Outgoing
+    MavenArtifactDescriptor getDependent();
+
+    @Incoming
+    MavenArtifactDescriptor getDependency();
+
+    /**
+     * The depth of the nearest occurrence in the dependency tree, i.e.
+     * <code>1</code> for direct dependencies.
+     *
+     * @return The depth.
+     */
+    int getDepth();
+
+    void setDepth(int depth);
+
+    /**
+     * The effective scope, e.g. <code>runtime</code>.
+     *
+     * @return The scope.
+     */
+    String getScope();
+
+    void setScope(String scope);
+
+    /**
+     * The index of the artifact in the classpath order, starting with
+     * <code>0</code>.
+     *
+     * @return The order.
+     */
+    int getOrder();
+
+    void setOrder(int order);
+}
@@ -21,4 +21,50 @@ public interface MavenVersionDescriptor extends MavenDescriptor, FullQualifiedNa
     @Relation("CONTAINS_ARTIFACT")
     Set<MavenArtifactDescriptor> getArtifacts();
 
+    /**
+     * The key of the version which is sortable according to the ordering of
+     * Maven versions.
+     *
+     * @return The version key.
+     */
+    String getVersionKey();
+
+    void setVersionKey(String versionKey);
+
+    /**
+     * @return <code>true</code> if the version is a snapshot.
+     */
+    boolean isSnapshot();
+
+    void setSnapshot(boolean snapshot);
+
+    /**
+     * The base version, e.g. <code>1.0-SNAPSHOT</code>.
+     *
+     * @return The base version.
+     */
+    String getBaseVersion();
+
+    void setBaseVersion(String baseVersion);
+
+    /**
+     * The timestamp of the latest deployed snapshot as
+     * <code>yyyyMMdd.HHmmss</code> according to the repository metadata.
+     *
+     * @return The snapshot timestamp.
+     */
+    String getSnapshotTimestamp();
+
+    void setSnapshotTimestamp(String snapshotTimestamp);
+
+    /**
+     * The build number of the latest deployed snapshot according to the
+     * repository metadata.
+     *
+     * @return The snapshot build number.
+     */
+    int getSnapshotBuildNumber();
+
+    void setSnapshotBuildNumber(int snapshotBuildNumber);
+
 }
@@ -0,0 +1,103 @@
+package com.buschmais.jqassistant.plugin.maven3.api.scanner;
+
+import java.util.Collection;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Adds descriptor types to nodes only if they have not been applied before.
+ *
+ * The descriptor returned by the last migration of a node is kept in a cache of
+ * the {@link Store} by the id of the node, i.e. repeated migrations of the same
+ * node to a type it already has (e.g. of an artifact which is resolved by
+ * several modules) neither write labels nor create new proxies. Nodes which
+ * are deleted must be evicted using {@link #evict(Collection, Store)}.
+ */
+public final class DescriptorTypes {
+
+    private static final String CACHE_KEY = DescriptorTypes.class.getName();
+
+    private DescriptorTypes() {
+    }
+
+    /**
+     * Add descriptor types to a descriptor if it does not have them yet.
+     *
+     * @param descriptor
+     *            The descriptor.
+     * @param type
+     *            The descriptor type.
+     * @param types
+     *            Further descriptor types.
+     * @param store
+     *            The {@link Store}.
+     * @param <D>
+     *            The type of the returned descriptor.
+     * @return The descriptor providing the requested types.
+     */
+    @SuppressWarnings("unchecked")
+    public static <D extends Descriptor> D add(Descriptor descriptor, Class<?> type, Class<?>[] types, Store store) {
+        if (isInstance(descriptor, type, types)) {
+            return (D) descriptor;
+        }
+        Object id = descriptor.getId();
+        if (id == null) {
+            return store.addDescriptorType(descriptor, type, types);
+        }
+        Cache<Object, Descriptor> migratedDescriptors = store.getCache(CACHE_KEY);
+        Descriptor migratedDescriptor = migratedDescriptors.getIfPresent(id);
+        if (migratedDescriptor != null) {
+            if (isInstance(migratedDescriptor, type, types)) {
+                return (D) migratedDescriptor;
+            }
+            descriptor = migratedDescriptor;
+        }
+        D result = store.addDescriptorType(descriptor, type, types);
+        migratedDescriptors.put(id, result);
+        return result;
+    }
+
+    /**
+     * Add a descriptor type to a descriptor if it does not have it yet.
+     *
+     * @param descriptor
+     *            The descriptor.
+     * @param type
+     *            The descriptor type.
+     * @param store
+     *            The {@link Store}.
+     * @param <D>
+     *            The type of the returned descriptor.
+     * @return The descriptor providing the requested type.
+     */
+    public static <D extends Descriptor> D add(Descriptor descriptor, Class<D> type, Store store) {
+        return add(descriptor, type, new Class<?>[0], store);
+    }
+
+    /**
+     * Evict nodes from the cache, e.g. after they have been deleted.
+     *
+     * @param ids
+     *            The ids of the nodes.
+     * @param store
+     *            The {@link Store}.
+     */
+    public static void evict(Collection<?> ids, Store store) {
+        store.<Object, Descriptor> getCache(CACHE_KEY).invalidateAll(ids);
+    }
+
+    private static boolean isInstance(Descriptor descriptor, Class<?> type, Class<?>[] types) {
+        if (!type.isInstance(descriptor)) {
+            return false;
+        }
+        for (Class<?> additionalType : types) {
+            if (!additionalType.isInstance(descriptor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
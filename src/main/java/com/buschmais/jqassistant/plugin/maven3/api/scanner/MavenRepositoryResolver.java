@@ -1,10 +1,33 @@
 package com.buschmais.jqassistant.plugin.maven3.api.scanner;
 
+import java.util.Locale;
+
 import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
 
+/**
+ * Resolves {@link MavenRepositoryDescriptor}s by their url.
+ *
+ * Resolved descriptors are kept in a cache of the {@link Store} by their
+ * normalized url, i.e. urls which only differ by surrounding whitespace,
+ * trailing slashes or the case of the scheme and host resolve to the same
+ * descriptor which is looked up at most once per scan. The normalized url is
+ * only used as cache key, repository nodes are looked up and created using the
+ * url as it has been declared. The resolver may be used by scanners running in
+ * parallel.
+ */
 public class MavenRepositoryResolver {
 
+    private static final String CACHE_KEY = MavenRepositoryResolver.class.getName();
+
+    private static final String SCHEME_SEPARATOR = "://";
+
+    /**
+     * The cache key for repositories without url, it is never returned by
+     * {@link #normalize(String)} as trailing slashes are removed.
+     */
+    private static final String NO_URL = "/";
+
     private MavenRepositoryResolver() {
     }
 
@@ -18,6 +41,39 @@ public class MavenRepositoryResolver {
      * @return a {@link MavenRepositoryDescriptor} for the given url.
      */
     public static MavenRepositoryDescriptor resolve(Store store, String url) {
+        String key = url != null ? normalize(url) : NO_URL;
+        return store.<String, MavenRepositoryDescriptor> getCache(CACHE_KEY).get(key, k -> findOrCreate(store, url != null ? url.trim() : null));
+    }
+
+    /**
+     * Normalizes a repository url by removing surrounding whitespace and
+     * trailing slashes and converting the scheme and host to lower case.
+     *
+     * @param url
+     *            the repository url
+     * @return the normalized url
+     */
+    static String normalize(String url) {
+        String normalized = url.trim();
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == '/') {
+            end--;
+        }
+        normalized = normalized.substring(0, end);
+        int schemeEnd = normalized.indexOf(SCHEME_SEPARATOR);
+        if (schemeEnd < 0) {
+            return normalized;
+        }
+        int authorityStart = schemeEnd + SCHEME_SEPARATOR.length();
+        int authorityEnd = normalized.indexOf('/', authorityStart);
+        if (authorityEnd < 0) {
+            authorityEnd = normalized.length();
+        }
+        return normalized.substring(0, authorityEnd)
+            .toLowerCase(Locale.ROOT) + normalized.substring(authorityEnd);
+    }
+
+    private static MavenRepositoryDescriptor findOrCreate(Store store, String url) {
         MavenRepositoryDescriptor repositoryDescriptor = store.find(MavenRepositoryDescriptor.class, url);
         if (repositoryDescriptor == null) {
             repositoryDescriptor = store.create(MavenRepositoryDescriptor.class);
@@ -0,0 +1,297 @@
+package com.buschmais.jqassistant.plugin.maven3.api.scanner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPomXmlDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+/**
+ * Provides lookups of the POMs and artifacts contained in a repository by
+ * their fully qualified names.
+ *
+ * The index holds a map of fully qualified names to node ids per repository
+ * which is loaded lazily with a single query, i.e. lookups do not require a
+ * query per call. Added POMs and artifacts are visible immediately, the
+ * <code>CONTAINS_POM</code> and <code>CONTAINS_ARTIFACT</code> relations are
+ * queued and created in batches, the queue must be flushed using
+ * {@link #flush()} before the relations are queried. Added POMs must
+ * provide their fully qualified name as property <code>fqn</code>, i.e.
+ * they are loaded by later scans. The size and modification time of the POM
+ * files are kept as well to detect POMs which have been modified since they
+ * have been indexed.
+ *
+ * Instances are kept in a cache of the {@link Store} and are not thread-safe.
+ */
+public class RepositoryIndex {
+
+    private static final String CACHE_KEY = RepositoryIndex.class.getName();
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String CONTAINS_POM = "CONTAINS_POM";
+
+    private static final String LOAD = "MATCH (repository:Maven:Repository{url:$repository})-[contains:CONTAINS_POM|CONTAINS_ARTIFACT]->(element) "
+        + "WHERE element.fqn IS NOT NULL "
+        + "RETURN type(contains) AS type, element.fqn AS fqn, id(element) AS id, element.size AS size, element.lastModified AS lastModified";
+
+    private static final String ADD_MODELS = "MATCH (repository:Maven:Repository{url:$repository}) UNWIND $elements AS element "
+        + "MATCH (pom:Maven:Pom:Xml) WHERE id(pom)=element.id CREATE (repository)-[:CONTAINS_POM]->(pom)";
+
+    private static final String ADD_ARTIFACTS = "MATCH (repository:Maven:Repository{url:$repository}) UNWIND $elements AS element "
+        + "MATCH (artifact:Maven:Artifact) WHERE id(artifact)=element.id CREATE (repository)-[:CONTAINS_ARTIFACT]->(artifact)";
+
+    private static final String REMOVE_MODEL = "MATCH (repository:Maven:Repository{url:$repository})-[containsPom:CONTAINS_POM]->(pom:Maven:Pom:Xml) "
+        + "WHERE id(pom)=$id DELETE containsPom";
+
+    private static final String FIND = "MATCH (element) WHERE id(element)=$id RETURN element";
+
+    private final String repositoryUrl;
+
+    private final Store store;
+
+    private final Map<String, Long> models = new HashMap<>();
+
+    private final Map<String, Long> artifacts = new HashMap<>();
+
+    private final Map<String, Long> modelSizes = new HashMap<>();
+
+    private final Map<String, Long> modelLastModified = new HashMap<>();
+
+    private final List<Map<String, Object>> pendingModels = new ArrayList<>();
+
+    private final List<Map<String, Object>> pendingArtifacts = new ArrayList<>();
+
+    private boolean loaded = false;
+
+    private RepositoryIndex(String repositoryUrl, Store store) {
+        this.repositoryUrl = repositoryUrl;
+        this.store = store;
+    }
+
+    /**
+     * Return the {@link RepositoryIndex} of a repository.
+     *
+     * @param repositoryDescriptor
+     *            The {@link MavenRepositoryDescriptor}.
+     * @param store
+     *            The {@link Store}.
+     * @return The {@link RepositoryIndex}.
+     */
+    public static RepositoryIndex of(MavenRepositoryDescriptor repositoryDescriptor, Store store) {
+        return store.<String, RepositoryIndex> getCache(CACHE_KEY).get(repositoryDescriptor.getUrl(), url -> new RepositoryIndex(url, store));
+    }
+
+    /**
+     * Determines if the repository contains a POM.
+     *
+     * @param fqn
+     *            The fully qualified name of the POM.
+     * @return <code>true</code> if the repository contains the POM.
+     */
+    public boolean containsModel(String fqn) {
+        return getModels().containsKey(fqn);
+    }
+
+    /**
+     * Determines if the repository contains a POM which has not been modified
+     * since it has been indexed.
+     *
+     * @param fqn
+     *            The fully qualified name of the POM.
+     * @param size
+     *            The size of the POM file in bytes.
+     * @param lastModified
+     *            The modification time of the POM file in milliseconds.
+     * @return <code>true</code> if the repository contains the POM with the
+     *         given size and modification time.
+     */
+    public boolean containsModel(String fqn, long size, long lastModified) {
+        return containsModel(fqn) && Objects.equals(modelSizes.get(fqn), size) && Objects.equals(modelLastModified.get(fqn), lastModified);
+    }
+
+    /**
+     * Find a POM of the repository.
+     *
+     * @param fqn
+     *            The fully qualified name of the POM.
+     * @return The {@link MavenPomXmlDescriptor} or <code>null</code> if the
+     *         repository does not contain the POM.
+     */
+    public MavenPomXmlDescriptor findModel(String fqn) {
+        return find(getModels().get(fqn), MavenPomXmlDescriptor.class);
+    }
+
+    /**
+     * Add a POM to the repository if it is not contained yet.
+     *
+     * @param fqn
+     *            The fully qualified name of the POM.
+     * @param modelDescriptor
+     *            The {@link MavenPomXmlDescriptor}.
+     */
+    public void addModel(String fqn, MavenPomXmlDescriptor modelDescriptor) {
+        if (add(fqn, modelDescriptor.getId(), getModels(), pendingModels)) {
+            modelSizes.put(fqn, modelDescriptor.getSize());
+            modelLastModified.put(fqn, modelDescriptor.getLastModified());
+        }
+    }
+
+    /**
+     * Remove a POM from the repository, i.e. its <code>CONTAINS_POM</code>
+     * relation is deleted. The POM node is kept as it may be referenced by
+     * other nodes.
+     *
+     * @param fqn
+     *            The fully qualified name of the POM.
+     */
+    public void removeModel(String fqn) {
+        Long id = getModels().remove(fqn);
+        if (id == null) {
+            return;
+        }
+        modelSizes.remove(fqn);
+        modelLastModified.remove(fqn);
+        pendingModels.removeIf(element -> id.equals(element.get("id")));
+        Map<String, Object> params = new HashMap<>();
+        params.put("repository", repositoryUrl);
+        params.put("id", id);
+        store.executeQuery(REMOVE_MODEL, params)
+            .close();
+    }
+
+    /**
+     * Determines if the repository contains an artifact.
+     *
+     * @param fqn
+     *            The fully qualified name of the artifact.
+     * @return <code>true</code> if the repository contains the artifact.
+     */
+    public boolean containsArtifact(String fqn) {
+        return getArtifacts().containsKey(fqn);
+    }
+
+    /**
+     * Find an artifact of the repository.
+     *
+     * @param fqn
+     *            The fully qualified name of the artifact.
+     * @return The {@link MavenArtifactDescriptor} or <code>null</code> if the
+     *         repository does not contain the artifact.
+     */
+    public MavenArtifactDescriptor findArtifact(String fqn) {
+        return find(getArtifacts().get(fqn), MavenArtifactDescriptor.class);
+    }
+
+    /**
+     * Add an artifact to the repository if it is not contained yet.
+     *
+     * @param artifactDescriptor
+     *            The {@link MavenArtifactDescriptor}.
+     */
+    public void addArtifact(MavenArtifactDescriptor artifactDescriptor) {
+        add(artifactDescriptor.getFullQualifiedName(), artifactDescriptor.getId(), getArtifacts(), pendingArtifacts);
+    }
+
+    /**
+     * Remove POMs and artifacts from the index, e.g. after their
+     * <code>CONTAINS_POM</code> or <code>CONTAINS_ARTIFACT</code> relations
+     * have been deleted.
+     *
+     * @param fqns
+     *            The fully qualified names of the POMs and artifacts.
+     */
+    public void remove(Collection<String> fqns) {
+        getModels().keySet()
+            .removeAll(fqns);
+        modelSizes.keySet()
+            .removeAll(fqns);
+        modelLastModified.keySet()
+            .removeAll(fqns);
+        getArtifacts().keySet()
+            .removeAll(fqns);
+    }
+
+    /**
+     * Create the queued <code>CONTAINS_POM</code> and
+     * <code>CONTAINS_ARTIFACT</code> relations.
+     */
+    public void flush() {
+        flush(ADD_MODELS, pendingModels);
+        flush(ADD_ARTIFACTS, pendingArtifacts);
+    }
+
+    private boolean add(String fqn, Long id, Map<String, Long> index, List<Map<String, Object>> pending) {
+        if (index.putIfAbsent(fqn, id) != null) {
+            return false;
+        }
+        Map<String, Object> element = new HashMap<>();
+        element.put("id", id);
+        pending.add(element);
+        if (pending.size() >= BATCH_SIZE) {
+            flush();
+        }
+        return true;
+    }
+
+    private void flush(String statement, List<Map<String, Object>> pending) {
+        if (!pending.isEmpty()) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("repository", repositoryUrl);
+            params.put("elements", new ArrayList<>(pending));
+            store.executeQuery(statement, params).close();
+            pending.clear();
+        }
+    }
+
+    private <D> D find(Long id, Class<D> type) {
+        if (id == null) {
+            return null;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        Query.Result<CompositeRowObject> result = store.executeQuery(FIND, params);
+        return result.hasResult() ? result.getSingleResult().get("element", type) : null;
+    }
+
+    private Map<String, Long> getModels() {
+        load();
+        return models;
+    }
+
+    private Map<String, Long> getArtifacts() {
+        load();
+        return artifacts;
+    }
+
+    /**
+     * Load the fully qualified names of the POMs and artifacts contained in the
+     * repository using a single query.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("repository", repositoryUrl);
+        for (CompositeRowObject row : store.executeQuery(LOAD, params)) {
+            String fqn = row.get("fqn", String.class);
+            if (CONTAINS_POM.equals(row.get("type", String.class))) {
+                models.put(fqn, row.get("id", Long.class));
+                modelSizes.put(fqn, row.get("size", Long.class));
+                modelLastModified.put(fqn, row.get("lastModified", Long.class));
+            } else {
+                artifacts.put(fqn, row.get("id", Long.class));
+            }
+        }
+        loaded = true;
+    }
+}
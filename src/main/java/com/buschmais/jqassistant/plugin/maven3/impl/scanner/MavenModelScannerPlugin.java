@@ -13,13 +13,17 @@ import com.buschmais.jqassistant.plugin.common.api.model.ValueDescriptor;
 import com.buschmais.jqassistant.plugin.common.api.scanner.AbstractScannerPlugin;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.*;
 import com.buschmais.jqassistant.plugin.maven3.api.model.*;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.DescriptorTypes;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.EffectiveModel;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenRepositoryResolver;
 import com.buschmais.jqassistant.plugin.maven3.impl.scanner.artifact.MavenArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr.ModelScanEvent;
 
 import org.apache.maven.model.*;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema.PROPERTY_NAME_SCHEMA_CONSTRAINTS;
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema.PROPERTY_NAME_SCHEMA_PROVISION;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toMap;
@@ -36,6 +40,9 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
 
     @Override
     protected void configure() {
+        if (getBooleanProperty(PROPERTY_NAME_SCHEMA_PROVISION, true)) {
+            MavenSchema.provision(getScannerContext().getStore(), getBooleanProperty(PROPERTY_NAME_SCHEMA_CONSTRAINTS, false));
+        }
         getScannerContext().push(ArtifactResolver.class, new MavenArtifactResolver());
     }
 
@@ -57,6 +64,9 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
     /** {@inheritDoc} */
     @Override
     public MavenPomDescriptor scan(Model model, String path, Scope scope, Scanner scanner) {
+        long start = System.nanoTime();
+        ModelScanEvent modelScanEvent = new ModelScanEvent();
+        modelScanEvent.begin();
         MavenPomDescriptor pomDescriptor = createMavenPomDescriptor(model, scanner);
         ScannerContext scannerContext = scanner.getContext();
         Store store = scannerContext.getStore();
@@ -73,9 +83,37 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
         addOrganization(pomDescriptor, model, store);
         addRepository(of(pomDescriptor), model.getRepositories(), store);
         addScmInformation(pomDescriptor, model.getScm(), store);
+        modelScanEvent.end();
+        if (modelScanEvent.shouldCommit()) {
+            modelScanEvent.gav = model.getId();
+            modelScanEvent.path = path;
+            modelScanEvent.dependencies = model.getDependencies()
+                .size();
+            modelScanEvent.plugins = model.getBuild() != null ? model.getBuild()
+                .getPlugins()
+                .size() : 0;
+            modelScanEvent.commit();
+        }
+        ModuleScan.current()
+            .flatMap(ModuleScan::getMetrics)
+            .ifPresent(moduleScanMetrics -> moduleScanMetrics.recordPom(path, System.nanoTime() - start));
         return pomDescriptor;
     }
 
+    /**
+     * Return the {@link ArtifactResolver} of the module which is currently
+     * scanned by this thread, the one provided by the scanner context otherwise.
+     *
+     * @param context
+     *            The {@link ScannerContext}.
+     * @return The {@link ArtifactResolver}.
+     */
+    private static ArtifactResolver getArtifactResolver(ScannerContext context) {
+        return ModuleScan.current()
+            .<ArtifactResolver>map(ModuleScan::getArtifactResolver)
+            .orElseGet(() -> context.peek(ArtifactResolver.class));
+    }
+
     private void addScmInformation(MavenPomDescriptor pomDescriptor, Scm scmInformation, Store store) {
         ofNullable(scmInformation).ifPresent(scm -> {
             MavenScmDescriptor scmDescriptor = store.create(MavenScmDescriptor.class);
@@ -152,10 +190,10 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
         pomDescriptor.setUrl(model.getUrl());
         pomDescriptor.setDescription(model.getDescription());
         Coordinates artifactCoordinates = new ModelCoordinates(model);
-        MavenArtifactDescriptor artifact = context.peek(ArtifactResolver.class).resolve(artifactCoordinates, context);
+        MavenArtifactDescriptor artifact = getArtifactResolver(context).resolve(artifactCoordinates, context);
         pomDescriptor.getDescribes().add(artifact);
         if (model instanceof EffectiveModel) {
-            return context.getStore().addDescriptorType(pomDescriptor, EffectiveDescriptor.class, MavenPomDescriptor.class);
+            return DescriptorTypes.add(pomDescriptor, EffectiveDescriptor.class, new Class<?>[] { MavenPomDescriptor.class }, context.getStore());
         }
         return pomDescriptor;
     }
@@ -216,7 +254,7 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
      * @param store
      *            The database.
      */
-    private void addConfiguration(ConfigurableDescriptor configurableDescriptor, Xpp3Dom config, Store store) {
+    private static void addConfiguration(ConfigurableDescriptor configurableDescriptor, Xpp3Dom config, Store store) {
         if (null == config) {
             return;
         }
@@ -255,7 +293,7 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
      *            The scanner context
      * @return The list of {@link MavenDependencyDescriptor}s.
      */
-    private List<MavenDependencyDescriptor> getDependencies(List<Dependency> dependencies, ScannerContext scannerContext) {
+    static List<MavenDependencyDescriptor> getDependencies(List<Dependency> dependencies, ScannerContext scannerContext) {
         Store store = scannerContext.getStore();
         List<MavenDependencyDescriptor> dependencyDescriptors = new ArrayList<>(dependencies.size());
         // initially collect all artifact descriptors (avoid write flushes to datastore)
@@ -289,7 +327,7 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
      * @param store
      *            The database.
      */
-    private void addExecutionGoals(MavenPluginExecutionDescriptor executionDescriptor, PluginExecution pluginExecution, Store store) {
+    private static void addExecutionGoals(MavenPluginExecutionDescriptor executionDescriptor, PluginExecution pluginExecution, Store store) {
         List<String> goals = pluginExecution.getGoals();
         for (String goal : goals) {
             MavenExecutionGoalDescriptor goalDescriptor = store.create(MavenExecutionGoalDescriptor.class);
@@ -389,12 +427,12 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
      *            The scanner context.
      * @return The plugin descriptors.
      */
-    private List<MavenPluginDescriptor> createMavenPluginDescriptors(List<Plugin> plugins, ScannerContext context) {
+    static List<MavenPluginDescriptor> createMavenPluginDescriptors(List<Plugin> plugins, ScannerContext context) {
         Store store = context.getStore();
         List<MavenPluginDescriptor> pluginDescriptors = new ArrayList<>();
         for (Plugin plugin : plugins) {
             MavenPluginDescriptor mavenPluginDescriptor = store.create(MavenPluginDescriptor.class);
-            MavenArtifactDescriptor artifactDescriptor = context.peek(ArtifactResolver.class).resolve(new PluginCoordinates(plugin), context);
+            MavenArtifactDescriptor artifactDescriptor = getArtifactResolver(context).resolve(new PluginCoordinates(plugin), context);
             mavenPluginDescriptor.setArtifact(artifactDescriptor);
             mavenPluginDescriptor.setInherited(plugin.isInherited());
             mavenPluginDescriptor.getDeclaresDependencies()
@@ -438,7 +476,7 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
     private void addParent(MavenPomDescriptor pomDescriptor, Model model, ScannerContext context) {
         Parent parent = model.getParent();
         if (null != parent) {
-            ArtifactResolver resolver = context.peek(ArtifactResolver.class);
+            ArtifactResolver resolver = getArtifactResolver(context);
             MavenArtifactDescriptor parentDescriptor = resolver.resolve(new ParentCoordinates(parent), context);
             pomDescriptor.setParent(parentDescriptor);
         }
@@ -454,7 +492,7 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
      * @param store
      *            The database.
      */
-    private void addPluginExecutions(MavenPluginDescriptor mavenPluginDescriptor, Plugin plugin, Store store) {
+    private static void addPluginExecutions(MavenPluginDescriptor mavenPluginDescriptor, Plugin plugin, Store store) {
         List<PluginExecution> executions = plugin.getExecutions();
         for (PluginExecution pluginExecution : executions) {
             MavenPluginExecutionDescriptor executionDescriptor = store.create(MavenPluginExecutionDescriptor.class);
@@ -569,9 +607,9 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
      *            The scanner context.
      * @return The MavenArtifactDescriptor.
      */
-    private MavenArtifactDescriptor getMavenArtifactDescriptor(Dependency dependency, ScannerContext context) {
+    private static MavenArtifactDescriptor getMavenArtifactDescriptor(Dependency dependency, ScannerContext context) {
         DependencyCoordinates coordinates = new DependencyCoordinates(dependency);
-        return context.peek(ArtifactResolver.class).resolve(coordinates, context);
+        return getArtifactResolver(context).resolve(coordinates, context);
     }
 
     /**
@@ -583,7 +621,7 @@ public class MavenModelScannerPlugin extends AbstractScannerPlugin<Model, MavenP
      *            The database.
      * @return Child config information.
      */
-    private ValueDescriptor<?> getConfigChildNodes(Xpp3Dom node, Store store) {
+    private static ValueDescriptor<?> getConfigChildNodes(Xpp3Dom node, Store store) {
         Xpp3Dom[] children = node.getChildren();
         if (children.length == 0) {
             PropertyDescriptor propertyDescriptor = store.create(PropertyDescriptor.class);
@@ -1,18 +1,32 @@
 package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
 import com.buschmais.jqassistant.core.scanner.api.Scope;
 import com.buschmais.jqassistant.plugin.common.api.scanner.filesystem.FileResource;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenDependencyDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPluginDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPomDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPomXmlDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.PomModelBuilder;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.StreamingPomReader.Section;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr.PomParseEvent;
 import com.buschmais.jqassistant.plugin.xml.api.scanner.AbstractXmlFileScannerPlugin;
 import com.buschmais.jqassistant.plugin.xml.api.scanner.XMLFileFilter;
 
+import com.google.common.io.CountingInputStream;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.slf4j.Logger;
@@ -27,35 +41,60 @@ public class MavenPomFileScannerPlugin extends AbstractXmlFileScannerPlugin<Mave
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MavenPomFileScannerPlugin.class);
 
+    private static final String PROPERTY_NAME_STREAMING_THRESHOLD = "maven3.pom.streaming.threshold";
+
+    private static final int DEFAULT_STREAMING_THRESHOLD = 1024 * 1024;
+
+    private static final String MAVEN_POM_NAMESPACE = "http://maven.apache.org/POM/4.0.0";
+
+    private final PomRootElementSniffer pomRootElementSniffer = new PomRootElementSniffer(MAVEN_POM_NAMESPACE);
+
     private MavenXpp3Reader mavenXpp3Reader;
 
+    private StreamingPomReader streamingPomReader;
+
+    private int streamingThreshold;
+
     @Override
     public void initialize() {
         mavenXpp3Reader = new MavenXpp3Reader();
+        streamingPomReader = new StreamingPomReader();
+    }
+
+    @Override
+    protected void configure() {
+        super.configure();
+        streamingThreshold = Integer.parseInt(getStringProperty(PROPERTY_NAME_STREAMING_THRESHOLD, Integer.toString(DEFAULT_STREAMING_THRESHOLD)));
     }
 
     @Override
     public boolean accepts(FileResource item, String path, Scope scope) throws IOException {
-        boolean hasXMLExtension = path.toLowerCase().endsWith(".xml");
-        boolean isPomXML = path.toLowerCase().endsWith("pom.xml");
-        boolean hasPomExtension = path.toLowerCase().endsWith(".pom");
-        boolean identifiedByExtension = isPomXML || hasPomExtension;
-
-        boolean isMavenPOM;
-        if (!identifiedByExtension && hasXMLExtension) {
-            isMavenPOM = XMLFileFilter.rootElementMatches(item, path, "project", "http://maven.apache.org/POM/4.0.0");
-        } else {
-            isMavenPOM = identifiedByExtension;
+        String lowerCasePath = path.toLowerCase();
+        if (lowerCasePath.endsWith("pom.xml") || lowerCasePath.endsWith(".pom")) {
+            return true;
+        }
+        if (!lowerCasePath.endsWith(".xml")) {
+            return false;
+        }
+        PomRootElementSniffer.Result result;
+        try (InputStream stream = item.createStream()) {
+            result = pomRootElementSniffer.sniff(stream);
+        }
+        switch (result) {
+        case POM:
+            return true;
+        case NO_POM:
+            return false;
+        default:
+            return XMLFileFilter.rootElementMatches(item, path, "project", MAVEN_POM_NAMESPACE);
         }
-
-        return isMavenPOM;
     }
 
     /** {@inheritDoc} */
     @Override
     public MavenPomXmlDescriptor scan(FileResource item, MavenPomXmlDescriptor mavenPomXmlDescriptor, String path, Scope scope, Scanner scanner)
             throws IOException {
-        Model model = getModel(item, scanner);
+        Model model = getModel(item, path, mavenPomXmlDescriptor, scanner);
         if (model != null) {
             scanner.getContext().push(MavenPomDescriptor.class, mavenPomXmlDescriptor);
             try {
@@ -73,29 +112,153 @@ public class MavenPomFileScannerPlugin extends AbstractXmlFileScannerPlugin<Mave
 
     /**
      * Build the POM model from the given file resource (i.e. a pom.xml).
+     *
+     * If the size of the file exceeds the configured streaming threshold then
+     * dependencies and plugins are read using a {@link StreamingPomReader} and
+     * added to the given {@link MavenPomXmlDescriptor} while they are parsed, the
+     * returned model does not contain them.
      * 
      * @param item
      *            The file resource.
+     * @param path
+     *            The path of the file resource.
+     * @param mavenPomXmlDescriptor
+     *            The {@link MavenPomXmlDescriptor}.
      * @param scanner
      *            The scanner.
      * @return The model.
      * @throws IOException
      *             If the model cannot be read.
      */
-    private Model getModel(FileResource item, Scanner scanner) throws IOException {
+    private Model getModel(FileResource item, String path, MavenPomXmlDescriptor mavenPomXmlDescriptor, Scanner scanner) throws IOException {
+        PomParseEvent pomParseEvent = new PomParseEvent();
+        pomParseEvent.begin();
+        pomParseEvent.size = -1;
         PomModelBuilder pomModelBuilder = scanner.getContext().peekOrDefault(PomModelBuilder.class, null);
-        if (pomModelBuilder != null) {
-            return pomModelBuilder.getModel(item.getFile());
-        }
         Model model = null;
-        try (InputStream stream = item.createStream()) {
-            model = mavenXpp3Reader.read(stream);
-        } catch (XmlPullParserException e) {
-            String msg = "Cannot read POM descriptor from " + item.getFile().getAbsolutePath() + ".";
+        try {
+            if (pomModelBuilder != null) {
+                return pomModelBuilder.getModel(item.getFile());
+            }
+            try (CountingInputStream stream = new CountingInputStream(item.createStream())) {
+                try {
+                    if (streamingThreshold > 0) {
+                        byte[] head = stream.readNBytes(streamingThreshold);
+                        if (head.length < streamingThreshold) {
+                            model = mavenXpp3Reader.read(new ByteArrayInputStream(head));
+                        } else {
+                            LOGGER.debug("POM exceeds {} bytes, using streaming reader.", streamingThreshold);
+                            pomParseEvent.streaming = true;
+                            try (StreamingSectionScanner sectionScanner = new StreamingSectionScanner(mavenPomXmlDescriptor, scanner.getContext())) {
+                                model = streamingPomReader.read(new SequenceInputStream(new ByteArrayInputStream(head), stream), sectionScanner);
+                                pomParseEvent.dependencies = sectionScanner.getCount(Section.DEPENDENCIES);
+                                pomParseEvent.plugins = sectionScanner.getCount(Section.PLUGINS);
+                            }
+                        }
+                    } else {
+                        model = mavenXpp3Reader.read(stream);
+                    }
+                } finally {
+                    pomParseEvent.size = stream.getCount();
+                }
+            } catch (XmlPullParserException e) {
+                String msg = "Cannot read POM descriptor from " + item.getFile().getAbsolutePath() + ".";
+
+                LOGGER.warn(msg, e);
+            }
+            if (model != null && !pomParseEvent.streaming) {
+                pomParseEvent.dependencies = model.getDependencies().size();
+                pomParseEvent.plugins = model.getBuild() != null ? model.getBuild().getPlugins().size() : 0;
+            }
+            return model;
+        } finally {
+            pomParseEvent.end();
+            if (pomParseEvent.shouldCommit()) {
+                pomParseEvent.path = path;
+                pomParseEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Creates the descriptors for streamed dependencies and plugins in batches.
+     */
+    private static class StreamingSectionScanner implements StreamingPomReader.SectionHandler, AutoCloseable {
+
+        private static final int BATCH_SIZE = 256;
+
+        private final MavenPomXmlDescriptor mavenPomXmlDescriptor;
+
+        private final ScannerContext scannerContext;
+
+        private final Map<Section, List<Dependency>> dependencies = new EnumMap<>(Section.class);
+
+        private final Map<Section, List<Plugin>> plugins = new EnumMap<>(Section.class);
+
+        private final Map<Section, Integer> counts = new EnumMap<>(Section.class);
+
+        private StreamingSectionScanner(MavenPomXmlDescriptor mavenPomXmlDescriptor, ScannerContext scannerContext) {
+            this.mavenPomXmlDescriptor = mavenPomXmlDescriptor;
+            this.scannerContext = scannerContext;
+        }
+
+        @Override
+        public void dependency(Section section, Dependency dependency) {
+            counts.merge(section, 1, Integer::sum);
+            List<Dependency> batch = dependencies.computeIfAbsent(section, key -> new ArrayList<>(BATCH_SIZE));
+            batch.add(dependency);
+            if (batch.size() >= BATCH_SIZE) {
+                flushDependencies(section, batch);
+            }
+        }
+
+        @Override
+        public void plugin(Section section, Plugin plugin) {
+            counts.merge(section, 1, Integer::sum);
+            List<Plugin> batch = plugins.computeIfAbsent(section, key -> new ArrayList<>(BATCH_SIZE));
+            batch.add(plugin);
+            if (batch.size() >= BATCH_SIZE) {
+                flushPlugins(section, batch);
+            }
+        }
+
+        /**
+         * @return The number of elements which have been read for the given section.
+         */
+        int getCount(Section section) {
+            return counts.getOrDefault(section, 0);
+        }
+
+        @Override
+        public void close() {
+            dependencies.forEach(this::flushDependencies);
+            plugins.forEach(this::flushPlugins);
+        }
+
+        private void flushDependencies(Section section, List<Dependency> batch) {
+            List<MavenDependencyDescriptor> dependencyDescriptors = MavenModelScannerPlugin.getDependencies(batch, scannerContext);
+            if (section == Section.MANAGED_DEPENDENCIES) {
+                mavenPomXmlDescriptor.getManagesDependencies().addAll(dependencyDescriptors);
+            } else {
+                mavenPomXmlDescriptor.getDeclaresDependencies().addAll(dependencyDescriptors);
+            }
+            flush(batch);
+        }
+
+        private void flushPlugins(Section section, List<Plugin> batch) {
+            List<MavenPluginDescriptor> pluginDescriptors = MavenModelScannerPlugin.createMavenPluginDescriptors(batch, scannerContext);
+            if (section == Section.MANAGED_PLUGINS) {
+                mavenPomXmlDescriptor.getManagedPlugins().addAll(pluginDescriptors);
+            } else {
+                mavenPomXmlDescriptor.getPlugins().addAll(pluginDescriptors);
+            }
+            flush(batch);
+        }
 
-            LOGGER.warn(msg, e);
+        private void flush(List<?> batch) {
+            batch.clear();
+            scannerContext.getStore().flush();
         }
-        return model;
     }
 
 }
@@ -3,10 +3,18 @@ package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
 import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashSet;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
@@ -25,14 +33,26 @@ import com.buschmais.jqassistant.plugin.java.api.model.JavaArtifactFileDescripto
 import com.buschmais.jqassistant.plugin.java.api.model.JavaClassesDirectoryDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.*;
 import com.buschmais.jqassistant.plugin.maven3.api.model.*;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.DescriptorTypes;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.EffectiveModel;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.artifact.RecordingRepositoryArtifactResolver;
 import com.buschmais.jqassistant.plugin.maven3.impl.scanner.dependency.DependencyScanner;
 import com.buschmais.jqassistant.plugin.maven3.impl.scanner.dependency.GraphResolver;
-
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr.DependencyGraphEvent;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr.ModuleScanEvent;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ModuleScanMetrics;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ScanMetrics;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
@@ -48,6 +68,12 @@ import org.slf4j.LoggerFactory;
 import static com.buschmais.jqassistant.core.shared.io.FileNameNormalizer.normalize;
 import static com.buschmais.jqassistant.plugin.java.api.scanner.JavaScope.CLASSPATH;
 import static com.buschmais.jqassistant.plugin.junit.api.scanner.JunitScope.TESTREPORTS;
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema.PROPERTY_NAME_SCHEMA_CONSTRAINTS;
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema.PROPERTY_NAME_SCHEMA_PROVISION;
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ScanPhase.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.aether.util.graph.transformer.ConflictResolver.CONFIG_PROP_VERBOSE;
 
 /**
@@ -61,6 +87,50 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
 
     private static final String PROPERTY_NAME_DEPENDENCIES_EXCLUDES = "maven3.dependencies.excludes";
 
+    private static final String PROPERTY_NAME_DEPENDENCIES_GRAPH = "maven3.dependencies.graph";
+
+    private static final String PROPERTY_NAME_DEPENDENCIES_TRANSITIVE = "maven3.dependencies.transitive";
+
+    private static final String PROPERTY_NAME_DEPENDENCIES_PROJECTS = "maven3.dependencies.projects";
+
+    private static final String PROPERTY_NAME_EFFECTIVE_MODEL = "maven3.model.effective";
+
+    private static final String PROPERTY_NAME_TEST_REPORTS_SCAN = "maven3.testreports.scan";
+
+    private static final String PROPERTY_NAME_INCLUDES_SCAN = "maven3.includes.scan";
+
+    private static final String PROPERTY_NAME_INCLUDES_URL_CACHE = "maven3.includes.url.cache";
+
+    private static final String PROPERTY_NAME_INCLUDES_URL_CACHE_DIRECTORY = "maven3.includes.url.cache.directory";
+
+    private static final String PROPERTY_NAME_INCLUDES_URL_CONNECT_TIMEOUT = "maven3.includes.url.connect.timeout";
+
+    private static final String PROPERTY_NAME_INCLUDES_URL_READ_TIMEOUT = "maven3.includes.url.read.timeout";
+
+    private static final String PROPERTY_NAME_METRICS_REPORT = "maven3.metrics.report";
+
+    private static final String PROPERTY_NAME_METRICS_TOP = "maven3.metrics.top";
+
+    private static final String PROPERTY_NAME_STATISTICS = "maven3.statistics";
+
+    private static final String PROJECT_CACHE_KEY = MavenProjectScannerPlugin.class.getName() + ".projects";
+
+    private static final String REMOVE_PROJECT_DEPENDENCIES = "MATCH (project:Maven:Project)-[dependsOn:DEPENDS_ON_PROJECT]->() WHERE id(project)=$project "
+        + "DELETE dependsOn";
+
+    private static final String LOAD_TEST_REPORTS = "MATCH (project:Maven:Project)-[:HAS_TEST_REPORT]->(report:File) WHERE id(project)=$project "
+        + "RETURN report.fileName AS fileName, report.testReportSize AS size, report.testReportLastModified AS lastModified";
+
+    private static final String REMOVE_TEST_REPORTS = "MATCH (project:Maven:Project)-[:HAS_TEST_REPORT]->(report:File) "
+        + "WHERE id(project)=$project AND report.fileName IN $fileNames "
+        + "OPTIONAL MATCH (report)-[:CONTAINS]->(testCase:TestCase) "
+        + "WITH report, collect(testCase) AS testCases FOREACH (testCase IN testCases | DETACH DELETE testCase) DETACH DELETE report";
+
+    private static final String UPDATE_TEST_REPORTS = "UNWIND $reports AS updated MATCH (report:File) WHERE id(report)=updated.id "
+        + "SET report.testReportSize=updated.size, report.testReportLastModified=updated.lastModified";
+
+    private static final int TEST_REPORTS_BATCH_SIZE = 1000;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(MavenProjectScannerPlugin.class);
 
     private final ScopeHelper scopeHelper = new ScopeHelper(LOGGER);
@@ -69,8 +139,34 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
 
     private boolean scanDependencies;
 
+    private boolean resolveDependencyGraph;
+
+    private boolean transitiveDependencies;
+
+    private boolean projectDependencies;
+
+    private boolean scanEffectiveModel;
+
+    private boolean scanTestReports;
+
+    private boolean scanIncludes;
+
+    private UrlIncludeCache urlIncludeCache = null;
+
+    private final AtomicBoolean urlIncludesPrefetched = new AtomicBoolean();
+
+    private ScanMetrics scanMetrics = null;
+
+    private boolean scanStatistics;
+
     private ArtifactFilter dependencyFilter = null;
 
+    private MavenSession reactorSession;
+
+    private Map<Path, MavenProject> reactorProjects;
+
+    private Map<String, MavenProject> reactorProjectsByCoordinates;
+
     /**
      * Default constructor.
      */
@@ -90,11 +186,39 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
 
     @Override
     protected void configure() {
+        if (getBooleanProperty(PROPERTY_NAME_SCHEMA_PROVISION, true)) {
+            MavenSchema.provision(getScannerContext().getStore(), getBooleanProperty(PROPERTY_NAME_SCHEMA_CONSTRAINTS, false));
+        }
         scanDependencies = getBooleanProperty(PROPERTY_NAME_DEPENDENCIES_SCAN, false);
         String dependencyFilterIncludes = getStringProperty(PROPERTY_NAME_DEPENDENCIES_INCLUDES, null);
         String dependencyFilterExcludes = getStringProperty(PROPERTY_NAME_DEPENDENCIES_EXCLUDES, null);
         dependencyFilter = new ArtifactFilter(dependencyFilterIncludes, dependencyFilterExcludes);
-
+        resolveDependencyGraph = getBooleanProperty(PROPERTY_NAME_DEPENDENCIES_GRAPH, true);
+        transitiveDependencies = getBooleanProperty(PROPERTY_NAME_DEPENDENCIES_TRANSITIVE, false);
+        projectDependencies = getBooleanProperty(PROPERTY_NAME_DEPENDENCIES_PROJECTS, false);
+        scanEffectiveModel = getBooleanProperty(PROPERTY_NAME_EFFECTIVE_MODEL, true);
+        scanTestReports = getBooleanProperty(PROPERTY_NAME_TEST_REPORTS_SCAN, true);
+        scanIncludes = getBooleanProperty(PROPERTY_NAME_INCLUDES_SCAN, true);
+        if (getBooleanProperty(PROPERTY_NAME_INCLUDES_URL_CACHE, false)) {
+            String urlCacheDirectory = getStringProperty(PROPERTY_NAME_INCLUDES_URL_CACHE_DIRECTORY,
+                System.getProperty("java.io.tmpdir") + "/jqassistant/maven3/includes");
+            int connectTimeout = Integer.parseInt(getStringProperty(PROPERTY_NAME_INCLUDES_URL_CONNECT_TIMEOUT, "10000"));
+            int readTimeout = Integer.parseInt(getStringProperty(PROPERTY_NAME_INCLUDES_URL_READ_TIMEOUT, "30000"));
+            urlIncludeCache = new UrlIncludeCache(Paths.get(urlCacheDirectory), connectTimeout, readTimeout);
+        } else {
+            urlIncludeCache = null;
+        }
+        urlIncludesPrefetched.set(false);
+        String metricsReport = getStringProperty(PROPERTY_NAME_METRICS_REPORT, null);
+        scanStatistics = getBooleanProperty(PROPERTY_NAME_STATISTICS, false);
+        scanMetrics = metricsReport != null || scanStatistics ? new ScanMetrics(metricsReport != null ? Paths.get(metricsReport) : null,
+            Integer.parseInt(getStringProperty(PROPERTY_NAME_METRICS_TOP, "10"))) : null;
+        if (scanDependencies && !resolveDependencyGraph) {
+            LOGGER.warn("Scanning dependencies requires resolution of the dependency graph, '{}' is ignored.", PROPERTY_NAME_DEPENDENCIES_SCAN);
+        }
+        if (transitiveDependencies && !resolveDependencyGraph) {
+            LOGGER.warn("Transitive dependencies require resolution of the dependency graph, '{}' is ignored.", PROPERTY_NAME_DEPENDENCIES_TRANSITIVE);
+        }
     }
 
     @Override
@@ -112,24 +236,89 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
             .getLocalRepository()
             .getBasedir();
 
+        if (scanIncludes && urlIncludeCache != null && urlIncludesPrefetched.compareAndSet(false, true)) {
+            prefetchUrlIncludes(scanner);
+        }
+
         FileResolver fileResolver = context.peek(FileResolver.class);
-        MavenRepositoryArtifactResolver artifactResolver = new MavenRepositoryArtifactResolver(localRepositoryDirectory, fileResolver);
-        context.push(ArtifactResolver.class, artifactResolver);
-        try {
-            MavenProjectDirectoryDescriptor projectDescriptor = scanClasses(project, scanner, mavenSession, artifactResolver);
-            // project information
-            addProjectDetails(project, projectDescriptor, scanner);
-            scanTestReports(project, scanner);
-            scanIncludes(project, scanner, projectDescriptor);
+        MavenRepositoryArtifactResolver artifactResolver = new RecordingRepositoryArtifactResolver(localRepositoryDirectory, fileResolver);
+        ModuleScanEvent moduleScanEvent = new ModuleScanEvent();
+        moduleScanEvent.begin();
+        try (ModuleScan moduleScan = ModuleScan.open(context.getStore(), artifactResolver,
+            () -> scanMetrics != null ? scanMetrics.startModule(project.getId(), context.getStore()) : null)) {
+            Optional<ModuleScanMetrics> moduleScanMetrics = moduleScan.getMetrics();
+            MavenProjectDirectoryDescriptor projectDescriptor;
+            try {
+                projectDescriptor = scanClasses(project, scanner, mavenSession, moduleScan);
+                // project information
+                MavenProjectDirectoryDescriptor finalProjectDescriptor = projectDescriptor;
+                addProjectDetails(project, projectDescriptor, scanner, mavenSession, moduleScan);
+                if (scanTestReports) {
+                    moduleScan.measure(TEST_REPORTS, () -> scanTestReports(project, finalProjectDescriptor, scanner));
+                }
+                if (scanIncludes) {
+                    moduleScan.measure(INCLUDES, () -> scanIncludes(project, scanner, finalProjectDescriptor));
+                }
+            } finally {
+                moduleScanMetrics.ifPresent(metrics -> scanMetrics.finishModule(metrics));
+            }
+            // statistics are only recorded for successful scans
+            if (scanStatistics && moduleScanMetrics.isPresent()) {
+                addScanStatistics(projectDescriptor, moduleScanMetrics.get(), artifactResolver, context.getStore());
+            }
             return projectDescriptor;
         } finally {
-            context.pop(ArtifactResolver.class);
+            moduleScanEvent.end();
+            if (moduleScanEvent.shouldCommit()) {
+                moduleScanEvent.gav = project.getId();
+                moduleScanEvent.path = projectPath;
+                moduleScanEvent.commit();
+            }
         }
     }
 
-    private MavenProjectDirectoryDescriptor scanClasses(MavenProject project, Scanner scanner, MavenSession mavenSession,
-        MavenRepositoryArtifactResolver artifactResolver) {
+    /**
+     * Add a {@link MavenScanStatisticsDescriptor} to the project descriptor
+     * representing the measurements of the current scan.
+     *
+     * @param projectDescriptor
+     *     The project descriptor.
+     * @param moduleScanMetrics
+     *     The finished {@link ModuleScanMetrics} of the project.
+     * @param artifactResolver
+     *     The {@link MavenRepositoryArtifactResolver} used for the project.
+     * @param store
+     *     The {@link Store}.
+     */
+    private void addScanStatistics(MavenProjectDirectoryDescriptor projectDescriptor, ModuleScanMetrics moduleScanMetrics,
+        MavenRepositoryArtifactResolver artifactResolver, Store store) {
+        MavenScanStatisticsDescriptor statisticsDescriptor = store.create(MavenScanStatisticsDescriptor.class);
+        statisticsDescriptor.setTimestamp(System.currentTimeMillis());
+        statisticsDescriptor.setScanTime(NANOSECONDS.toMillis(moduleScanMetrics.getWallTime()));
+        statisticsDescriptor.setGraphResolutionTime(
+            NANOSECONDS.toMillis(moduleScanMetrics.getWallTime(GRAPH_RESOLUTION) + moduleScanMetrics.getWallTime(DEPENDENCY_RELATIONS)));
+        statisticsDescriptor.setDependenciesTime(NANOSECONDS.toMillis(moduleScanMetrics.getWallTime(DEPENDENCIES)));
+        statisticsDescriptor.setClassesTime(NANOSECONDS.toMillis(moduleScanMetrics.getWallTime(CLASSES)));
+        statisticsDescriptor.setModelTime(NANOSECONDS.toMillis(moduleScanMetrics.getWallTime(MODEL)));
+        statisticsDescriptor.setEffectiveModelTime(NANOSECONDS.toMillis(moduleScanMetrics.getWallTime(EFFECTIVE_MODEL)));
+        statisticsDescriptor.setTestReportsTime(NANOSECONDS.toMillis(moduleScanMetrics.getWallTime(TEST_REPORTS)));
+        statisticsDescriptor.setIncludesTime(NANOSECONDS.toMillis(moduleScanMetrics.getWallTime(INCLUDES)));
+        statisticsDescriptor.setCreatedNodes(moduleScanMetrics.getCreatedNodes());
+        statisticsDescriptor.setCreatedRelations(moduleScanMetrics.getCreatedRelations());
+        long cacheHits = artifactResolver.getCacheHits();
+        long cacheMisses = artifactResolver.getCacheMisses();
+        statisticsDescriptor.setArtifactCacheHits(cacheHits);
+        statisticsDescriptor.setArtifactCacheMisses(cacheMisses);
+        statisticsDescriptor.setArtifactCacheHitRate(cacheHits + cacheMisses > 0 ? (double) cacheHits / (cacheHits + cacheMisses) : 0);
+        statisticsDescriptor.setScannedDependencies(moduleScanMetrics.getScannedDependencies());
+        statisticsDescriptor.setSkippedDependencies(moduleScanMetrics.getSkippedDependencies());
+        projectDescriptor.getScanStatistics()
+            .add(statisticsDescriptor);
+    }
+
+    private MavenProjectDirectoryDescriptor scanClasses(MavenProject project, Scanner scanner, MavenSession mavenSession, ModuleScan moduleScan) {
         ScannerContext context = scanner.getContext();
+        ArtifactResolver artifactResolver = moduleScan.getArtifactResolver();
         MavenProjectDirectoryDescriptor projectDescriptor = resolveProject(project, MavenProjectDirectoryDescriptor.class, context);
         // main artifact
         Artifact artifact = project.getArtifact();
@@ -151,25 +340,195 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
                 .add(testArtifactDescriptor);
         }
 
-        resolveDependencyGraph(project, mainArtifactDescriptor, testArtifactDescriptor, scanner, mavenSession);
+        if (resolveDependencyGraph) {
+            resolveDependencyGraph(project, mainArtifactDescriptor, testArtifactDescriptor, moduleScan, scanner, mavenSession);
+        }
 
         // Scan classes
-        scanClassesDirectory(mainArtifactDescriptor, project.getBuild()
-            .getOutputDirectory(), scanner);
-        if (testOutputDirectory != null) {
-            scanClassesDirectory(testArtifactDescriptor, testOutputDirectory, scanner);
-        }
+        MavenArtifactDescriptor finalTestArtifactDescriptor = testArtifactDescriptor;
+        moduleScan.measure(CLASSES, () -> {
+            scanClassesDirectory(mainArtifactDescriptor, project.getBuild()
+                .getOutputDirectory(), scanner);
+            if (testOutputDirectory != null) {
+                scanClassesDirectory(finalTestArtifactDescriptor, testOutputDirectory, scanner);
+            }
+        });
         return projectDescriptor;
     }
 
-    private void scanTestReports(MavenProject project, Scanner scanner) {
+    /**
+     * Scan the surefire and failsafe test reports of a project.
+     *
+     * <p>
+     * The scan is skipped if the fingerprint of the report directories matches the
+     * fingerprint recorded for the project descriptor by a previous scan, i.e. the
+     * store has not been reset and no report file has been added, removed or
+     * modified. Otherwise only the report files are scanned whose size or
+     * modification time differs from the previous scan, the nodes of modified
+     * and removed reports are deleted before. The report files are referenced
+     * by the project using <code>HAS_TEST_REPORT</code> relations, their sizes
+     * and modification times are written in batches.
+     * </p>
+     *
+     * @param project
+     *     The project.
+     * @param projectDescriptor
+     *     The project descriptor.
+     * @param scanner
+     *     The scanner.
+     */
+    private void scanTestReports(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, Scanner scanner) {
         // add test reports
         String surefireReports = project.getBuild()
             .getDirectory() + "/surefire-reports";
-        scanFile(new File(surefireReports), surefireReports, TESTREPORTS, scanner);
         String failsafeReports = project.getBuild()
             .getDirectory() + "/failsafe-reports";
-        scanFile(new File(failsafeReports), failsafeReports, TESTREPORTS, scanner);
+        File surefireReportsDirectory = new File(surefireReports);
+        File failsafeReportsDirectory = new File(failsafeReports);
+        String fingerprint = getFingerprint(surefireReportsDirectory, failsafeReportsDirectory);
+        String previousFingerprint = projectDescriptor.getTestReportsFingerprint();
+        if (fingerprint.equals(previousFingerprint)) {
+            LOGGER.debug("Test reports of {} have not changed since last scan, skipping.", project);
+            return;
+        }
+        Store store = scanner.getContext()
+            .getStore();
+        // reports can only exist if the project has been scanned before
+        Map<String, long[]> scannedReports = previousFingerprint != null ? loadTestReports(projectDescriptor, store) : new HashMap<>();
+        List<File> changedReports = new ArrayList<>();
+        List<String> removedReports = new ArrayList<>();
+        for (File reportFile : getTestReportFiles(surefireReportsDirectory, failsafeReportsDirectory)) {
+            String fileName = reportFile.getAbsolutePath();
+            long[] scannedReport = scannedReports.remove(fileName);
+            if (scannedReport == null || scannedReport[0] != reportFile.length() || scannedReport[1] != reportFile.lastModified()) {
+                changedReports.add(reportFile);
+                if (scannedReport != null) {
+                    removedReports.add(fileName);
+                }
+            }
+        }
+        // reports which do not exist anymore
+        removedReports.addAll(scannedReports.keySet());
+        for (List<String> batch : Lists.partition(removedReports, TEST_REPORTS_BATCH_SIZE)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("project", projectDescriptor.getId());
+            params.put("fileNames", batch);
+            store.executeQuery(REMOVE_TEST_REPORTS, params)
+                .close();
+        }
+        List<Map<String, Object>> updatedReports = new ArrayList<>();
+        for (File reportFile : changedReports) {
+            FileDescriptor reportDescriptor = scanner.scan(reportFile, reportFile.getAbsolutePath(), TESTREPORTS);
+            if (reportDescriptor != null) {
+                projectDescriptor.getTestReports()
+                    .add(reportDescriptor);
+                Map<String, Object> updatedReport = new HashMap<>();
+                updatedReport.put("id", reportDescriptor.getId());
+                updatedReport.put("size", reportFile.length());
+                updatedReport.put("lastModified", reportFile.lastModified());
+                updatedReports.add(updatedReport);
+            }
+        }
+        for (List<Map<String, Object>> batch : Lists.partition(updatedReports, TEST_REPORTS_BATCH_SIZE)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("reports", batch);
+            store.executeQuery(UPDATE_TEST_REPORTS, params)
+                .close();
+        }
+        LOGGER.debug("Scanned {} changed test reports of {}, removed {}.", changedReports.size(), project, removedReports.size());
+        projectDescriptor.setTestReportsFingerprint(fingerprint);
+    }
+
+    /**
+     * Load the sizes and modification times of the test reports of a project
+     * recorded by the previous scan.
+     *
+     * @param projectDescriptor
+     *     The project descriptor.
+     * @param store
+     *     The {@link Store}.
+     * @return The size and modification time per file name.
+     */
+    private Map<String, long[]> loadTestReports(MavenProjectDirectoryDescriptor projectDescriptor, Store store) {
+        Map<String, long[]> testReports = new HashMap<>();
+        Map<String, Object> params = new HashMap<>();
+        params.put("project", projectDescriptor.getId());
+        try (Query.Result<CompositeRowObject> result = store.executeQuery(LOAD_TEST_REPORTS, params)) {
+            for (CompositeRowObject row : result) {
+                Long size = row.get("size", Long.class);
+                Long lastModified = row.get("lastModified", Long.class);
+                // reports without recorded size are always scanned again
+                testReports.put(row.get("fileName", String.class), new long[] { size != null ? size : -1, lastModified != null ? lastModified : -1 });
+            }
+        }
+        return testReports;
+    }
+
+    /**
+     * Return the report files of the given directories which are scanned by the
+     * JUnit plugin (<code>TEST-*.xml</code>).
+     *
+     * @param directories
+     *     The directories.
+     * @return The report files.
+     */
+    private static List<File> getTestReportFiles(File... directories) {
+        List<File> reportFiles = new ArrayList<>();
+        for (File directory : directories) {
+            File[] files = directory.listFiles((dir, name) -> name.startsWith("TEST-") && name.endsWith(".xml"));
+            if (files != null) {
+                Arrays.sort(files);
+                reportFiles.addAll(Arrays.asList(files));
+            }
+        }
+        return reportFiles;
+    }
+
+    /**
+     * Calculates a fingerprint of the given directories from names, sizes and
+     * modification times of the contained files without reading them.
+     *
+     * @param directories
+     *     The directories.
+     * @return The fingerprint.
+     */
+    static String getFingerprint(File... directories) {
+        Hasher hasher = Hashing.murmur3_128()
+            .newHasher();
+        for (File directory : directories) {
+            hasher.putString(directory.getPath(), UTF_8);
+            File[] files = directory.listFiles();
+            if (files != null) {
+                Arrays.sort(files);
+                for (File file : files) {
+                    hasher.putString(file.getName(), UTF_8)
+                        .putLong(file.length())
+                        .putLong(file.lastModified());
+                }
+            }
+        }
+        return hasher.hash()
+            .toString();
+    }
+
+    /**
+     * Start downloading the configured URL includes to the {@link UrlIncludeCache}.
+     *
+     * The includes are configured for the whole reactor, i.e. the downloads are
+     * started once before the first module is scanned and run concurrently to
+     * the scan of the modules.
+     *
+     * @param scanner
+     *     The scanner.
+     */
+    private void prefetchUrlIncludes(Scanner scanner) {
+        scanner.getConfiguration()
+            .include()
+            .flatMap(include -> include.urls())
+            .ifPresent(urls -> urlIncludeCache.prefetch(scopeHelper.getScopedResources(urls)
+                .stream()
+                .map(ScopeHelper.ScopedResource::getResource)
+                .collect(toList())));
     }
 
     private void scanIncludes(MavenProject project, Scanner scanner, MavenProjectDirectoryDescriptor projectDescriptor) {
@@ -191,6 +550,11 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
                     .toFile(), fileName, s, scanner), scanIncludeConsumer, scanner);
                 // urls
                 scanInclude(include.urls(), (url, s) -> {
+                    Optional<Path> cachedFile = urlIncludeCache != null ? urlIncludeCache.get(url) : Optional.empty();
+                    if (cachedFile.isPresent()) {
+                        return scanner.scan(cachedFile.get()
+                            .toFile(), url, s);
+                    }
                     try {
                         // scan URL as URI to allow more flexibility on protocols
                         return scanner.scan(new URI(url), url, s);
@@ -233,9 +597,8 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
     private <T extends MavenArtifactDescriptor> T getMavenArtifactDescriptor(Coordinates coordinates, Class<T> type, ArtifactResolver artifactResolver,
         Scanner scanner) {
         MavenArtifactDescriptor mavenArtifactDescriptor = artifactResolver.resolve(coordinates, scanner.getContext());
-        return scanner.getContext()
-            .getStore()
-            .addDescriptorType(mavenArtifactDescriptor, type);
+        return DescriptorTypes.add(mavenArtifactDescriptor, type, scanner.getContext()
+            .getStore());
     }
 
     /**
@@ -248,31 +611,35 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
      * @return The maven project descriptor.
      */
     protected <T extends MavenProjectDescriptor> T resolveProject(MavenProject project, Class<T> expectedType, ScannerContext scannerContext) {
-        String id = String.format("%s:%s:%s", project.getGroupId(), project.getArtifactId(), project.getVersion());
+        String id = project.getGroupId() + ':' + project.getArtifactId() + ':' + project.getVersion();
         Store store = scannerContext.getStore();
-        MavenProjectDescriptor projectDescriptor = store.find(MavenProjectDescriptor.class, id);
-        if (projectDescriptor == null) {
-            // resolve project as directory if a basedir is present (local project)
-            File basedir = project.getBasedir();
-            if (basedir != null) {
-                projectDescriptor = scannerContext.peek(FileResolver.class)
-                    .match(normalize(basedir.getAbsoluteFile()), MavenProjectDirectoryDescriptor.class, scannerContext);
-
-            } else {
-                projectDescriptor = store.create(expectedType);
-            }
-            projectDescriptor.setFullQualifiedName(id);
-            projectDescriptor.setName(project.getName());
-            projectDescriptor.setGroupId(project.getGroupId());
-            projectDescriptor.setArtifactId(project.getArtifactId());
-            projectDescriptor.setVersion(project.getVersion());
-            projectDescriptor.setPackaging(project.getPackaging());
-        }
+        MavenProjectDescriptor projectDescriptor = store.<String, MavenProjectDescriptor>getCache(PROJECT_CACHE_KEY)
+            .get(id, key -> {
+                MavenProjectDescriptor descriptor = store.find(MavenProjectDescriptor.class, key);
+                if (descriptor == null) {
+                    // resolve project as directory if a basedir is present (local project)
+                    File basedir = project.getBasedir();
+                    if (basedir != null) {
+                        descriptor = scannerContext.peek(FileResolver.class)
+                            .match(normalize(basedir.getAbsoluteFile()), MavenProjectDirectoryDescriptor.class, scannerContext);
+
+                    } else {
+                        descriptor = store.create(expectedType);
+                    }
+                    descriptor.setFullQualifiedName(key);
+                    descriptor.setName(project.getName());
+                    descriptor.setGroupId(project.getGroupId());
+                    descriptor.setArtifactId(project.getArtifactId());
+                    descriptor.setVersion(project.getVersion());
+                    descriptor.setPackaging(project.getPackaging());
+                }
+                return descriptor;
+            });
         return expectedType.cast(projectDescriptor);
     }
 
-    private void resolveDependencyGraph(MavenProject project, MavenArtifactDescriptor mainDescriptor, MavenArtifactDescriptor testDescriptor, Scanner scanner,
-        MavenSession mavenSession) {
+    private void resolveDependencyGraph(MavenProject project, MavenArtifactDescriptor mainDescriptor, MavenArtifactDescriptor testDescriptor,
+        ModuleScan moduleScan, Scanner scanner, MavenSession mavenSession) {
         ScannerContext context = scanner.getContext();
         ProjectBuildingRequest projectBuildingRequest = mavenSession.getProjectBuildingRequest();
         ArtifactRepository localRepository = mavenSession.getLocalRepository();
@@ -280,14 +647,26 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
         RepositorySystemSession repositorySession = projectBuildingRequest.getRepositorySession();
         DefaultRepositorySystemSession repositorySystemSession = getVerboseRepositorySystemSession(repositorySession);
         ProjectBuildingRequest buildingRequest = getProjectBuildingRequest(project, projectBuildingRequest, repositorySystemSession);
-        DependencyNode rootNode = null;
-        try {
-            rootNode = dependencyGraphBuilder.buildDependencyGraph(buildingRequest, null);
-        } catch (DependencyGraphBuilderException e) {
-            LOGGER.warn("Cannot resolve dependency graph for " + project, e);
+        DependencyGraphEvent dependencyGraphEvent = new DependencyGraphEvent();
+        dependencyGraphEvent.begin();
+        DependencyNode rootNode = moduleScan.measure(GRAPH_RESOLUTION, () -> {
+            try {
+                return dependencyGraphBuilder.buildDependencyGraph(buildingRequest, null);
+            } catch (DependencyGraphBuilderException e) {
+                LOGGER.warn("Cannot resolve dependency graph for " + project, e);
+                return null;
+            }
+        });
+        dependencyGraphEvent.end();
+        if (dependencyGraphEvent.shouldCommit()) {
+            dependencyGraphEvent.gav = project.getId();
+            dependencyGraphEvent.dependencies = rootNode != null ? rootNode.getChildren()
+                .size() : 0;
+            dependencyGraphEvent.commit();
         }
         if (rootNode != null) {
-            dependencyScanner.evaluate(rootNode, mainDescriptor, testDescriptor, scanDependencies, dependencyFilter, localRepository, scanner);
+            dependencyScanner.evaluate(rootNode, mainDescriptor, testDescriptor, scanDependencies, transitiveDependencies, dependencyFilter,
+                localRepository, moduleScan, scanner);
         }
     }
 
@@ -312,12 +691,18 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
      *     The project.
      * @param projectDescriptor
      *     The project descriptor.
+     * @param moduleScan
+     *     The {@link ModuleScan}.
      */
-    private void addProjectDetails(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, Scanner scanner) {
+    private void addProjectDetails(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, Scanner scanner, MavenSession mavenSession,
+        ModuleScan moduleScan) {
         ScannerContext scannerContext = scanner.getContext();
         addParent(project, projectDescriptor, scannerContext);
-        addModules(project, projectDescriptor, scannerContext);
-        addModel(project, projectDescriptor, scanner);
+        addModules(project, projectDescriptor, mavenSession, scannerContext);
+        if (projectDependencies) {
+            addProjectDependencies(project, projectDescriptor, mavenSession, scannerContext);
+        }
+        addModel(project, projectDescriptor, scanner, moduleScan);
     }
 
     /**
@@ -329,12 +714,31 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
      *     The project descriptor.
      * @param scanner
      *     The scanner.
+     * @param moduleScan
+     *     The {@link ModuleScan}.
      */
-    private void addModel(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, Scanner scanner) {
+    private void addModel(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, Scanner scanner, ModuleScan moduleScan) {
         File pomXmlFile = project.getFile();
-        FileDescriptor mavenPomXmlDescriptor = scanner.scan(pomXmlFile, pomXmlFile.getAbsolutePath(), MavenScope.PROJECT);
+        FileDescriptor mavenPomXmlDescriptor = moduleScan.measure(MODEL,
+            () -> scanner.<File, FileDescriptor>scan(pomXmlFile, pomXmlFile.getAbsolutePath(), MavenScope.PROJECT));
         projectDescriptor.setModel(mavenPomXmlDescriptor);
-        // Effective model
+        if (scanEffectiveModel) {
+            moduleScan.measure(EFFECTIVE_MODEL, () -> addEffectiveModel(project, projectDescriptor, scanner));
+        }
+    }
+
+    /**
+     * Scan the effective model of the project.
+     *
+     * @param project
+     *     The Maven project
+     * @param projectDescriptor
+     *     The project descriptor.
+     * @param scanner
+     *     The scanner.
+     */
+    private void addEffectiveModel(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, Scanner scanner) {
+        File pomXmlFile = project.getFile();
         MavenPomDescriptor effectiveModelDescriptor = scanner.getContext()
             .getStore()
             .create(MavenPomDescriptor.class);
@@ -370,18 +774,18 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
      *     The project.
      * @param projectDescriptor
      *     The project descriptor.
+     * @param mavenSession
+     *     The {@link MavenSession} providing the reactor projects.
      * @param scannerContext
      *     The scanner context.
      */
-    private void addModules(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, ScannerContext scannerContext) {
+    private void addModules(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, MavenSession mavenSession,
+        ScannerContext scannerContext) {
         File projectDirectory = project.getBasedir();
-        Set<File> modules = new HashSet<>();
+        Map<Path, MavenProject> reactorProjects = getReactorProjects(mavenSession);
         for (String moduleName : project.getModules()) {
-            File module = new File(projectDirectory, moduleName);
-            modules.add(module);
-        }
-        for (MavenProject module : project.getCollectedProjects()) {
-            if (modules.contains(module.getBasedir())) {
+            MavenProject module = reactorProjects.get(getBasedirPath(new File(projectDirectory, moduleName)));
+            if (module != null) {
                 MavenProjectDirectoryDescriptor moduleDescriptor = resolveProject(module, MavenProjectDirectoryDescriptor.class, scannerContext);
                 projectDescriptor.getModules()
                     .add(moduleDescriptor);
@@ -389,6 +793,106 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
         }
     }
 
+    /**
+     * Add the relations to the projects of the reactor which are declared as
+     * dependencies, existing relations of a previous scan are replaced.
+     *
+     * @param project
+     *     The project.
+     * @param projectDescriptor
+     *     The project descriptor.
+     * @param mavenSession
+     *     The {@link MavenSession} providing the reactor projects.
+     * @param scannerContext
+     *     The scanner context.
+     */
+    private void addProjectDependencies(MavenProject project, MavenProjectDirectoryDescriptor projectDescriptor, MavenSession mavenSession,
+        ScannerContext scannerContext) {
+        Store store = scannerContext.getStore();
+        Map<String, Object> params = new HashMap<>();
+        params.put("project", projectDescriptor.getId());
+        store.executeQuery(REMOVE_PROJECT_DEPENDENCIES, params)
+            .close();
+        Map<MavenProject, Set<String>> dependencies = getReactorDependencies(project, getReactorProjectsByCoordinates(mavenSession));
+        for (Map.Entry<MavenProject, Set<String>> entry : dependencies.entrySet()) {
+            MavenProjectDirectoryDescriptor dependencyDescriptor = resolveProject(entry.getKey(), MavenProjectDirectoryDescriptor.class, scannerContext);
+            for (String scope : entry.getValue()) {
+                store.create(projectDescriptor, MavenProjectDependencyDescriptor.class, dependencyDescriptor)
+                    .setScope(scope);
+            }
+        }
+    }
+
+    /**
+     * Determines the declared dependencies of a project to other projects of the
+     * reactor.
+     *
+     * @param project
+     *     The project.
+     * @param reactorProjects
+     *     The reactor projects indexed by their coordinates
+     *     (<code>groupId:artifactId:version</code>).
+     * @return The scopes of the dependencies per reactor project in the order
+     *     of their declaration.
+     */
+    static Map<MavenProject, Set<String>> getReactorDependencies(MavenProject project, Map<String, MavenProject> reactorProjects) {
+        Map<MavenProject, Set<String>> dependencies = new LinkedHashMap<>();
+        for (Dependency dependency : project.getDependencies()) {
+            MavenProject reactorProject = reactorProjects.get(dependency.getGroupId() + ':' + dependency.getArtifactId() + ':' + dependency.getVersion());
+            if (reactorProject != null && reactorProject != project) {
+                String scope = dependency.getScope() != null ? dependency.getScope() : Artifact.SCOPE_COMPILE;
+                dependencies.computeIfAbsent(reactorProject, key -> new LinkedHashSet<>())
+                    .add(scope);
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Returns the projects of the reactor indexed by their base directories.
+     *
+     * The index is created once per {@link MavenSession}, the projects are also
+     * indexed by their coordinates.
+     *
+     * @param mavenSession
+     *     The {@link MavenSession}.
+     * @return The reactor projects.
+     */
+    private synchronized Map<Path, MavenProject> getReactorProjects(MavenSession mavenSession) {
+        if (reactorSession != mavenSession) {
+            reactorProjects = new HashMap<>();
+            reactorProjectsByCoordinates = new HashMap<>();
+            for (MavenProject reactorProject : mavenSession.getProjects()) {
+                if (reactorProject.getBasedir() != null) {
+                    reactorProjects.put(getBasedirPath(reactorProject.getBasedir()), reactorProject);
+                }
+                reactorProjectsByCoordinates.put(reactorProject.getGroupId() + ':' + reactorProject.getArtifactId() + ':' + reactorProject.getVersion(),
+                    reactorProject);
+            }
+            reactorSession = mavenSession;
+        }
+        return reactorProjects;
+    }
+
+    /**
+     * Returns the projects of the reactor indexed by their coordinates
+     * (<code>groupId:artifactId:version</code>).
+     *
+     * @param mavenSession
+     *     The {@link MavenSession}.
+     * @return The reactor projects.
+     */
+    private synchronized Map<String, MavenProject> getReactorProjectsByCoordinates(MavenSession mavenSession) {
+        getReactorProjects(mavenSession);
+        return reactorProjectsByCoordinates;
+    }
+
+    private static Path getBasedirPath(File basedir) {
+        return basedir.toPath()
+            .toAbsolutePath()
+            .normalize();
+    }
+
     /**
      * Scan the given directory for classes and add them to an artifact.
      *
@@ -419,10 +923,9 @@ public class MavenProjectScannerPlugin extends AbstractScannerPlugin<MavenProjec
      *     The {@link Scanner}.
      */
     private JavaArtifactFileDescriptor scanArtifact(ArtifactDescriptor artifactDescriptor, File file, String path, Scanner scanner) {
-        JavaArtifactFileDescriptor javaArtifactFileDescriptor = scanner.getContext()
-            .getStore()
-            .addDescriptorType(artifactDescriptor, JavaClassesDirectoryDescriptor.class);
         ScannerContext context = scanner.getContext();
+        JavaArtifactFileDescriptor javaArtifactFileDescriptor = DescriptorTypes.add(artifactDescriptor, JavaClassesDirectoryDescriptor.class,
+            context.getStore());
         context.push(JavaArtifactFileDescriptor.class, javaArtifactFileDescriptor);
         try {
             return scanFile(file, path, CLASSPATH, scanner);
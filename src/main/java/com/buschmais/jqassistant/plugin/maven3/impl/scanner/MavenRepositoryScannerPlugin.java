@@ -0,0 +1,86 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.File;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.common.api.scanner.AbstractScannerPlugin;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenRepositoryResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository.RepositoryIndexer;
+
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema.PROPERTY_NAME_SCHEMA_CONSTRAINTS;
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema.PROPERTY_NAME_SCHEMA_PROVISION;
+
+/**
+ * Indexes a Maven repository directory (e.g. a local repository or a mirror)
+ * which is scanned using the scope {@link MavenScope#REPOSITORY}.
+ *
+ * The repository is represented by a {@link MavenRepositoryDescriptor}
+ * containing the group/artifact/version hierarchy, the POMs and the artifacts.
+ * The start of the scan is recorded as last update of the repository, which is
+ * used as high-water mark for incremental rescans.
+ */
+public class MavenRepositoryScannerPlugin extends AbstractScannerPlugin<File, MavenRepositoryDescriptor> {
+
+    private static final String PROPERTY_NAME_REPOSITORY_THREADS = "maven3.repository.threads";
+
+    private static final String PROPERTY_NAME_REPOSITORY_BATCH_SIZE = "maven3.repository.batchsize";
+
+    private static final String PROPERTY_NAME_REPOSITORY_INCREMENTAL = "maven3.repository.incremental";
+
+    private static final String PROPERTY_NAME_REPOSITORY_CONTENT = "maven3.repository.content";
+
+    private static final String PROPERTY_NAME_REPOSITORY_SNAPSHOTS_RETENTION = "maven3.repository.snapshots.retention";
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private RepositoryIndexer repositoryIndexer;
+
+    private boolean incremental;
+
+    @Override
+    protected void configure() {
+        if (getBooleanProperty(PROPERTY_NAME_SCHEMA_PROVISION, true)) {
+            MavenSchema.provision(getScannerContext().getStore(), getBooleanProperty(PROPERTY_NAME_SCHEMA_CONSTRAINTS, false));
+        }
+        int threads = Integer.parseInt(getStringProperty(PROPERTY_NAME_REPOSITORY_THREADS, Integer.toString(Runtime.getRuntime()
+            .availableProcessors())));
+        int batchSize = Integer.parseInt(getStringProperty(PROPERTY_NAME_REPOSITORY_BATCH_SIZE, Integer.toString(DEFAULT_BATCH_SIZE)));
+        boolean content = getBooleanProperty(PROPERTY_NAME_REPOSITORY_CONTENT, true);
+        int snapshotRetention = Integer.parseInt(getStringProperty(PROPERTY_NAME_REPOSITORY_SNAPSHOTS_RETENTION, "0"));
+        repositoryIndexer = new RepositoryIndexer(threads, batchSize, content, snapshotRetention);
+        incremental = getBooleanProperty(PROPERTY_NAME_REPOSITORY_INCREMENTAL, true);
+    }
+
+    @Override
+    public Class<? extends File> getType() {
+        return File.class;
+    }
+
+    @Override
+    public Class<MavenRepositoryDescriptor> getDescriptorType() {
+        return MavenRepositoryDescriptor.class;
+    }
+
+    @Override
+    public boolean accepts(File item, String path, Scope scope) {
+        return MavenScope.REPOSITORY.equals(scope) && item.isDirectory();
+    }
+
+    @Override
+    public MavenRepositoryDescriptor scan(File item, String path, Scope scope, Scanner scanner) {
+        Store store = scanner.getContext()
+            .getStore();
+        File directory = item.getAbsoluteFile();
+        MavenRepositoryDescriptor repositoryDescriptor = MavenRepositoryResolver.resolve(store, directory.toURI()
+            .toString());
+        long start = System.currentTimeMillis();
+        long since = incremental ? repositoryDescriptor.getLastUpdate() : 0;
+        repositoryIndexer.index(directory.toPath(), since, repositoryDescriptor, scanner);
+        repositoryDescriptor.setLastUpdate(start);
+        return repositoryDescriptor;
+    }
+}
@@ -0,0 +1,158 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Provisions the indexes and uniqueness constraints of the Maven labels which
+ * are used for lookups by the scanner plugins, i.e.
+ * <code>:Artifact(fqn)</code>, <code>:Repository(url)</code>,
+ * <code>:Project(fqn)</code>, <code>:Pom(fqn)</code>,
+ * <code>:Artifact(group, name)</code>, <code>:Artifact(ga)</code>,
+ * <code>:Artifact(gatc)</code>, <code>:Artifact(versionKey)</code> and
+ * <code>:ArtifactFamily(ga)</code>.
+ *
+ * The statements are executed once per {@link Store} when the scanner plugins
+ * are configured, each of them in a separate transaction as schema and data
+ * modifications cannot be mixed. A transaction of the caller is never
+ * committed on its behalf, i.e. provisioning is skipped while a transaction is
+ * active. If
+ * constraints are requested but cannot be created (e.g. due to duplicates
+ * from previous scans or labels shared with other plugins) an index is created
+ * instead.
+ */
+public final class MavenSchema {
+
+    static final String PROPERTY_NAME_SCHEMA_PROVISION = "maven3.schema.provision";
+
+    static final String PROPERTY_NAME_SCHEMA_CONSTRAINTS = "maven3.schema.constraints";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MavenSchema.class);
+
+    /**
+     * The indexes which may be replaced by uniqueness constraints, by name.
+     */
+    private static final String[][] UNIQUE_INDEXES = { { "maven3_artifact_fqn", "Artifact", "fqn" }, { "maven3_repository_url", "Repository", "url" },
+        { "maven3_project_fqn", "Project", "fqn" } };
+
+    /**
+     * The indexes which are never unique, by name.
+     */
+    private static final String[][] INDEXES = { { "maven3_pom_fqn", "Pom", "fqn" }, { "maven3_artifact_group_name", "Artifact", "group", "name" },
+        { "maven3_artifact_ga", "Artifact", "ga" }, { "maven3_artifact_gatc", "Artifact", "gatc" },
+        { "maven3_artifact_version_key", "Artifact", "versionKey" }, { "maven3_artifact_family_ga", "ArtifactFamily", "ga" } };
+
+    private static final Set<Store> PROVISIONED_STORES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private MavenSchema() {
+    }
+
+    /**
+     * Provision the indexes and constraints if this has not been done before for
+     * the given {@link Store}. It must not be called while a transaction is
+     * active, otherwise a warning is logged and the schema is not provisioned.
+     *
+     * @param store
+     *     The {@link Store}.
+     * @param constraints
+     *     If <code>true</code> uniqueness constraints are created for
+     *     <code>:Artifact(fqn)</code>, <code>:Repository(url)</code> and
+     *     <code>:Project(fqn)</code> instead of indexes.
+     */
+    public static void provision(Store store, boolean constraints) {
+        if (store.hasActiveTransaction()) {
+            LOGGER.warn("Cannot provision indexes and constraints within an active transaction, skipping.");
+            return;
+        }
+        synchronized (PROVISIONED_STORES) {
+            if (!PROVISIONED_STORES.add(store)) {
+                return;
+            }
+        }
+        for (String[] index : UNIQUE_INDEXES) {
+            if (!constraints || !execute(store, getCreateConstraint(index))) {
+                execute(store, getCreateIndex(index));
+            }
+        }
+        for (String[] index : INDEXES) {
+            execute(store, getCreateIndex(index));
+        }
+    }
+
+    /**
+     * Drop the indexes and constraints, e.g. for measuring lookups without them.
+     * They are provisioned again on the next call of
+     * {@link #provision(Store, boolean)}.
+     *
+     * @param store
+     *     The {@link Store}.
+     */
+    public static void drop(Store store) {
+        synchronized (PROVISIONED_STORES) {
+            PROVISIONED_STORES.remove(store);
+        }
+        for (String[] index : UNIQUE_INDEXES) {
+            execute(store, "DROP CONSTRAINT " + getConstraintName(index) + " IF EXISTS");
+            execute(store, "DROP INDEX " + index[0] + " IF EXISTS");
+        }
+        for (String[] index : INDEXES) {
+            execute(store, "DROP INDEX " + index[0] + " IF EXISTS");
+        }
+    }
+
+    static String getCreateIndex(String[] index) {
+        StringBuilder properties = new StringBuilder();
+        for (int i = 2; i < index.length; i++) {
+            if (i > 2) {
+                properties.append(", ");
+            }
+            properties.append("n.")
+                .append(index[i]);
+        }
+        return "CREATE INDEX " + index[0] + " IF NOT EXISTS FOR (n:" + index[1] + ") ON (" + properties + ")";
+    }
+
+    static String getCreateConstraint(String[] index) {
+        return "CREATE CONSTRAINT " + getConstraintName(index) + " IF NOT EXISTS FOR (n:" + index[1] + ") REQUIRE n." + index[2] + " IS UNIQUE";
+    }
+
+    private static String getConstraintName(String[] index) {
+        return index[0] + "_unique";
+    }
+
+    /**
+     * Execute a schema statement in a separate transaction.
+     *
+     * @param store
+     *     The {@link Store}.
+     * @param statement
+     *     The statement.
+     * @return <code>true</code> if the statement has been executed successfully.
+     */
+    private static boolean execute(Store store, String statement) {
+        try {
+            store.beginTransaction();
+            Map<String, Object> params = emptyMap();
+            store.executeQuery(statement, params)
+                .close();
+            store.commitTransaction();
+            LOGGER.debug("Executed '{}'.", statement);
+            return true;
+        } catch (RuntimeException e) {
+            if (store.hasActiveTransaction()) {
+                store.rollbackTransaction();
+            }
+            LOGGER.warn("Cannot execute '{}': {}", statement, e.getMessage());
+            return false;
+        }
+    }
+}
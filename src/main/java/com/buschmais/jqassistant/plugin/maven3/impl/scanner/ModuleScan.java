@@ -0,0 +1,144 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenRepositoryArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ModuleScanMetrics;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ScanPhase;
+
+/**
+ * The state of scanning a single Maven module, i.e. the module specific
+ * {@link MavenRepositoryArtifactResolver} and {@link ModuleScanMetrics}.
+ *
+ * An instance is passed explicitly to the components of a module scan instead
+ * of being pushed to the shared scanner context. Nested scans which are
+ * delegated through the scanner API (e.g. of the pom.xml) run on the scanning
+ * thread and look the instance up using {@link #current()}.
+ *
+ * The XO session of a {@link Store} is not thread-safe, therefore module scans
+ * using the same {@link Store} are serialized while the instance is open, e.g.
+ * for parallel builds using <code>mvn -T</code>. Finer grained locking (e.g.
+ * striped by the coordinates of the resolved artifacts) is not sufficient as
+ * all module scans share the session and its transaction, i.e. any concurrent
+ * write may corrupt the session state. Parallel builds therefore do not scan
+ * modules in parallel, they only benefit from the parallel execution of the
+ * other build steps.
+ */
+public final class ModuleScan implements AutoCloseable {
+
+    private static final ThreadLocal<ModuleScan> CURRENT = new ThreadLocal<>();
+
+    private static final Map<Store, ReentrantLock> STORE_LOCKS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final ReentrantLock storeLock;
+
+    private final MavenRepositoryArtifactResolver artifactResolver;
+
+    private final ModuleScanMetrics metrics;
+
+    private final ModuleScan previous;
+
+    private ModuleScan(ReentrantLock storeLock, MavenRepositoryArtifactResolver artifactResolver, ModuleScanMetrics metrics, ModuleScan previous) {
+        this.storeLock = storeLock;
+        this.artifactResolver = artifactResolver;
+        this.metrics = metrics;
+        this.previous = previous;
+    }
+
+    /**
+     * Open the scan of a module, blocks while another module is scanned using
+     * the same {@link Store}.
+     *
+     * @param store
+     *     The {@link Store}.
+     * @param artifactResolver
+     *     The {@link MavenRepositoryArtifactResolver} of the module.
+     * @param metrics
+     *     The {@link Supplier} of the {@link ModuleScanMetrics}, invoked after
+     *     the store has been acquired. It may return <code>null</code> if no
+     *     metrics shall be collected.
+     * @return The {@link ModuleScan} which must be closed after the module has
+     *     been scanned.
+     */
+    static ModuleScan open(Store store, MavenRepositoryArtifactResolver artifactResolver, Supplier<ModuleScanMetrics> metrics) {
+        ReentrantLock storeLock = STORE_LOCKS.computeIfAbsent(store, key -> new ReentrantLock());
+        storeLock.lock();
+        try {
+            ModuleScan moduleScan = new ModuleScan(storeLock, artifactResolver, metrics.get(), CURRENT.get());
+            CURRENT.set(moduleScan);
+            return moduleScan;
+        } catch (RuntimeException e) {
+            storeLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the {@link ModuleScan} of the current thread.
+     *
+     * @return The {@link ModuleScan} or {@link Optional#empty()} if no module is
+     *     currently scanned by this thread.
+     */
+    public static Optional<ModuleScan> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public MavenRepositoryArtifactResolver getArtifactResolver() {
+        return artifactResolver;
+    }
+
+    /**
+     * @return The {@link ModuleScanMetrics}, {@link Optional#empty()} if metrics
+     *     are not enabled.
+     */
+    public Optional<ModuleScanMetrics> getMetrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    /**
+     * Measure the given action if metrics are enabled.
+     *
+     * @param phase
+     *     The {@link ScanPhase}.
+     * @param action
+     *     The action.
+     */
+    public void measure(ScanPhase phase, Runnable action) {
+        if (metrics != null) {
+            metrics.measure(phase, action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Measure the given action if metrics are enabled.
+     *
+     * @param phase
+     *     The {@link ScanPhase}.
+     * @param action
+     *     The action.
+     * @param <T>
+     *     The result type.
+     * @return The result of the action.
+     */
+    public <T> T measure(ScanPhase phase, Supplier<T> action) {
+        return metrics != null ? metrics.measure(phase, action) : action.get();
+    }
+
+    @Override
+    public void close() {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+        storeLock.unlock();
+    }
+}
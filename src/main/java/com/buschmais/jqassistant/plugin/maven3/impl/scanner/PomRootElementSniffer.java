@@ -0,0 +1,218 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Determines if an XML document represents a Maven POM by inspecting a small,
+ * bounded prefix of its content on byte level.
+ *
+ * The sniffer only skips the prolog (XML declaration, processing instructions,
+ * comments and whitespace) and evaluates the root element name and its default
+ * namespace declaration. If this cannot be decided reliably (e.g. for UTF-16
+ * content, a DOCTYPE declaration, a prefixed root element or a start tag
+ * exceeding the prefix) {@link Result#UNKNOWN} is returned and the caller must
+ * fall back to a full XML parser.
+ */
+final class PomRootElementSniffer {
+
+    /**
+     * The result of sniffing a document.
+     */
+    enum Result {
+        POM, NO_POM, UNKNOWN
+    }
+
+    /**
+     * The maximum number of bytes to read, large enough for typical license
+     * headers preceding the root element.
+     */
+    static final int PREFIX_SIZE = 4096;
+
+    private static final byte[] ROOT_ELEMENT = "project".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] XMLNS = "xmlns".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] namespace;
+
+    /**
+     * Constructor.
+     *
+     * @param namespace
+     *            The expected default namespace of the root element.
+     */
+    PomRootElementSniffer(String namespace) {
+        this.namespace = namespace.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Read a bounded prefix from the given stream and sniff it.
+     *
+     * @param stream
+     *            The stream.
+     * @return The {@link Result}.
+     * @throws IOException
+     *             If the stream cannot be read.
+     */
+    Result sniff(InputStream stream) throws IOException {
+        byte[] buffer = new byte[PREFIX_SIZE];
+        int length = stream.readNBytes(buffer, 0, buffer.length);
+        return sniff(buffer, length);
+    }
+
+    /**
+     * Sniff the given content.
+     *
+     * @param buffer
+     *            The buffer holding the document prefix.
+     * @param length
+     *            The number of valid bytes in the buffer.
+     * @return The {@link Result}.
+     */
+    Result sniff(byte[] buffer, int length) {
+        int pos = 0;
+        if (length >= 2 && ((buffer[0] == (byte) 0xFE && buffer[1] == (byte) 0xFF) || (buffer[0] == (byte) 0xFF && buffer[1] == (byte) 0xFE))) {
+            // UTF-16, not supported on byte level
+            return Result.UNKNOWN;
+        }
+        if (length >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) {
+            pos = 3;
+        }
+        while (true) {
+            pos = skipWhitespace(buffer, pos, length);
+            if (pos >= length || buffer[pos] != '<') {
+                return Result.UNKNOWN;
+            }
+            if (startsWith(buffer, pos, length, "<?")) {
+                pos = indexOf(buffer, pos + 2, length, "?>");
+            } else if (startsWith(buffer, pos, length, "<!--")) {
+                pos = indexOf(buffer, pos + 4, length, "-->");
+            } else if (startsWith(buffer, pos, length, "<!")) {
+                // DOCTYPE or CDATA, leave it to the XML parser
+                return Result.UNKNOWN;
+            } else {
+                return rootElement(buffer, pos + 1, length);
+            }
+            if (pos < 0) {
+                return Result.UNKNOWN;
+            }
+        }
+    }
+
+    private Result rootElement(byte[] buffer, int pos, int length) {
+        int nameEnd = nameEnd(buffer, pos, length);
+        if (nameEnd >= length) {
+            return Result.UNKNOWN;
+        }
+        int localNameStart = pos;
+        for (int i = pos; i < nameEnd; i++) {
+            if (buffer[i] == ':') {
+                localNameStart = i + 1;
+            }
+        }
+        if (!equals(buffer, localNameStart, nameEnd, ROOT_ELEMENT)) {
+            return Result.NO_POM;
+        }
+        if (localNameStart != pos) {
+            // prefixed root element, namespace must be resolved by the XML parser
+            return Result.UNKNOWN;
+        }
+        pos = nameEnd;
+        while (true) {
+            pos = skipWhitespace(buffer, pos, length);
+            if (pos >= length) {
+                return Result.UNKNOWN;
+            }
+            byte b = buffer[pos];
+            if (b == '>' || b == '/') {
+                // end of start tag without a default namespace declaration
+                return Result.NO_POM;
+            }
+            int attributeNameEnd = nameEnd(buffer, pos, length);
+            int valueStart = skipWhitespace(buffer, attributeNameEnd, length);
+            if (valueStart >= length || buffer[valueStart] != '=') {
+                return Result.UNKNOWN;
+            }
+            valueStart = skipWhitespace(buffer, valueStart + 1, length);
+            if (valueStart >= length || (buffer[valueStart] != '"' && buffer[valueStart] != '\'')) {
+                return Result.UNKNOWN;
+            }
+            byte quote = buffer[valueStart];
+            int valueEnd = valueStart + 1;
+            while (valueEnd < length && buffer[valueEnd] != quote) {
+                if (buffer[valueEnd] == '&') {
+                    // entity references require the XML parser
+                    return Result.UNKNOWN;
+                }
+                valueEnd++;
+            }
+            if (valueEnd >= length) {
+                return Result.UNKNOWN;
+            }
+            if (equals(buffer, pos, attributeNameEnd, XMLNS)) {
+                return equals(buffer, valueStart + 1, valueEnd, namespace) ? Result.POM : Result.NO_POM;
+            }
+            pos = valueEnd + 1;
+        }
+    }
+
+    private static int nameEnd(byte[] buffer, int pos, int length) {
+        while (pos < length) {
+            byte b = buffer[pos];
+            if (isWhitespace(b) || b == '>' || b == '/' || b == '=') {
+                return pos;
+            }
+            pos++;
+        }
+        return length;
+    }
+
+    private static int skipWhitespace(byte[] buffer, int pos, int length) {
+        while (pos < length && isWhitespace(buffer[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static boolean startsWith(byte[] buffer, int pos, int length, String token) {
+        if (pos + token.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (buffer[pos + i] != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the position after the next occurrence of the given token or -1 if
+     * it is not contained in the buffer.
+     */
+    private static int indexOf(byte[] buffer, int pos, int length, String token) {
+        for (int i = pos; i <= length - token.length(); i++) {
+            if (startsWith(buffer, i, length, token)) {
+                return i + token.length();
+            }
+        }
+        return -1;
+    }
+
+    private static boolean equals(byte[] buffer, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,267 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Reads a POM using StAX and passes the elements of large sections (declared
+ * and managed dependencies, plugins and managed plugins) one by one to a
+ * {@link SectionHandler} while they are parsed.
+ *
+ * Each of these elements is parsed by the {@link MavenXpp3Reader} as a minimal
+ * POM fragment, i.e. the resulting objects are identical to those of a
+ * {@link Model} read at once. The remaining (usually small) parts of the POM
+ * are returned as a skeleton {@link Model} without the streamed sections.
+ * Therefore memory consumption is bounded by the size of the skeleton and the
+ * largest single element.
+ */
+class StreamingPomReader {
+
+    /**
+     * The sections of a POM which are streamed.
+     */
+    enum Section {
+
+        DEPENDENCIES(model -> model.getDependencies()
+            .get(0), "project", "dependencies", "dependency"),
+
+        MANAGED_DEPENDENCIES(model -> model.getDependencyManagement()
+            .getDependencies()
+            .get(0), "project", "dependencyManagement", "dependencies", "dependency"),
+
+        PLUGINS(model -> model.getBuild()
+            .getPlugins()
+            .get(0), "project", "build", "plugins", "plugin"),
+
+        MANAGED_PLUGINS(model -> model.getBuild()
+            .getPluginManagement()
+            .getPlugins()
+            .get(0), "project", "build", "pluginManagement", "plugins", "plugin");
+
+        private final Function<Model, Object> extractor;
+
+        private final List<String> path;
+
+        Section(Function<Model, Object> extractor, String... path) {
+            this.extractor = extractor;
+            this.path = asList(path);
+        }
+
+        private static Section of(List<String> path) {
+            for (Section section : values()) {
+                if (section.path.equals(path)) {
+                    return section;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Receives the elements of streamed sections.
+     */
+    interface SectionHandler {
+
+        /**
+         * Handle a declared or managed dependency.
+         *
+         * @param section
+         *            The section, either {@link Section#DEPENDENCIES} or
+         *            {@link Section#MANAGED_DEPENDENCIES}.
+         * @param dependency
+         *            The {@link Dependency}.
+         */
+        void dependency(Section section, Dependency dependency);
+
+        /**
+         * Handle a plugin or managed plugin.
+         *
+         * @param section
+         *            The section, either {@link Section#PLUGINS} or
+         *            {@link Section#MANAGED_PLUGINS}.
+         * @param plugin
+         *            The {@link Plugin}.
+         */
+        void plugin(Section section, Plugin plugin);
+    }
+
+    private final XMLInputFactory inputFactory;
+
+    private final MavenXpp3Reader mavenXpp3Reader = new MavenXpp3Reader();
+
+    StreamingPomReader() {
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Read the POM from the given stream.
+     *
+     * @param stream
+     *            The stream.
+     * @param sectionHandler
+     *            The {@link SectionHandler} for streamed elements.
+     * @return The skeleton {@link Model}.
+     * @throws IOException
+     *             If the stream cannot be read.
+     * @throws XmlPullParserException
+     *             If the POM is invalid.
+     */
+    Model read(InputStream stream, SectionHandler sectionHandler) throws IOException, XmlPullParserException {
+        StringBuilder skeleton = new StringBuilder();
+        List<String> path = new ArrayList<>();
+        try {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(stream);
+            try {
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        path.add(reader.getLocalName());
+                        Section section = Section.of(path);
+                        if (section != null) {
+                            handle(section, readFragment(reader, section), sectionHandler);
+                            path.remove(path.size() - 1);
+                        } else {
+                            writeStartElement(reader, skeleton);
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        path.remove(path.size() - 1);
+                        writeEndElement(reader, skeleton);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (!path.isEmpty()) {
+                            writeText(reader.getText(), skeleton);
+                        }
+                        break;
+                    default:
+                        // comments, processing instructions, etc. are not part of the model
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new XmlPullParserException(e.getMessage(), null, e);
+        }
+        return mavenXpp3Reader.read(new StringReader(skeleton.toString()));
+    }
+
+    /**
+     * Copies the current element including its children to a minimal POM and
+     * parses it.
+     */
+    private Model readFragment(XMLStreamReader reader, Section section) throws XMLStreamException, IOException, XmlPullParserException {
+        StringBuilder fragment = new StringBuilder();
+        List<String> parents = section.path.subList(0, section.path.size() - 1);
+        for (String parent : parents) {
+            fragment.append('<')
+                .append(parent)
+                .append('>');
+        }
+        writeStartElement(reader, fragment);
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                writeStartElement(reader, fragment);
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                depth--;
+                writeEndElement(reader, fragment);
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                writeText(reader.getText(), fragment);
+                break;
+            default:
+            }
+        }
+        for (int i = parents.size() - 1; i >= 0; i--) {
+            fragment.append("</")
+                .append(parents.get(i))
+                .append('>');
+        }
+        return mavenXpp3Reader.read(new StringReader(fragment.toString()));
+    }
+
+    private void handle(Section section, Model fragment, SectionHandler sectionHandler) {
+        Object element = section.extractor.apply(fragment);
+        switch (section) {
+        case DEPENDENCIES:
+        case MANAGED_DEPENDENCIES:
+            sectionHandler.dependency(section, (Dependency) element);
+            break;
+        default:
+            sectionHandler.plugin(section, (Plugin) element);
+        }
+    }
+
+    private static void writeStartElement(XMLStreamReader reader, StringBuilder builder) {
+        builder.append('<')
+            .append(getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            builder.append(' ')
+                .append(getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)))
+                .append("=\"");
+            writeText(reader.getAttributeValue(i), builder);
+            builder.append('"');
+        }
+        builder.append('>');
+    }
+
+    private static void writeEndElement(XMLStreamReader reader, StringBuilder builder) {
+        builder.append("</")
+            .append(getQualifiedName(reader.getPrefix(), reader.getLocalName()))
+            .append('>');
+    }
+
+    private static String getQualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    private static void writeText(String text, StringBuilder builder) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '&':
+                builder.append("&amp;");
+                break;
+            case '<':
+                builder.append("&lt;");
+                break;
+            case '>':
+                builder.append("&gt;");
+                break;
+            case '"':
+                builder.append("&quot;");
+                break;
+            default:
+                builder.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.hash.HashingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.hash.Hashing.sha256;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.singletonList;
+
+/**
+ * A local cache for HTTP(S) resources which are configured as URL includes.
+ *
+ * All URLs passed to {@link #prefetch(Collection)} are downloaded concurrently,
+ * each URL is fetched at most once per cache instance. The content is stored
+ * in the cache directory under its SHA-256 hash, the metadata of a URL (content
+ * hash, ETag and Last-Modified headers) is stored in a properties file named by
+ * the hash of the URL. Existing entries are revalidated using conditional
+ * requests, i.e. unchanged resources are not downloaded again.
+ *
+ * Connections use the configured connect and read timeouts, waiting for a
+ * download is limited to their sum. Resources which cannot be downloaded in
+ * time are scanned directly.
+ */
+class UrlIncludeCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UrlIncludeCache.class);
+
+    private static final int MAX_THREADS = 8;
+
+    static final int DEFAULT_CONNECT_TIMEOUT = 10_000;
+
+    static final int DEFAULT_READ_TIMEOUT = 30_000;
+
+    private static final String METADATA_URL = "url";
+
+    private static final String METADATA_CONTENT = "content";
+
+    private static final String METADATA_ETAG = "etag";
+
+    private static final String METADATA_LAST_MODIFIED = "lastModified";
+
+    private final Path directory;
+
+    private final Map<String, Future<Optional<Path>>> entries = new ConcurrentHashMap<>();
+
+    private final ExecutorService executorService;
+
+    private final int connectTimeout;
+
+    private final int readTimeout;
+
+    /**
+     * Constructor using the default timeouts.
+     *
+     * @param directory
+     *     The cache directory.
+     */
+    UrlIncludeCache(Path directory) {
+        this(directory, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *     The cache directory.
+     * @param connectTimeout
+     *     The connect timeout in milliseconds.
+     * @param readTimeout
+     *     The read timeout in milliseconds.
+     */
+    UrlIncludeCache(Path directory, int connectTimeout, int readTimeout) {
+        this.directory = directory;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "jqassistant-maven3-include-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.executorService = threadPoolExecutor;
+    }
+
+    /**
+     * Start downloading the given URLs in the background. URLs which are not
+     * cacheable or have already been requested are ignored.
+     *
+     * @param urls
+     *     The URLs.
+     */
+    void prefetch(Collection<String> urls) {
+        for (String url : urls) {
+            if (isCacheable(url)) {
+                entries.computeIfAbsent(url, key -> executorService.submit(() -> fetch(key)));
+            }
+        }
+    }
+
+    /**
+     * Return the cached file for the given URL, waits for a running download at
+     * most for the sum of the connect and read timeouts.
+     *
+     * @param url
+     *     The URL.
+     * @return The cached file or {@link Optional#empty()} if the URL is not
+     * cacheable or cannot be downloaded.
+     */
+    Optional<Path> get(String url) {
+        prefetch(singletonList(url));
+        Future<Optional<Path>> entry = entries.get(url);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try {
+            return entry.get((long) connectTimeout + readTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.warn("Download of '{}' timed out, it will be scanned directly.", url);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            LOGGER.warn("Cannot download '{}', it will be scanned directly.", url, e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isCacheable(String url) {
+        String lowerCaseUrl = url.toLowerCase();
+        return lowerCaseUrl.startsWith("http://") || lowerCaseUrl.startsWith("https://");
+    }
+
+    private Optional<Path> fetch(String url) throws IOException {
+        Files.createDirectories(directory);
+        Path metadataFile = directory.resolve(sha256().hashString(url, UTF_8) + ".properties");
+        Properties metadata = new Properties();
+        if (Files.exists(metadataFile)) {
+            try (InputStream stream = Files.newInputStream(metadataFile)) {
+                metadata.load(stream);
+            }
+        }
+        String content = metadata.getProperty(METADATA_CONTENT);
+        Path contentFile = content != null ? directory.resolve(content) : null;
+        boolean cached = contentFile != null && Files.exists(contentFile);
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        if (cached) {
+            setRequestProperty(connection, "If-None-Match", metadata.getProperty(METADATA_ETAG));
+            setRequestProperty(connection, "If-Modified-Since", metadata.getProperty(METADATA_LAST_MODIFIED));
+        }
+        int responseCode = ((HttpURLConnection) connection).getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+            LOGGER.debug("Using cached content of '{}'.", url);
+            return Optional.of(contentFile);
+        }
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            LOGGER.warn("Cannot download '{}' (HTTP {}), it will be scanned directly.", url, responseCode);
+            return Optional.empty();
+        }
+        Path downloadFile = Files.createTempFile(directory, "download", ".tmp");
+        String hash;
+        try {
+            try (HashingInputStream stream = new HashingInputStream(sha256(), connection.getInputStream())) {
+                Files.copy(stream, downloadFile, REPLACE_EXISTING);
+                hash = stream.hash()
+                    .toString();
+            }
+            contentFile = directory.resolve(hash);
+            Files.move(downloadFile, contentFile, REPLACE_EXISTING);
+        } finally {
+            // a failed download must not leave a partial file in the cache directory
+            Files.deleteIfExists(downloadFile);
+        }
+        metadata.clear();
+        metadata.setProperty(METADATA_URL, url);
+        metadata.setProperty(METADATA_CONTENT, hash);
+        setMetadata(metadata, METADATA_ETAG, connection.getHeaderField("ETag"));
+        setMetadata(metadata, METADATA_LAST_MODIFIED, connection.getHeaderField("Last-Modified"));
+        try (OutputStream stream = Files.newOutputStream(metadataFile)) {
+            metadata.store(stream, null);
+        }
+        LOGGER.debug("Downloaded '{}' to '{}'.", url, contentFile);
+        return Optional.of(contentFile);
+    }
+
+    private static void setRequestProperty(URLConnection connection, String key, String value) {
+        if (value != null) {
+            connection.setRequestProperty(key, value);
+        }
+    }
+
+    private static void setMetadata(Properties metadata, String key, String value) {
+        if (value != null) {
+            metadata.setProperty(key, value);
+        }
+    }
+}
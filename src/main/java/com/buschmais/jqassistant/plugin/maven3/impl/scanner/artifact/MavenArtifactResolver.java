@@ -1,16 +1,29 @@
 package com.buschmais.jqassistant.plugin.maven3.impl.scanner.artifact;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactResolver;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr.ArtifactResolveEvent;
 import com.buschmais.xo.api.Query;
 import com.buschmais.xo.api.Query.Result.CompositeRowObject;
 
+/**
+ * Resolves artifacts by their fully qualified name using a MERGE statement.
+ *
+ * The resolver is stateless, resolved descriptors are held in a
+ * {@link com.github.benmanes.caffeine.cache.Cache} of the {@link Store} which
+ * loads each key at most once. Concurrent writers using different store
+ * sessions (e.g. several builds scanning into one Neo4j server) require the
+ * uniqueness constraint on <code>:Artifact(fqn)</code> to prevent duplicates,
+ * see {@link com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema}.
+ */
 public class MavenArtifactResolver implements ArtifactResolver {
 
     private static final String CACHE_KEY = MavenArtifactResolver.class.getName();
@@ -18,11 +31,33 @@ public class MavenArtifactResolver implements ArtifactResolver {
     @Override
     public MavenArtifactDescriptor resolve(Coordinates coordinates, ScannerContext scannerContext) {
         String fqn = MavenArtifactHelper.getId(coordinates);
-        return scannerContext.getStore().<String, MavenArtifactDescriptor> getCache(CACHE_KEY).get(fqn, key -> {
+        ArtifactResolveEvent artifactResolveEvent = new ArtifactResolveEvent();
+        artifactResolveEvent.begin();
+        artifactResolveEvent.hit = true;
+        MavenArtifactDescriptor mavenArtifactDescriptor = scannerContext.getStore().<String, MavenArtifactDescriptor> getCache(CACHE_KEY).get(fqn, key -> {
+            artifactResolveEvent.hit = false;
             MavenArtifactDescriptor artifactDescriptor = find(key, scannerContext);
             MavenArtifactHelper.setCoordinates(artifactDescriptor, coordinates);
             return artifactDescriptor;
         });
+        artifactResolveEvent.end();
+        if (artifactResolveEvent.shouldCommit()) {
+            artifactResolveEvent.fqn = fqn;
+            artifactResolveEvent.commit();
+        }
+        return mavenArtifactDescriptor;
+    }
+
+    /**
+     * Evict artifacts from the cache, e.g. after their nodes have been deleted.
+     *
+     * @param fqns
+     *            The fully qualified names of the artifacts.
+     * @param store
+     *            The {@link Store}.
+     */
+    public static void evict(Collection<String> fqns, Store store) {
+        store.<String, MavenArtifactDescriptor> getCache(CACHE_KEY).invalidateAll(fqns);
     }
 
     private MavenArtifactDescriptor find(String fqn, ScannerContext scannerContext) {
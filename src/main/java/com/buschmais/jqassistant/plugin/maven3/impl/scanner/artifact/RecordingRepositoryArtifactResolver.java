@@ -0,0 +1,50 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.artifact;
+
+import java.io.File;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenRepositoryArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr.ArtifactResolveEvent;
+
+/**
+ * A {@link MavenRepositoryArtifactResolver} which records an
+ * {@link ArtifactResolveEvent} for each resolved artifact, a cache hit is
+ * detected by the unchanged number of cache misses of the instance.
+ *
+ * Instances are created per module and used by the scanning thread of the
+ * module only.
+ */
+public class RecordingRepositoryArtifactResolver extends MavenRepositoryArtifactResolver {
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryRoot
+     *     The root directory of the local repository.
+     * @param fileResolver
+     *     The {@link FileResolver} to be used for looking up files in the local
+     *     repository.
+     */
+    public RecordingRepositoryArtifactResolver(File repositoryRoot, FileResolver fileResolver) {
+        super(repositoryRoot, fileResolver);
+    }
+
+    @Override
+    public MavenArtifactDescriptor resolve(Coordinates coordinates, ScannerContext scannerContext) {
+        ArtifactResolveEvent artifactResolveEvent = new ArtifactResolveEvent();
+        artifactResolveEvent.begin();
+        long cacheMisses = getCacheMisses();
+        MavenArtifactDescriptor artifactDescriptor = super.resolve(coordinates, scannerContext);
+        artifactResolveEvent.end();
+        if (artifactResolveEvent.shouldCommit()) {
+            artifactResolveEvent.fqn = MavenArtifactHelper.getId(coordinates);
+            artifactResolveEvent.hit = getCacheMisses() == cacheMisses;
+            artifactResolveEvent.commit();
+        }
+        return artifactDescriptor;
+    }
+}
@@ -14,12 +14,17 @@ import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactFilter;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactResolver;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactCoordinates;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.ModuleScan;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr.DependencyScanEvent;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ModuleScanMetrics;
 import com.buschmais.xo.spi.reflection.DependencyResolver;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.shared.dependency.graph.DependencyNode;
 
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ScanPhase.DEPENDENCIES;
+import static com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics.ScanPhase.DEPENDENCY_RELATIONS;
 import static java.util.Collections.emptySet;
 
 /**
@@ -44,39 +49,69 @@ public class DependencyScanner {
      * @param testDescriptor
      *     The {@link MavenArtifactDescriptor} representing the test
      *     artifact.
+     * @param scanDependencies
+     *     If <code>true</code> the dependency artifacts are scanned.
+     * @param transitiveDependencies
+     *     If <code>true</code> the <code>DEPENDS_ON_TRANSITIVELY</code>
+     *     relations of the main and test artifact are created.
+     * @param moduleScan
+     *     The {@link ModuleScan} providing the {@link ArtifactResolver} and
+     *     metrics of the current module.
      * @param scanner
      *     The Scanner.
      */
     public void evaluate(DependencyNode rootNode, MavenArtifactDescriptor mainDescriptor, MavenArtifactDescriptor testDescriptor, boolean scanDependencies,
-        ArtifactFilter dependencyFilter, ArtifactRepository localRepository, Scanner scanner) {
-        Map<Artifact, Set<Artifact>> dependencies = resolveDependencyGraph(rootNode, mainDescriptor, testDescriptor, scanner.getContext());
+        boolean transitiveDependencies, ArtifactFilter dependencyFilter, ArtifactRepository localRepository, ModuleScan moduleScan, Scanner scanner) {
+        ScannerContext context = scanner.getContext();
+        ArtifactResolver artifactResolver = moduleScan.getArtifactResolver();
+        Map<Artifact, Set<Artifact>> dependencies = moduleScan.measure(DEPENDENCY_RELATIONS,
+            () -> resolveDependencyGraph(rootNode, mainDescriptor, testDescriptor, transitiveDependencies, artifactResolver, context));
         if (scanDependencies) {
-            scanDependencyArtifacts(rootNode, dependencies, dependencyFilter, localRepository, scanner);
+            moduleScan.measure(DEPENDENCIES, () -> scanDependencyArtifacts(rootNode, dependencies, dependencyFilter, localRepository, moduleScan, scanner));
         }
     }
 
     private Map<Artifact, Set<Artifact>> resolveDependencyGraph(DependencyNode rootNode, MavenArtifactDescriptor mainDescriptor,
-        MavenArtifactDescriptor testDescriptor, ScannerContext context) {
-        return graphResolver.resolve(rootNode, mainDescriptor, testDescriptor, context);
+        MavenArtifactDescriptor testDescriptor, boolean transitiveDependencies, ArtifactResolver artifactResolver, ScannerContext context) {
+        return graphResolver.resolve(rootNode, mainDescriptor, testDescriptor, transitiveDependencies, artifactResolver, context);
     }
 
     private void scanDependencyArtifacts(DependencyNode rootNode, Map<Artifact, Set<Artifact>> dependencies, ArtifactFilter dependencyFilter,
-        ArtifactRepository localRepository, Scanner scanner) {
+        ArtifactRepository localRepository, ModuleScan moduleScan, Scanner scanner) {
         List<Artifact> artifacts = DependencyResolver.newInstance(dependencies.keySet(), artifact -> dependencies.getOrDefault(artifact, emptySet())).resolve();
-        ArtifactResolver artifactResolver = scanner.getContext().peek(ArtifactResolver.class);
+        ArtifactResolver artifactResolver = moduleScan.getArtifactResolver();
+        ModuleScanMetrics moduleScanMetrics = moduleScan.getMetrics()
+            .orElse(null);
         for (Artifact artifact : artifacts) {
             // scan only dependencies, the root node represents the artifact to be created
             // by the current module and will be scanned separately.
-            if (!artifact.equals(rootNode.getArtifact()) && dependencyFilter.match(artifact)) {
+            if (artifact.equals(rootNode.getArtifact())) {
+                continue;
+            }
+            boolean scanned = false;
+            if (dependencyFilter.match(artifact)) {
                 File artifactFile = localRepository.find(artifact).getFile();
                 FileDescriptor fileDescriptor = artifactResolver.resolve(new MavenArtifactCoordinates(artifact, false), FileDescriptor.class,
                     scanner.getContext());
                 // The dependency might have been scanned before within another module, so check
                 // if it is not yet a FileContainerDescriptor (directory, JAR, etc.)
                 if (artifactFile != null && !(fileDescriptor instanceof FileContainerDescriptor)) {
+                    scanned = true;
+                    DependencyScanEvent dependencyScanEvent = new DependencyScanEvent();
+                    dependencyScanEvent.begin();
                     scanner.scan(artifactFile, artifactFile.getAbsolutePath(), DefaultScope.NONE);
+                    dependencyScanEvent.end();
+                    if (dependencyScanEvent.shouldCommit()) {
+                        dependencyScanEvent.gav = artifact.getId();
+                        dependencyScanEvent.path = artifactFile.getAbsolutePath();
+                        dependencyScanEvent.size = artifactFile.length();
+                        dependencyScanEvent.commit();
+                    }
                 }
             }
+            if (moduleScanMetrics != null) {
+                moduleScanMetrics.recordDependency(scanned);
+            }
         }
     }
 }
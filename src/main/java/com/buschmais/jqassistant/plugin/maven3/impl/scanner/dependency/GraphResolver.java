@@ -3,6 +3,7 @@ package com.buschmais.jqassistant.plugin.maven3.impl.scanner.dependency;
 import java.util.*;
 
 import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactResolver;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactCoordinates;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
@@ -17,22 +18,30 @@ import org.apache.maven.shared.dependency.graph.traversal.DependencyNodeVisitor;
  */
 public class GraphResolver {
 
+    private static final String ADD_TRANSITIVE_DEPENDENCIES = "MATCH (artifact:Maven:Artifact) WHERE id(artifact)=$artifact "
+        + "OPTIONAL MATCH (artifact)-[existing:DEPENDS_ON_TRANSITIVELY]->() DELETE existing WITH DISTINCT artifact "
+        + "UNWIND $dependencies AS dependency MATCH (dependencyArtifact:Maven:Artifact) WHERE id(dependencyArtifact)=dependency.id "
+        + "CREATE (artifact)-[:DEPENDS_ON_TRANSITIVELY{depth:dependency.depth, scope:dependency.scope, order:dependency.order}]->(dependencyArtifact)";
+
     Map<Artifact, Set<Artifact>> resolve(DependencyNode root, MavenArtifactDescriptor mainDescriptor, MavenArtifactDescriptor testDescriptor,
-            ScannerContext context) {
+            boolean transitiveDependencies, ArtifactResolver artifactResolver, ScannerContext context) {
         DependencyGraphVisitor visitor = new DependencyGraphVisitor();
         root.accept(visitor);
         Map<Artifact, Set<Artifact>> dependencies = visitor.getDependencies();
-        createGraph(dependencies, root.getArtifact(), mainDescriptor, testDescriptor, context);
+        createGraph(dependencies, root.getArtifact(), mainDescriptor, testDescriptor, artifactResolver, context);
+        if (transitiveDependencies) {
+            createTransitiveDependencies(visitor.getClasspath(), mainDescriptor, testDescriptor, artifactResolver, context);
+        }
         return Collections.unmodifiableMap(dependencies);
     }
 
     private void createGraph(Map<Artifact, Set<Artifact>> dependencies, Artifact mainArtifact, MavenArtifactDescriptor mainArtifactDescriptor,
-            MavenArtifactDescriptor testArtifactDescriptor, ScannerContext context) {
+            MavenArtifactDescriptor testArtifactDescriptor, ArtifactResolver artifactResolver, ScannerContext context) {
         for (Map.Entry<Artifact, Set<Artifact>> entry : dependencies.entrySet()) {
             Artifact dependentArtifact = entry.getKey();
             Set<Artifact> dependencyArtifacts = entry.getValue();
             for (Artifact dependencyArtifact : dependencyArtifacts) {
-                MavenArtifactDescriptor artifactDescriptor = resolve(dependencyArtifact, context);
+                MavenArtifactDescriptor artifactDescriptor = resolve(dependencyArtifact, artifactResolver, context);
                 if (dependentArtifact.equals(mainArtifact)) {
                     if (Artifact.SCOPE_TEST.equals(dependencyArtifact.getScope())) {
                         // Attach test scoped dependencies directly to the test artifact
@@ -41,18 +50,80 @@ public class GraphResolver {
                         mainArtifactDescriptor.addDependency(artifactDescriptor, dependencyArtifact.getScope(), dependencyArtifact.isOptional());
                     }
                 } else {
-                    MavenArtifactDescriptor dependentDescriptor = resolve(dependentArtifact, context);
+                    MavenArtifactDescriptor dependentDescriptor = resolve(dependentArtifact, artifactResolver, context);
                     dependentDescriptor.addDependency(artifactDescriptor, dependencyArtifact.getScope(), dependencyArtifact.isOptional());
                 }
             }
         }
     }
 
-    private MavenArtifactDescriptor resolve(Artifact artifact, ScannerContext context) {
-        ArtifactResolver artifactResolver = context.peek(ArtifactResolver.class);
+    /**
+     * Create the <code>DEPENDS_ON_TRANSITIVELY</code> relations from the main
+     * artifact to all resolved artifacts which are not test scoped and from the
+     * test artifact (if present) to all resolved artifacts, each of them using
+     * a single query. Existing relations of the artifacts are replaced, i.e.
+     * artifacts which are no longer resolved are not referenced anymore.
+     */
+    private void createTransitiveDependencies(Collection<ClasspathEntry> classpath, MavenArtifactDescriptor mainDescriptor,
+            MavenArtifactDescriptor testDescriptor, ArtifactResolver artifactResolver, ScannerContext context) {
+        List<Map<String, Object>> mainDependencies = new ArrayList<>();
+        List<Map<String, Object>> testDependencies = new ArrayList<>();
+        for (ClasspathEntry entry : classpath) {
+            Long id = resolve(entry.artifact, artifactResolver, context).getId();
+            if (!Artifact.SCOPE_TEST.equals(entry.scope)) {
+                mainDependencies.add(entry.toParameters(id, mainDependencies.size()));
+            }
+            testDependencies.add(entry.toParameters(id, testDependencies.size()));
+        }
+        Store store = context.getStore();
+        addTransitiveDependencies(mainDescriptor, mainDependencies, store);
+        addTransitiveDependencies(testDescriptor, testDependencies, store);
+    }
+
+    private void addTransitiveDependencies(MavenArtifactDescriptor artifactDescriptor, List<Map<String, Object>> dependencies, Store store) {
+        if (artifactDescriptor == null) {
+            return;
+        }
+        // executed for an empty classpath as well to remove the existing relations
+        Map<String, Object> params = new HashMap<>();
+        params.put("artifact", artifactDescriptor.getId());
+        params.put("dependencies", dependencies);
+        store.executeQuery(ADD_TRANSITIVE_DEPENDENCIES, params).close();
+    }
+
+    private MavenArtifactDescriptor resolve(Artifact artifact, ArtifactResolver artifactResolver, ScannerContext context) {
         return artifactResolver.resolve(new MavenArtifactCoordinates(artifact, false), context);
     }
 
+    /**
+     * An artifact of the resolved classpath with the depth and the scope of its
+     * nearest occurrence in the dependency tree, i.e. the version selected by
+     * Maven's dependency mediation.
+     */
+    private static class ClasspathEntry {
+
+        private final Artifact artifact;
+
+        private final int depth;
+
+        private final String scope;
+
+        private ClasspathEntry(Artifact artifact, int depth, String scope) {
+            this.artifact = artifact;
+            this.depth = depth;
+            this.scope = scope;
+        }
+
+        private Map<String, Object> toParameters(Long id, int order) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("id", id);
+            parameters.put("depth", depth);
+            parameters.put("scope", scope);
+            parameters.put("order", order);
+            return parameters;
+        }
+    }
+
     /**
      * Visitor to build up a {@link Map} containing the dependencies per
      * {@link Artifact}.
@@ -63,12 +134,50 @@ public class GraphResolver {
 
         private Map<Artifact, Set<Artifact>> dependencies = new LinkedHashMap<>();
 
+        /**
+         * The classpath entries by <code>groupId:artifactId:type:classifier</code>.
+         */
+        private Map<String, ClasspathEntry> classpath = new LinkedHashMap<>();
+
         @Override
         public boolean visit(DependencyNode node) {
             stack.push(node);
+            int depth = stack.size() - 1;
+            if (depth > 0) {
+                addClasspathEntry(node.getArtifact(), depth);
+            }
             return true;
         }
 
+        /**
+         * Add an artifact of the verbose dependency tree to the classpath.
+         *
+         * The tree also contains the versions which lost a conflict, omitted
+         * duplicates and cycles, therefore the entries are keyed without the
+         * version: the nearest occurrence wins, the first one if several
+         * occurrences have the same depth. The pre-order of the visit represents
+         * the classpath order, a nearer occurrence moves the entry to its
+         * position.
+         */
+        private void addClasspathEntry(Artifact artifact, int depth) {
+            String key = getKey(artifact);
+            if (key.equals(getKey(stack.getLast()
+                .getArtifact()))) {
+                // cycle to the root artifact
+                return;
+            }
+            ClasspathEntry entry = classpath.get(key);
+            if (entry == null || depth < entry.depth) {
+                classpath.remove(key);
+                classpath.put(key, new ClasspathEntry(artifact, depth, artifact.getScope()));
+            }
+        }
+
+        private String getKey(Artifact artifact) {
+            String classifier = artifact.getClassifier() != null ? artifact.getClassifier() : "";
+            return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getType() + ':' + classifier;
+        }
+
         @Override
         public boolean endVisit(DependencyNode dependencyNode) {
             stack.pop();
@@ -82,5 +191,12 @@ public class GraphResolver {
         public Map<Artifact, Set<Artifact>> getDependencies() {
             return dependencies;
         }
+
+        /**
+         * @return The resolved artifacts in classpath order.
+         */
+        public Collection<ClasspathEntry> getClasspath() {
+            return classpath.values();
+        }
     }
 }
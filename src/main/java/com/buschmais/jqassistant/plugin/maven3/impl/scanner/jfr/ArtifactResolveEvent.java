@@ -0,0 +1,29 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event: resolution of a Maven artifact descriptor.
+ */
+@Name(MavenEvents.NAME_PREFIX + "ArtifactResolve")
+@Label("Artifact Resolve")
+@Category({ MavenEvents.CATEGORY_JQASSISTANT, MavenEvents.CATEGORY_MAVEN })
+@Description("Resolution of a Maven artifact descriptor.")
+@Enabled(false)
+@Threshold("0 ms")
+public class ArtifactResolveEvent extends Event {
+
+    @Label("Fully Qualified Name")
+    @Description("The fully qualified name of the artifact.")
+    public String fqn;
+
+    @Label("Cache Hit")
+    @Description("Whether the artifact descriptor has been resolved from the cache.")
+    public boolean hit;
+}
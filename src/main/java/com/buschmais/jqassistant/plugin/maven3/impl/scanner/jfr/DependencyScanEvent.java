@@ -0,0 +1,33 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event: scan of a dependency artifact.
+ */
+@Name(MavenEvents.NAME_PREFIX + "DependencyScan")
+@Label("Dependency Scan")
+@Category({ MavenEvents.CATEGORY_JQASSISTANT, MavenEvents.CATEGORY_MAVEN })
+@Description("Scan of a dependency artifact.")
+@Enabled(false)
+@Threshold("10 ms")
+public class DependencyScanEvent extends Event {
+
+    @Label("GAV")
+    @Description("The coordinates of the dependency.")
+    public String gav;
+
+    @Label("Path")
+    @Description("The path of the artifact file.")
+    public String path;
+
+    @Label("Size")
+    @Description("The size of the artifact file in bytes.")
+    public long size;
+}
@@ -0,0 +1,20 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr;
+
+/**
+ * Constants for the Java Flight Recorder events emitted by the Maven scanner.
+ *
+ * All events are disabled by default, they can be enabled and their
+ * thresholds configured using JFR settings, e.g.
+ * {@code -XX:StartFlightRecording:+com.buschmais.jqassistant.plugin.maven3.ModuleScan#enabled=true}.
+ */
+final class MavenEvents {
+
+    static final String NAME_PREFIX = "com.buschmais.jqassistant.plugin.maven3.";
+
+    static final String CATEGORY_JQASSISTANT = "jQAssistant";
+
+    static final String CATEGORY_MAVEN = "Maven";
+
+    private MavenEvents() {
+    }
+}
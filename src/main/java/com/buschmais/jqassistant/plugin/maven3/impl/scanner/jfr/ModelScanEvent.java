@@ -0,0 +1,37 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event: creation of the graph representation of a Maven model.
+ */
+@Name(MavenEvents.NAME_PREFIX + "ModelScan")
+@Label("Model Scan")
+@Category({ MavenEvents.CATEGORY_JQASSISTANT, MavenEvents.CATEGORY_MAVEN })
+@Description("Creation of the graph representation of a Maven model.")
+@Enabled(false)
+@Threshold("1 ms")
+public class ModelScanEvent extends Event {
+
+    @Label("GAV")
+    @Description("The coordinates of the model.")
+    public String gav;
+
+    @Label("Path")
+    @Description("The path of the POM.")
+    public String path;
+
+    @Label("Dependencies")
+    @Description("The number of declared dependencies.")
+    public int dependencies;
+
+    @Label("Plugins")
+    @Description("The number of declared plugins.")
+    public int plugins;
+}
@@ -0,0 +1,29 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event: scan of a Maven module.
+ */
+@Name(MavenEvents.NAME_PREFIX + "ModuleScan")
+@Label("Module Scan")
+@Category({ MavenEvents.CATEGORY_JQASSISTANT, MavenEvents.CATEGORY_MAVEN })
+@Description("Scan of a Maven module.")
+@Enabled(false)
+@Threshold("10 ms")
+public class ModuleScanEvent extends Event {
+
+    @Label("GAV")
+    @Description("The coordinates of the module.")
+    public String gav;
+
+    @Label("Path")
+    @Description("The base directory of the module.")
+    public String path;
+}
@@ -0,0 +1,41 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event: parsing of a POM file.
+ */
+@Name(MavenEvents.NAME_PREFIX + "PomParse")
+@Label("POM Parse")
+@Category({ MavenEvents.CATEGORY_JQASSISTANT, MavenEvents.CATEGORY_MAVEN })
+@Description("Parsing of a POM file.")
+@Enabled(false)
+@Threshold("1 ms")
+public class PomParseEvent extends Event {
+
+    @Label("Path")
+    @Description("The path of the POM.")
+    public String path;
+
+    @Label("Size")
+    @Description("The size of the POM in bytes, -1 if unknown.")
+    public long size;
+
+    @Label("Streaming")
+    @Description("Whether the POM has been read using the streaming reader.")
+    public boolean streaming;
+
+    @Label("Dependencies")
+    @Description("The number of declared dependencies, including streamed ones.")
+    public int dependencies;
+
+    @Label("Plugins")
+    @Description("The number of declared plugins, including streamed ones.")
+    public int plugins;
+}
@@ -0,0 +1,231 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Collects the metrics of the phases while scanning a single Maven module.
+ *
+ * An instance is created by {@link ScanMetrics#startModule(String, Store)} and
+ * held by the {@link com.buschmais.jqassistant.plugin.maven3.impl.scanner.ModuleScan}
+ * of the module, i.e. nested scanners may contribute their measurements.
+ *
+ * Wall time, allocated bytes and created nodes and relations are measured per
+ * phase. The created nodes and relations are determined from the difference of
+ * the store totals before and after a phase or module, which is exact as module
+ * scans sharing a store are serialized. The totals are counted using separate
+ * statements as these can be answered from the count store of Neo4j.
+ */
+public class ModuleScanMetrics {
+
+    private static final String COUNT_NODES = "MATCH (n) RETURN count(n) AS count";
+
+    private static final String COUNT_RELATIONS = "MATCH ()-[r]->() RETURN count(r) AS count";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final ScanMetrics scanMetrics;
+
+    private final String module;
+
+    private final Store store;
+
+    private final long start;
+
+    private final long[] startCounts;
+
+    private final Map<ScanPhase, PhaseMetrics> phases = new EnumMap<>(ScanPhase.class);
+
+    private long wallTime;
+
+    private long createdNodes;
+
+    private long createdRelations;
+
+    private long scannedDependencies;
+
+    private long skippedDependencies;
+
+    ModuleScanMetrics(ScanMetrics scanMetrics, String module, Store store) {
+        this.scanMetrics = scanMetrics;
+        this.module = module;
+        this.store = store;
+        this.startCounts = count();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Measure the given action.
+     *
+     * @param phase
+     *     The {@link ScanPhase}.
+     * @param action
+     *     The action.
+     */
+    public void measure(ScanPhase phase, Runnable action) {
+        measure(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Measure the given action.
+     *
+     * @param phase
+     *     The {@link ScanPhase}.
+     * @param action
+     *     The action.
+     * @param <T>
+     *     The result type.
+     * @return The result of the action.
+     */
+    public <T> T measure(ScanPhase phase, Supplier<T> action) {
+        long[] counts = count();
+        long allocatedBytes = getAllocatedBytes();
+        long phaseStart = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            long phaseWallTime = System.nanoTime() - phaseStart;
+            long phaseAllocatedBytes = getAllocatedBytes() - allocatedBytes;
+            long[] phaseCounts = count();
+            phases.computeIfAbsent(phase, key -> new PhaseMetrics())
+                .add(phaseWallTime, phaseAllocatedBytes, phaseCounts[0] - counts[0], phaseCounts[1] - counts[1]);
+        }
+    }
+
+    /**
+     * Record the time for scanning a POM model.
+     *
+     * @param path
+     *     The path of the POM.
+     * @param pomWallTime
+     *     The wall time in nanoseconds.
+     */
+    public void recordPom(String path, long pomWallTime) {
+        scanMetrics.recordPom(path, pomWallTime);
+    }
+
+    /**
+     * Record a dependency artifact of the module.
+     *
+     * @param scanned
+     *     <code>true</code> if the artifact has been scanned,
+     *     <code>false</code> if it has been skipped (i.e. filtered, not
+     *     available or already scanned by another module).
+     */
+    public void recordDependency(boolean scanned) {
+        if (scanned) {
+            scannedDependencies++;
+        } else {
+            skippedDependencies++;
+        }
+    }
+
+    /**
+     * Finish the measurement of this module.
+     */
+    void finish() {
+        wallTime = System.nanoTime() - start;
+        long[] counts = count();
+        createdNodes = counts[0] - startCounts[0];
+        createdRelations = counts[1] - startCounts[1];
+    }
+
+    String getModule() {
+        return module;
+    }
+
+    /**
+     * @return The wall time of the module in nanoseconds, available after the
+     * module has been finished.
+     */
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * Return the accumulated wall time of a phase.
+     *
+     * @param phase
+     *     The {@link ScanPhase}.
+     * @return The wall time in nanoseconds, 0 if the phase has not been executed.
+     */
+    public long getWallTime(ScanPhase phase) {
+        PhaseMetrics phaseMetrics = phases.get(phase);
+        return phaseMetrics != null ? phaseMetrics.getWallTime() : 0;
+    }
+
+    /**
+     * @return The number of nodes created while scanning the module, available
+     * after the module has been finished.
+     */
+    public long getCreatedNodes() {
+        return createdNodes;
+    }
+
+    /**
+     * @return The number of relations created while scanning the module,
+     * available after the module has been finished.
+     */
+    public long getCreatedRelations() {
+        return createdRelations;
+    }
+
+    public long getScannedDependencies() {
+        return scannedDependencies;
+    }
+
+    public long getSkippedDependencies() {
+        return skippedDependencies;
+    }
+
+    Map<ScanPhase, PhaseMetrics> getPhases() {
+        return phases.isEmpty() ? emptyMap() : unmodifiableMap(phases);
+    }
+
+    /**
+     * Count the nodes and relations of the store.
+     *
+     * @return The number of nodes and relations.
+     */
+    private long[] count() {
+        return new long[] { count(COUNT_NODES), count(COUNT_RELATIONS) };
+    }
+
+    /**
+     * Execute a count statement.
+     *
+     * @param statement
+     *     The statement returning a single column <code>count</code>.
+     * @return The count.
+     */
+    private long count(String statement) {
+        try (Query.Result<CompositeRowObject> result = store.executeQuery(statement)) {
+            return result.hasResult() ? result.getSingleResult()
+                .get("count", Long.class) : 0;
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getThreadAllocatedBytes(Thread.currentThread()
+                    .getId());
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics;
+
+/**
+ * The accumulated metrics of a {@link ScanPhase}.
+ */
+class PhaseMetrics {
+
+    private long wallTime;
+
+    private long allocatedBytes;
+
+    private long createdNodes;
+
+    private long createdRelations;
+
+    void add(long wallTime, long allocatedBytes, long createdNodes, long createdRelations) {
+        this.wallTime += wallTime;
+        this.allocatedBytes += allocatedBytes;
+        this.createdNodes += createdNodes;
+        this.createdRelations += createdRelations;
+    }
+
+    void add(PhaseMetrics phaseMetrics) {
+        add(phaseMetrics.wallTime, phaseMetrics.allocatedBytes, phaseMetrics.createdNodes, phaseMetrics.createdRelations);
+    }
+
+    /**
+     * @return The wall time in nanoseconds.
+     */
+    long getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * @return The allocated bytes of the scanning thread, 0 if not supported by
+     * the JVM.
+     */
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return The number of nodes created within the phase.
+     */
+    long getCreatedNodes() {
+        return createdNodes;
+    }
+
+    /**
+     * @return The number of relations created within the phase.
+     */
+    long getCreatedRelations() {
+        return createdRelations;
+    }
+}
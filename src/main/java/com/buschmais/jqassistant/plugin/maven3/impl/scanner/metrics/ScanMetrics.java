@@ -0,0 +1,199 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Aggregates the {@link ModuleScanMetrics} of all scanned Maven modules and
+ * optionally writes them as JSON report.
+ *
+ * The report contains the totals per {@link ScanPhase} and the top-N slowest
+ * modules and POMs. It is rewritten after each module, i.e. it is available
+ * even if the scan is aborted. Memory consumption is bounded by the number of
+ * phases and N.
+ */
+public class ScanMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanMetrics.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path reportFile;
+
+    private final int top;
+
+    private final Map<ScanPhase, PhaseMetrics> phases = new EnumMap<>(ScanPhase.class);
+
+    private final PriorityQueue<ModuleScanMetrics> slowestModules = new PriorityQueue<>(Comparator.comparingLong(ModuleScanMetrics::getWallTime));
+
+    private final PriorityQueue<PomMetrics> slowestPoms = new PriorityQueue<>(Comparator.comparingLong(PomMetrics::getWallTime));
+
+    private int modules = 0;
+
+    private long poms = 0;
+
+    private long nodes = 0;
+
+    private long relations = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param reportFile
+     *     The report file, <code>null</code> if no report shall be written.
+     * @param top
+     *     The number of slowest modules and POMs to report.
+     */
+    public ScanMetrics(Path reportFile, int top) {
+        this.reportFile = reportFile;
+        this.top = top;
+    }
+
+    /**
+     * Start the measurement of a module.
+     *
+     * @param module
+     *     The module identifier.
+     * @param store
+     *     The {@link Store} used for counting created nodes and relations.
+     * @return The {@link ModuleScanMetrics}.
+     */
+    public ModuleScanMetrics startModule(String module, Store store) {
+        return new ModuleScanMetrics(this, module, store);
+    }
+
+    /**
+     * Finish the measurement of a module, aggregate its metrics and update the
+     * report if configured.
+     *
+     * @param moduleScanMetrics
+     *     The {@link ModuleScanMetrics}.
+     */
+    public synchronized void finishModule(ModuleScanMetrics moduleScanMetrics) {
+        moduleScanMetrics.finish();
+        modules++;
+        nodes += moduleScanMetrics.getCreatedNodes();
+        relations += moduleScanMetrics.getCreatedRelations();
+        moduleScanMetrics.getPhases()
+            .forEach((phase, phaseMetrics) -> phases.computeIfAbsent(phase, key -> new PhaseMetrics())
+                .add(phaseMetrics));
+        offer(slowestModules, moduleScanMetrics);
+        LOGGER.debug("Scanned module {} in {}ms.", moduleScanMetrics.getModule(), NANOSECONDS.toMillis(moduleScanMetrics.getWallTime()));
+        if (reportFile != null) {
+            writeReport();
+        }
+    }
+
+    synchronized void recordPom(String path, long wallTime) {
+        poms++;
+        offer(slowestPoms, new PomMetrics(path, wallTime));
+    }
+
+    private <T> void offer(PriorityQueue<T> queue, T element) {
+        queue.offer(element);
+        if (queue.size() > top) {
+            queue.poll();
+        }
+    }
+
+    private void writeReport() {
+        try {
+            Path directory = reportFile.toAbsolutePath()
+                .getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (Writer writer = Files.newBufferedWriter(reportFile, UTF_8)) {
+                MAPPER.writerWithDefaultPrettyPrinter()
+                    .writeValue(writer, toJson());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write scan metrics to '{}'.", reportFile, e);
+        }
+    }
+
+    ObjectNode toJson() {
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("modules", modules);
+        json.put("poms", poms);
+        json.put("nodes", nodes);
+        json.put("relations", relations);
+        json.set("phases", toJson(phases));
+        ArrayNode modulesJson = json.putArray("slowestModules");
+        for (ModuleScanMetrics module : sortedDescending(slowestModules, Comparator.comparingLong(ModuleScanMetrics::getWallTime))) {
+            ObjectNode moduleJson = modulesJson.addObject();
+            moduleJson.put("module", module.getModule());
+            moduleJson.put("wallTimeMillis", NANOSECONDS.toMillis(module.getWallTime()));
+            moduleJson.put("nodes", module.getCreatedNodes());
+            moduleJson.put("relations", module.getCreatedRelations());
+            moduleJson.set("phases", toJson(module.getPhases()));
+        }
+        ArrayNode pomsJson = json.putArray("slowestPoms");
+        for (PomMetrics pom : sortedDescending(slowestPoms, Comparator.comparingLong(PomMetrics::getWallTime))) {
+            ObjectNode pomJson = pomsJson.addObject();
+            pomJson.put("path", pom.getPath());
+            pomJson.put("wallTimeMillis", NANOSECONDS.toMillis(pom.getWallTime()));
+        }
+        return json;
+    }
+
+    private static <T> List<T> sortedDescending(PriorityQueue<T> queue, Comparator<T> comparator) {
+        List<T> list = new ArrayList<>(queue);
+        list.sort(comparator.reversed());
+        return list;
+    }
+
+    private static ObjectNode toJson(Map<ScanPhase, PhaseMetrics> phases) {
+        ObjectNode json = MAPPER.createObjectNode();
+        phases.forEach((phase, phaseMetrics) -> {
+            ObjectNode phaseJson = json.putObject(phase.name());
+            phaseJson.put("wallTimeMillis", NANOSECONDS.toMillis(phaseMetrics.getWallTime()));
+            phaseJson.put("allocatedBytes", phaseMetrics.getAllocatedBytes());
+            phaseJson.put("nodes", phaseMetrics.getCreatedNodes());
+            phaseJson.put("relations", phaseMetrics.getCreatedRelations());
+        });
+        return json;
+    }
+
+    /**
+     * The wall time of scanning a single POM.
+     */
+    private static class PomMetrics {
+
+        private final String path;
+
+        private final long wallTime;
+
+        private PomMetrics(String path, long wallTime) {
+            this.path = path;
+            this.wallTime = wallTime;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        long getWallTime() {
+            return wallTime;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics;
+
+/**
+ * The phases of scanning a Maven project which are measured by
+ * {@link ScanMetrics}.
+ */
+public enum ScanPhase {
+
+    /**
+     * Resolution of the dependency graph by Maven.
+     */
+    GRAPH_RESOLUTION,
+
+    /**
+     * Creation of the dependency relations from the resolved dependency graph.
+     */
+    DEPENDENCY_RELATIONS,
+
+    /**
+     * Scanning of the dependency artifacts.
+     */
+    DEPENDENCIES,
+
+    /**
+     * Scanning of the classes directories.
+     */
+    CLASSES,
+
+    /**
+     * Scanning of the pom.xml file.
+     */
+    MODEL,
+
+    /**
+     * Scanning of the effective model.
+     */
+    EFFECTIVE_MODEL,
+
+    /**
+     * Scanning of the test reports.
+     */
+    TEST_REPORTS,
+
+    /**
+     * Scanning of additional includes.
+     */
+    INCLUDES
+}
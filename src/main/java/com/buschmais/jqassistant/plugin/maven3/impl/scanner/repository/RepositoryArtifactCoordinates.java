@@ -0,0 +1,103 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
+
+/**
+ * The {@link Coordinates} of an artifact file within a version directory of a
+ * Maven repository, derived from the file name
+ * <code>artifactId-version[-classifier].type</code>.
+ */
+final class RepositoryArtifactCoordinates implements Coordinates {
+
+    private static final String SNAPSHOT = "-SNAPSHOT";
+
+    private static final Pattern SNAPSHOT_TIMESTAMP = Pattern.compile("^[0-9]{8}\\.[0-9]{6}-[0-9]+");
+
+    private final String group;
+
+    private final String name;
+
+    private final String classifier;
+
+    private final String type;
+
+    private final String version;
+
+    private RepositoryArtifactCoordinates(String group, String name, String classifier, String type, String version) {
+        this.group = group;
+        this.name = name;
+        this.classifier = classifier;
+        this.type = type;
+        this.version = version;
+    }
+
+    /**
+     * Determine the coordinates of an artifact file.
+     *
+     * @param repositoryVersion
+     *     The {@link RepositoryVersion} containing the file.
+     * @param fileName
+     *     The file name.
+     * @return The coordinates or an empty {@link Optional} if the file name
+     *     does not follow the repository layout.
+     */
+    static Optional<RepositoryArtifactCoordinates> of(RepositoryVersion repositoryVersion, String fileName) {
+        String artifactId = repositoryVersion.getArtifactId();
+        String directoryVersion = repositoryVersion.getVersion();
+        String remainder = fileName.substring(artifactId.length() + 1);
+        String version;
+        if (remainder.startsWith(directoryVersion)) {
+            version = directoryVersion;
+        } else if (directoryVersion.endsWith(SNAPSHOT)) {
+            // timestamped snapshot, e.g. 1.0-20240102.123456-1
+            String baseVersion = directoryVersion.substring(0, directoryVersion.length() - SNAPSHOT.length() + 1);
+            if (!remainder.startsWith(baseVersion)) {
+                return Optional.empty();
+            }
+            Matcher matcher = SNAPSHOT_TIMESTAMP.matcher(remainder.substring(baseVersion.length()));
+            if (!matcher.find()) {
+                return Optional.empty();
+            }
+            version = baseVersion + matcher.group();
+        } else {
+            return Optional.empty();
+        }
+        String suffix = remainder.substring(version.length());
+        int typeSeparator = suffix.indexOf('.');
+        if (typeSeparator < 0 || (typeSeparator > 0 && suffix.charAt(0) != '-')) {
+            return Optional.empty();
+        }
+        String classifier = typeSeparator > 0 ? suffix.substring(1, typeSeparator) : null;
+        String type = suffix.substring(typeSeparator + 1);
+        return Optional.of(new RepositoryArtifactCoordinates(repositoryVersion.getGroupId(), artifactId, classifier, type, version));
+    }
+
+    @Override
+    public String getGroup() {
+        return group;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getClassifier() {
+        return classifier;
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,449 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.util.*;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenVersionDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.DescriptorTypes;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.artifact.MavenArtifactResolver;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import com.google.common.collect.Lists;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * An in-memory trie of the group/artifact/version hierarchy of a repository
+ * holding the ids of the corresponding nodes.
+ *
+ * The trie is loaded lazily with a single query and kept per repository url
+ * in a cache of the {@link Store} while it is not reset, i.e. each hierarchy
+ * node is created exactly once and never looked up again. Missing siblings
+ * (group ids of the repository, artifact ids of a group id or versions of an
+ * artifact id) are created by a single statement per batch. Versions which
+ * no longer exist in the repository directory are removed in batches as well,
+ * artifacts and POMs which have been removed from an existing version are
+ * removed by a single statement per version.
+ *
+ * Instances are not thread-safe, they are only used by the scanning thread.
+ */
+public class RepositoryHierarchy {
+
+    private static final String CACHE_KEY = RepositoryHierarchy.class.getName();
+
+    private static final String LOAD = "MATCH (repository:Maven:Repository{url:$repository})-[:CONTAINS_GROUP_ID]->(groupId:Maven:GroupId) "
+        + "OPTIONAL MATCH (groupId)-[:CONTAINS_ARTIFACT_ID]->(artifactId:Maven:ArtifactId) "
+        + "OPTIONAL MATCH (artifactId)-[:CONTAINS_VERSION]->(version:Maven:Version) "
+        + "RETURN groupId.name AS groupId, id(groupId) AS groupIdId, artifactId.name AS artifactId, id(artifactId) AS artifactIdId, "
+        + "version.name AS version, id(version) AS versionId";
+
+    private static final String CREATE_GROUP_IDS = "MATCH (repository:Maven:Repository{url:$parent}) UNWIND $names AS name "
+        + "CREATE (repository)-[:CONTAINS_GROUP_ID]->(groupId:Maven:GroupId{name:name}) RETURN name, id(groupId) AS id";
+
+    private static final String CREATE_ARTIFACT_IDS = "MATCH (groupId:Maven:GroupId) WHERE id(groupId)=$parent UNWIND $names AS name "
+        + "CREATE (groupId)-[:CONTAINS_ARTIFACT_ID]->(artifactId:Maven:ArtifactId{name:name, fqn:$prefix+name}) RETURN name, id(artifactId) AS id";
+
+    private static final String CREATE_VERSIONS = "MATCH (artifactId:Maven:ArtifactId) WHERE id(artifactId)=$parent UNWIND $versions AS created "
+        + "CREATE (artifactId)-[:CONTAINS_VERSION]->(version:Maven:Version{name:created.name, fqn:$prefix+created.name, versionKey:created.versionKey, "
+        + "snapshot:created.snapshot, baseVersion:created.baseVersion}) RETURN created.name AS name, id(version) AS id, version";
+
+    private static final String UPDATE_ARTIFACT_IDS = "UNWIND $artifactIds AS updated MATCH (artifactId:Maven:ArtifactId) WHERE id(artifactId)=updated.id "
+        + "SET artifactId.latest=updated.latest, artifactId.release=updated.release, artifactId.lastUpdated=updated.lastUpdated";
+
+    private static final String REMOVE_VERSIONS = "MATCH (repository:Maven:Repository{url:$repository}) UNWIND $versions AS removed "
+        + "MATCH (version:Maven:Version) WHERE id(version)=removed.id "
+        + "OPTIONAL MATCH (repository)-[containsArtifact:CONTAINS_ARTIFACT]->(artifact:Maven:Artifact)<-[:CONTAINS_ARTIFACT]-(version) "
+        + "DELETE containsArtifact "
+        + "WITH repository, removed, version, collect(artifact.fqn) AS artifacts "
+        + "OPTIONAL MATCH (repository)-[containsPom:CONTAINS_POM]->(pom:Maven:Pom:Xml) WHERE pom.fileName STARTS WITH removed.directory "
+        + "DELETE containsPom "
+        + "WITH version, artifacts, collect(pom.fqn) AS poms "
+        + "DETACH DELETE version RETURN artifacts + poms AS fqns";
+
+    private static final String REMOVE_FILES = "MATCH (repository:Maven:Repository{url:$repository}), (version:Maven:Version) WHERE id(version)=$version "
+        + "OPTIONAL MATCH (version)-[containsVersion:CONTAINS_ARTIFACT]->(artifact:Maven:Artifact) WHERE NOT artifact.fqn IN $retainedArtifacts "
+        + "OPTIONAL MATCH (repository)-[containsRepository:CONTAINS_ARTIFACT]->(artifact) "
+        + "DELETE containsVersion, containsRepository "
+        + "WITH repository, collect(DISTINCT artifact) AS removed, collect(DISTINCT artifact.fqn) AS artifacts "
+        + "WITH repository, artifacts, [artifact IN removed WHERE NOT (artifact)--()] AS orphans "
+        + "WITH repository, artifacts, orphans, [orphan IN orphans | id(orphan)] AS ids "
+        + "FOREACH (orphan IN orphans | DELETE orphan) "
+        + "WITH repository, artifacts, ids "
+        + "OPTIONAL MATCH (repository)-[containsPom:CONTAINS_POM]->(pom:Maven:Pom:Xml) "
+        + "WHERE pom.fileName STARTS WITH $directory AND NOT pom.fileName IN $retainedPoms "
+        + "DELETE containsPom "
+        + "WITH artifacts, ids, collect(pom.fqn) AS poms "
+        + "RETURN artifacts + poms AS fqns, ids";
+
+    private static final String FIND_VERSIONS = "MATCH (version:Maven:Version) WHERE id(version) IN $ids RETURN version.name AS name, version";
+
+    private final String repositoryUrl;
+
+    private final int batchSize;
+
+    private final GroupNode root = new GroupNode();
+
+    private boolean loaded = false;
+
+    private RepositoryHierarchy(String repositoryUrl, int batchSize) {
+        this.repositoryUrl = repositoryUrl;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Return the {@link RepositoryHierarchy} of a repository.
+     *
+     * @param repositoryDescriptor
+     *     The {@link MavenRepositoryDescriptor}.
+     * @param batchSize
+     *     The maximum number of siblings created by one statement.
+     * @param store
+     *     The {@link Store}.
+     * @return The {@link RepositoryHierarchy}.
+     */
+    public static RepositoryHierarchy of(MavenRepositoryDescriptor repositoryDescriptor, int batchSize, Store store) {
+        return store.<String, RepositoryHierarchy> getCache(CACHE_KEY)
+            .get(repositoryDescriptor.getUrl(), url -> new RepositoryHierarchy(url, batchSize));
+    }
+
+    /**
+     * Add the given group ids to the repository if they do not exist yet.
+     *
+     * @param groupIds
+     *     The group ids.
+     * @param store
+     *     The {@link Store}.
+     */
+    public void addGroupIds(Collection<String> groupIds, Store store) {
+        load(store);
+        List<String> missing = new ArrayList<>();
+        for (String groupId : groupIds) {
+            if (getGroupNode(groupId).id == null) {
+                missing.add(groupId);
+            }
+        }
+        create(CREATE_GROUP_IDS, repositoryUrl, "", missing, store).forEach((groupId, id) -> getGroupNode(groupId).id = id);
+    }
+
+    /**
+     * Add the given artifact ids to a group id if they do not exist yet.
+     *
+     * @param groupId
+     *     The group id, which must have been added before.
+     * @param artifactIds
+     *     The artifact ids.
+     * @param store
+     *     The {@link Store}.
+     */
+    public void addArtifactIds(String groupId, Collection<String> artifactIds, Store store) {
+        GroupNode groupNode = getGroupNode(groupId);
+        List<String> missing = new ArrayList<>();
+        for (String artifactId : artifactIds) {
+            if (!groupNode.artifacts.containsKey(artifactId)) {
+                missing.add(artifactId);
+            }
+        }
+        create(CREATE_ARTIFACT_IDS, groupNode.id, groupId + ":", missing, store).forEach((artifactId, id) -> groupNode.artifacts.put(artifactId,
+            new ArtifactNode(id)));
+    }
+
+    /**
+     * Update the artifact ids of a group id from their repository metadata.
+     *
+     * @param groupId
+     *     The group id.
+     * @param metadata
+     *     The {@link RepositoryMetadata} per artifact id, which must have been
+     *     added before.
+     * @param store
+     *     The {@link Store}.
+     */
+    public void updateArtifactIds(String groupId, Map<String, RepositoryMetadata> metadata, Store store) {
+        GroupNode groupNode = getGroupNode(groupId);
+        List<Map<String, Object>> artifactIds = new ArrayList<>();
+        metadata.forEach((artifactId, artifactMetadata) -> {
+            Map<String, Object> updated = new HashMap<>();
+            updated.put("id", groupNode.artifacts.get(artifactId).id);
+            updated.put("latest", artifactMetadata.getLatest());
+            updated.put("release", artifactMetadata.getRelease());
+            updated.put("lastUpdated", artifactMetadata.getLastUpdated());
+            artifactIds.add(updated);
+        });
+        for (List<Map<String, Object>> batch : Lists.partition(artifactIds, batchSize)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("artifactIds", batch);
+            store.executeQuery(UPDATE_ARTIFACT_IDS, params)
+                .close();
+        }
+    }
+
+    /**
+     * Determines if a version exists in the repository.
+     *
+     * @param groupId
+     *     The group id.
+     * @param artifactId
+     *     The artifact id.
+     * @param version
+     *     The version.
+     * @param store
+     *     The {@link Store}.
+     * @return <code>true</code> if the version exists.
+     */
+    public boolean containsVersion(String groupId, String artifactId, String version, Store store) {
+        load(store);
+        ArtifactNode artifactNode = getGroupNode(groupId).artifacts.get(artifactId);
+        return artifactNode != null && artifactNode.versions.containsKey(version);
+    }
+
+    /**
+     * Add the given versions to an artifact id if they do not exist yet.
+     *
+     * @param groupId
+     *     The group id.
+     * @param artifactId
+     *     The artifact id, which must have been added before.
+     * @param versions
+     *     The versions.
+     * @param store
+     *     The {@link Store}.
+     * @return The {@link MavenVersionDescriptor}s of the given versions.
+     */
+    public Map<String, MavenVersionDescriptor> addVersions(String groupId, String artifactId, Collection<String> versions, Store store) {
+        ArtifactNode artifactNode = getGroupNode(groupId).artifacts.get(artifactId);
+        Map<String, MavenVersionDescriptor> versionDescriptors = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        List<Long> existing = new ArrayList<>();
+        for (String version : versions) {
+            Long id = artifactNode.versions.get(version);
+            if (id == null) {
+                missing.add(version);
+            } else {
+                existing.add(id);
+            }
+        }
+        for (List<String> batch : Lists.partition(missing, batchSize)) {
+            List<Map<String, Object>> created = new ArrayList<>(batch.size());
+            for (String version : batch) {
+                Map<String, Object> properties = new HashMap<>();
+                properties.put("name", version);
+                properties.put("versionKey", MavenArtifactHelper.getVersionKey(version));
+                properties.put("snapshot", MavenArtifactHelper.isSnapshot(version));
+                properties.put("baseVersion", MavenArtifactHelper.getBaseVersion(version));
+                created.add(properties);
+            }
+            Map<String, Object> params = new HashMap<>();
+            params.put("parent", artifactNode.id);
+            params.put("prefix", groupId + ":" + artifactId + ":");
+            params.put("versions", created);
+            for (CompositeRowObject row : store.executeQuery(CREATE_VERSIONS, params)) {
+                String version = row.get("name", String.class);
+                artifactNode.versions.put(version, row.get("id", Long.class));
+                versionDescriptors.put(version, row.get("version", MavenVersionDescriptor.class));
+            }
+        }
+        for (List<Long> batch : Lists.partition(existing, batchSize)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("ids", batch);
+            for (CompositeRowObject row : store.executeQuery(FIND_VERSIONS, params)) {
+                versionDescriptors.put(row.get("name", String.class), row.get("version", MavenVersionDescriptor.class));
+            }
+        }
+        return versionDescriptors;
+    }
+
+    /**
+     * Remove the versions which are not contained in the given set of existing
+     * versions including the <code>CONTAINS_ARTIFACT</code> and
+     * <code>CONTAINS_POM</code> relations from the repository to their
+     * artifacts and POMs. The artifact and POM nodes are kept as they may be
+     * referenced by other nodes, the deleted version nodes are evicted from
+     * the {@link DescriptorTypes} cache.
+     *
+     * @param existing
+     *     The existing versions as <code>groupId:artifactId:version</code>.
+     * @param store
+     *     The {@link Store}.
+     * @return The fully qualified names of the artifacts and POMs which are no
+     *     longer contained in the repository.
+     */
+    public List<String> removeVersions(Set<String> existing, Store store) {
+        load(store);
+        List<Map<String, Object>> removed = new ArrayList<>();
+        forEachArtifact(root, null, (groupId, artifactId, artifactNode) -> {
+            Iterator<Map.Entry<String, Long>> versions = artifactNode.versions.entrySet()
+                .iterator();
+            while (versions.hasNext()) {
+                Map.Entry<String, Long> version = versions.next();
+                if (!existing.contains(groupId + ":" + artifactId + ":" + version.getKey())) {
+                    Map<String, Object> removedVersion = new HashMap<>();
+                    removedVersion.put("id", version.getValue());
+                    removedVersion.put("directory", "/" + groupId.replace('.', '/') + "/" + artifactId + "/" + version.getKey() + "/");
+                    removed.add(removedVersion);
+                    versions.remove();
+                }
+            }
+        });
+        List<String> fqns = new ArrayList<>();
+        for (List<Map<String, Object>> batch : Lists.partition(removed, batchSize)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("repository", repositoryUrl);
+            params.put("versions", batch);
+            for (CompositeRowObject row : store.executeQuery(REMOVE_VERSIONS, params)) {
+                fqns.addAll(row.get("fqns", List.class));
+            }
+            DescriptorTypes.evict(batch.stream()
+                .map(version -> version.get("id"))
+                .collect(toList()), store);
+        }
+        return fqns;
+    }
+
+    /**
+     * Remove the artifacts and POMs of a version which are not retained, e.g.
+     * files which have been deleted from the version directory or the
+     * superseded timestamped builds of a snapshot version. The
+     * <code>CONTAINS_ARTIFACT</code> and <code>CONTAINS_POM</code> relations
+     * to their artifacts and POMs are deleted, artifact nodes without further
+     * relations are deleted as well and evicted from the caches.
+     *
+     * @param groupId
+     *     The group id.
+     * @param artifactId
+     *     The artifact id.
+     * @param version
+     *     The version, which must have been added before.
+     * @param retainedArtifacts
+     *     The fully qualified names of the artifacts to retain.
+     * @param retainedPoms
+     *     The file names of the POMs to retain.
+     * @param store
+     *     The {@link Store}.
+     * @return The fully qualified names of the artifacts and POMs which are no
+     *     longer contained in the repository.
+     */
+    public List<String> removeFiles(String groupId, String artifactId, String version, Collection<String> retainedArtifacts,
+        Collection<String> retainedPoms, Store store) {
+        String directory = "/" + groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/";
+        List<String> retainedPomFiles = new ArrayList<>(retainedPoms.size());
+        for (String retainedPom : retainedPoms) {
+            retainedPomFiles.add(directory + retainedPom);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("repository", repositoryUrl);
+        params.put("version", getGroupNode(groupId).artifacts.get(artifactId).versions.get(version));
+        params.put("retainedArtifacts", new ArrayList<>(retainedArtifacts));
+        params.put("directory", directory);
+        params.put("retainedPoms", retainedPomFiles);
+        List<String> fqns = new ArrayList<>();
+        for (CompositeRowObject row : store.executeQuery(REMOVE_FILES, params)) {
+            fqns.addAll(row.get("fqns", List.class));
+            DescriptorTypes.evict(row.get("ids", List.class), store);
+        }
+        MavenArtifactResolver.evict(fqns, store);
+        return fqns;
+    }
+
+    /**
+     * Load the existing hierarchy of the repository using a single query.
+     */
+    private void load(Store store) {
+        if (loaded) {
+            return;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("repository", repositoryUrl);
+        for (CompositeRowObject row : store.executeQuery(LOAD, params)) {
+            GroupNode groupNode = getGroupNode(row.get("groupId", String.class));
+            groupNode.id = row.get("groupIdId", Long.class);
+            String artifactId = row.get("artifactId", String.class);
+            if (artifactId != null) {
+                ArtifactNode artifactNode = groupNode.artifacts.computeIfAbsent(artifactId, key -> new ArtifactNode(row.get("artifactIdId", Long.class)));
+                String version = row.get("version", String.class);
+                if (version != null) {
+                    artifactNode.versions.put(version, row.get("versionId", Long.class));
+                }
+            }
+        }
+        loaded = true;
+    }
+
+    private Map<String, Long> create(String statement, Object parent, String prefix, List<String> names, Store store) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> batch : Lists.partition(names, batchSize)) {
+            for (CompositeRowObject row : execute(statement, parent, prefix, batch, store)) {
+                ids.put(row.get("name", String.class), row.get("id", Long.class));
+            }
+        }
+        return ids;
+    }
+
+    private static Query.Result<CompositeRowObject> execute(String statement, Object parent, String prefix, List<String> names, Store store) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("parent", parent);
+        params.put("prefix", prefix);
+        params.put("names", names);
+        return store.executeQuery(statement, params);
+    }
+
+    /**
+     * Visit the artifact ids of the trie, the group ids are built from the
+     * segments while descending.
+     */
+    private static void forEachArtifact(GroupNode node, String groupId, ArtifactVisitor visitor) {
+        if (groupId != null) {
+            node.artifacts.forEach((artifactId, artifactNode) -> visitor.visit(groupId, artifactId, artifactNode));
+        }
+        node.children.forEach((segment, child) -> forEachArtifact(child, groupId != null ? groupId + "." + segment : segment, visitor));
+    }
+
+    /**
+     * Return the node of a group id, the trie is keyed by the segments of the
+     * group id.
+     */
+    private GroupNode getGroupNode(String groupId) {
+        GroupNode node = root;
+        for (String segment : groupId.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, key -> new GroupNode());
+        }
+        return node;
+    }
+
+    /**
+     * A node of the trie representing a segment of a group id.
+     */
+    private static class GroupNode {
+
+        private final Map<String, GroupNode> children = new HashMap<>();
+
+        private final Map<String, ArtifactNode> artifacts = new HashMap<>();
+
+        /**
+         * The id of the group id node, <code>null</code> if the segments up to
+         * this node are only a prefix of existing group ids.
+         */
+        private Long id;
+    }
+
+    private interface ArtifactVisitor {
+
+        void visit(String groupId, String artifactId, ArtifactNode artifactNode);
+    }
+
+    /**
+     * A node of the trie representing an artifact id and its versions.
+     */
+    private static class ArtifactNode {
+
+        private final long id;
+
+        private final Map<String, Long> versions = new HashMap<>();
+
+        private ArtifactNode(long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+import com.buschmais.jqassistant.plugin.maven3.api.model.*;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.RepositoryIndex;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Indexes a Maven repository directory in bulk.
+ *
+ * The directory tree is walked in parallel by the {@link RepositoryWalker} and
+ * the group/artifact/version hierarchy is built in memory, the corresponding
+ * nodes are maintained by the {@link RepositoryHierarchy}. POMs are parsed
+ * ahead on a pool of worker threads while the hierarchy, the POM models and
+ * the artifacts are written to the store by the scanning thread, the store is
+ * flushed after each batch of versions. POMs and artifacts already contained
+ * in the {@link RepositoryIndex} are not added again. The latest and release
+ * versions and the snapshot timestamps are taken from the repository metadata.
+ *
+ * Incremental scans only write the versions modified since the last scan of
+ * the repository, versions which have been deleted from the repository
+ * directory are removed from the graph. For existing versions the artifacts
+ * and POMs of deleted files are removed and POMs whose size or modification
+ * time differ from the indexed ones are scanned again.
+ *
+ * If a snapshot retention is configured only the artifacts of the latest
+ * timestamped builds of a snapshot version are indexed, the artifacts of
+ * superseded builds are pruned from the version.
+ */
+public class RepositoryIndexer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryIndexer.class);
+
+    /**
+     * The number of POMs parsed ahead per worker thread.
+     */
+    private static final int PARSE_AHEAD = 16;
+
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private static final String SNAPSHOT = "SNAPSHOT";
+
+    private static final String POM_SUFFIX = ".pom";
+
+    /**
+     * Orders timestamped snapshot versions of the same base version by their
+     * timestamp and build number.
+     */
+    private static final Comparator<String> SNAPSHOT_ORDER = Comparator.comparing((String version) -> version.substring(0, version.lastIndexOf('-')))
+        .thenComparingInt(version -> Integer.parseInt(version.substring(version.lastIndexOf('-') + 1)));
+
+    private final int threads;
+
+    private final int batchSize;
+
+    private final boolean content;
+
+    private final int snapshotRetention;
+
+    /**
+     * Constructor.
+     *
+     * @param threads
+     *     The number of threads for walking the repository and parsing POMs.
+     * @param batchSize
+     *     The number of versions after which the store is flushed.
+     */
+    public RepositoryIndexer(int threads, int batchSize) {
+        this(threads, batchSize, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param threads
+     *     The number of threads for walking the repository and parsing POMs.
+     * @param batchSize
+     *     The number of versions after which the store is flushed.
+     * @param content
+     *     If <code>false</code> the versions of artifact ids providing
+     *     metadata are indexed from the metadata without their POMs and
+     *     artifacts.
+     */
+    public RepositoryIndexer(int threads, int batchSize, boolean content) {
+        this(threads, batchSize, content, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param threads
+     *     The number of threads for walking the repository and parsing POMs.
+     * @param batchSize
+     *     The number of versions after which the store is flushed.
+     * @param content
+     *     If <code>false</code> the versions of artifact ids providing
+     *     metadata are indexed from the metadata without their POMs and
+     *     artifacts.
+     * @param snapshotRetention
+     *     The number of timestamped builds per snapshot version to index,
+     *     <code>0</code> indexes all builds.
+     */
+    public RepositoryIndexer(int threads, int batchSize, boolean content, int snapshotRetention) {
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.content = content;
+        this.snapshotRetention = snapshotRetention;
+    }
+
+    /**
+     * Index the given repository directory.
+     *
+     * @param root
+     *     The root directory of the repository.
+     * @param repositoryDescriptor
+     *     The {@link MavenRepositoryDescriptor}.
+     * @param scanner
+     *     The {@link Scanner}.
+     */
+    public void index(Path root, MavenRepositoryDescriptor repositoryDescriptor, Scanner scanner) {
+        index(root, 0, repositoryDescriptor, scanner);
+    }
+
+    /**
+     * Index the versions of the given repository directory which have been
+     * modified since the given point in time and remove deleted versions.
+     *
+     * @param root
+     *     The root directory of the repository.
+     * @param since
+     *     The point in time in milliseconds, <code>0</code> indexes all
+     *     versions.
+     * @param repositoryDescriptor
+     *     The {@link MavenRepositoryDescriptor}.
+     * @param scanner
+     *     The {@link Scanner}.
+     */
+    public void index(Path root, long since, MavenRepositoryDescriptor repositoryDescriptor, Scanner scanner) {
+        long start = System.nanoTime();
+        Store store = scanner.getContext()
+            .getStore();
+        List<RepositoryVersion> allVersions = new RepositoryWalker(threads, content).walk(root, since);
+        List<String> removed = RepositoryHierarchy.of(repositoryDescriptor, batchSize, store)
+            .removeVersions(allVersions.stream()
+                .map(RepositoryVersion::toString)
+                .collect(toSet()), store);
+        RepositoryIndex.of(repositoryDescriptor, store)
+            .remove(removed);
+        List<RepositoryVersion> versions = allVersions.stream()
+            .filter(RepositoryVersion::isModified)
+            .collect(toList());
+        Map<String, Map<String, List<RepositoryVersion>>> hierarchy = getHierarchy(versions);
+        LOGGER.info("Found {} versions ({} modified) in repository '{}', removed {} artifacts and POMs ({}ms).", allVersions.size(), versions.size(), root,
+            removed.size(), NANOSECONDS.toMillis(System.nanoTime() - start));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pomParser = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "jqassistant-maven3-pom-parser-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            write(root, hierarchy, versions.size(), repositoryDescriptor, pomParser, scanner);
+        } finally {
+            pomParser.shutdownNow();
+        }
+        LOGGER.info("Indexed {} versions of repository '{}' in {}ms.", versions.size(), root, NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Build the sorted group/artifact/version hierarchy, the versions of an
+     * artifact are ordered by their Maven version semantics (e.g.
+     * <code>1.9</code> before <code>1.10</code>).
+     *
+     * @param versions
+     *     The {@link RepositoryVersion}s.
+     * @return The hierarchy.
+     */
+    static Map<String, Map<String, List<RepositoryVersion>>> getHierarchy(List<RepositoryVersion> versions) {
+        Map<String, Map<String, List<RepositoryVersion>>> hierarchy = new TreeMap<>();
+        for (RepositoryVersion version : versions) {
+            hierarchy.computeIfAbsent(version.getGroupId(), key -> new TreeMap<>())
+                .computeIfAbsent(version.getArtifactId(), key -> new ArrayList<>())
+                .add(version);
+        }
+        hierarchy.values()
+            .forEach(artifacts -> artifacts.values()
+                .forEach(artifactVersions -> artifactVersions.sort(Comparator.comparing(version -> MavenArtifactHelper.getVersionKey(version.getVersion())))));
+        return hierarchy;
+    }
+
+    private void write(Path root, Map<String, Map<String, List<RepositoryVersion>>> hierarchy, int total, MavenRepositoryDescriptor repositoryDescriptor,
+        ExecutorService pomParser, Scanner scanner) {
+        ScannerContext context = scanner.getContext();
+        Store store = context.getStore();
+        ArtifactResolver artifactResolver = context.peek(ArtifactResolver.class);
+        // the POMs are parsed ahead in the same order as the versions are written
+        Iterator<RepositoryVersion> parseAhead = hierarchy.values()
+            .stream()
+            .flatMap(artifacts -> artifacts.values()
+                .stream())
+            .flatMap(List::stream)
+            .iterator();
+        Deque<Future<Model>> models = new ArrayDeque<>();
+        RepositoryHierarchy repositoryHierarchy = RepositoryHierarchy.of(repositoryDescriptor, batchSize, store);
+        RepositoryIndex repositoryIndex = RepositoryIndex.of(repositoryDescriptor, store);
+        repositoryHierarchy.addGroupIds(hierarchy.keySet(), store);
+        int written = 0;
+        for (Map.Entry<String, Map<String, List<RepositoryVersion>>> group : hierarchy.entrySet()) {
+            String groupId = group.getKey();
+            repositoryHierarchy.addArtifactIds(groupId, group.getValue()
+                .keySet(), store);
+            Map<String, RepositoryMetadata> artifactMetadata = new HashMap<>();
+            for (Map.Entry<String, List<RepositoryVersion>> artifact : group.getValue()
+                .entrySet()) {
+                List<RepositoryVersion> versions = artifact.getValue();
+                Set<String> existingVersions = versions.stream()
+                    .map(RepositoryVersion::getVersion)
+                    .filter(version -> repositoryHierarchy.containsVersion(groupId, artifact.getKey(), version, store))
+                    .collect(toSet());
+                Map<String, MavenVersionDescriptor> versionDescriptors = repositoryHierarchy.addVersions(groupId, artifact.getKey(), versions.stream()
+                    .map(RepositoryVersion::getVersion)
+                    .collect(toList()), store);
+                RepositoryMetadata metadata = versions.get(0)
+                    .getArtifactMetadata();
+                if (metadata != null) {
+                    artifactMetadata.put(artifact.getKey(), metadata);
+                }
+                for (RepositoryVersion version : versions) {
+                    while (models.size() < threads * PARSE_AHEAD && parseAhead.hasNext()) {
+                        RepositoryVersion next = parseAhead.next();
+                        models.add(pomParser.submit(() -> parse(next)));
+                    }
+                    MavenVersionDescriptor versionDescriptor = versionDescriptors.get(version.getVersion());
+                    RepositoryMetadata versionMetadata = version.getVersionMetadata();
+                    if (versionMetadata != null) {
+                        versionDescriptor.setSnapshotTimestamp(versionMetadata.getSnapshotTimestamp());
+                        versionDescriptor.setSnapshotBuildNumber(versionMetadata.getSnapshotBuildNumber());
+                    }
+                    addArtifacts(version, existingVersions.contains(version.getVersion()), versionDescriptor, repositoryHierarchy, repositoryIndex,
+                        artifactResolver, context);
+                    Model model = getModel(version, models.poll());
+                    if (model != null) {
+                        addModel(root, version, model, repositoryIndex, scanner);
+                    }
+                    written++;
+                    if (written % batchSize == 0) {
+                        repositoryIndex.flush();
+                        store.flush();
+                    }
+                    if (written % PROGRESS_INTERVAL == 0) {
+                        LOGGER.info("Indexed {}/{} versions of repository '{}'.", written, total, root);
+                    }
+                }
+            }
+            repositoryHierarchy.updateArtifactIds(groupId, artifactMetadata, store);
+        }
+        repositoryIndex.flush();
+        store.flush();
+    }
+
+    private void addArtifacts(RepositoryVersion version, boolean existing, MavenVersionDescriptor versionDescriptor,
+        RepositoryHierarchy repositoryHierarchy, RepositoryIndex repositoryIndex, ArtifactResolver artifactResolver, ScannerContext context) {
+        Map<String, RepositoryArtifactCoordinates> files = new LinkedHashMap<>();
+        for (String file : version.getFiles()) {
+            RepositoryArtifactCoordinates.of(version, file)
+                .ifPresent(coordinates -> files.put(file, coordinates));
+        }
+        if (snapshotRetention > 0 && version.getVersion()
+            .endsWith(SNAPSHOT)) {
+            Set<String> retained = getRetainedSnapshots(version.getVersion(), files.values()
+                .stream()
+                .map(RepositoryArtifactCoordinates::getVersion)
+                .collect(toList()), snapshotRetention);
+            files.values()
+                .removeIf(coordinates -> !version.getVersion()
+                    .equals(coordinates.getVersion()) && !retained.contains(coordinates.getVersion()));
+        }
+        Collection<RepositoryArtifactCoordinates> artifacts = files.values();
+        // versions taken from the metadata of the artifact id do not provide their files
+        if (existing && !version.getFiles()
+            .isEmpty()) {
+            Set<String> retainedArtifacts = artifacts.stream()
+                .map(MavenArtifactHelper::getId)
+                .collect(toSet());
+            Set<String> retainedPoms = files.keySet()
+                .stream()
+                .filter(file -> file.endsWith(POM_SUFFIX))
+                .collect(toSet());
+            repositoryIndex.remove(repositoryHierarchy.removeFiles(version.getGroupId(), version.getArtifactId(), version.getVersion(), retainedArtifacts,
+                retainedPoms, context.getStore()));
+        }
+        for (RepositoryArtifactCoordinates coordinates : artifacts) {
+            if (!repositoryIndex.containsArtifact(MavenArtifactHelper.getId(coordinates))) {
+                MavenArtifactDescriptor artifactDescriptor = artifactResolver.resolve(coordinates, context);
+                versionDescriptor.getArtifacts()
+                    .add(artifactDescriptor);
+                repositoryIndex.addArtifact(artifactDescriptor);
+            }
+        }
+    }
+
+    /**
+     * Determine the timestamped builds of a snapshot version to retain.
+     *
+     * @param baseVersion
+     *     The base version, e.g. <code>1.0-SNAPSHOT</code>.
+     * @param versions
+     *     The versions of the artifacts of the snapshot version, e.g.
+     *     <code>1.0-20240101.120000-3</code>.
+     * @param retention
+     *     The number of builds to retain.
+     * @return The timestamped versions of the latest builds.
+     */
+    static Set<String> getRetainedSnapshots(String baseVersion, Collection<String> versions, int retention) {
+        return versions.stream()
+            .filter(version -> !baseVersion.equals(version))
+            .distinct()
+            .sorted(SNAPSHOT_ORDER.reversed())
+            .limit(retention)
+            .collect(toSet());
+    }
+
+    private void addModel(Path root, RepositoryVersion version, Model model, RepositoryIndex repositoryIndex, Scanner scanner) {
+        String fqn = RepositoryArtifactCoordinates.of(version, version.getPomFile())
+            .map(MavenArtifactHelper::getId)
+            .orElse(version.getGroupId() + ":" + version.getArtifactId() + ":pom:" + version.getVersion());
+        if (repositoryIndex.containsModel(fqn, version.getPomSize(), version.getPomLastModified())) {
+            return;
+        }
+        // the POM has not been indexed yet or has been modified since
+        repositoryIndex.removeModel(fqn);
+        ScannerContext context = scanner.getContext();
+        String path = "/" + root.relativize(version.getDirectory()
+                .resolve(version.getPomFile()))
+            .toString()
+            .replace('\\', '/');
+        MavenPomXmlDescriptor pomXmlDescriptor = context.getStore()
+            .create(MavenPomXmlDescriptor.class);
+        pomXmlDescriptor.setFileName(path);
+        pomXmlDescriptor.setFullQualifiedName(fqn);
+        pomXmlDescriptor.setSize(version.getPomSize());
+        pomXmlDescriptor.setLastModified(version.getPomLastModified());
+        context.push(MavenPomDescriptor.class, pomXmlDescriptor);
+        try {
+            scanner.scan(model, path, MavenScope.REPOSITORY);
+        } finally {
+            context.pop(MavenPomDescriptor.class);
+        }
+        pomXmlDescriptor.setValid(true);
+        repositoryIndex.addModel(fqn, pomXmlDescriptor);
+    }
+
+    private static Model getModel(RepositoryVersion version, Future<Model> model) {
+        try {
+            return model.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the POM of " + version, e);
+        } catch (ExecutionException e) {
+            LOGGER.warn("Cannot read POM of {}.", version, e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Parse the POM of a version, executed by the worker threads.
+     *
+     * @param version
+     *     The {@link RepositoryVersion}.
+     * @return The {@link Model} or <code>null</code> if the version does not
+     *     contain a POM.
+     * @throws IOException
+     *     If the POM cannot be read.
+     * @throws XmlPullParserException
+     *     If the POM cannot be parsed.
+     */
+    private static Model parse(RepositoryVersion version) throws IOException, XmlPullParserException {
+        if (version.getPomFile() == null) {
+            return null;
+        }
+        try (InputStream stream = Files.newInputStream(version.getDirectory()
+            .resolve(version.getPomFile()))) {
+            return new MavenXpp3Reader().read(stream, false);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Snapshot;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The content of the <code>maven-metadata.xml</code> and
+ * <code>maven-metadata-local.xml</code> files of an artifact id or a snapshot
+ * version directory.
+ *
+ * If both files exist the versions are merged, the other values are taken from
+ * the most recently updated file.
+ */
+public final class RepositoryMetadata {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryMetadata.class);
+
+    static final String[] METADATA_FILES = { "maven-metadata.xml", "maven-metadata-local.xml" };
+
+    private final String artifactId;
+
+    private final String version;
+
+    private final List<String> versions;
+
+    private final String latest;
+
+    private final String release;
+
+    private final String lastUpdated;
+
+    private final String snapshotTimestamp;
+
+    private final int snapshotBuildNumber;
+
+    private RepositoryMetadata(String artifactId, String version, List<String> versions, String latest, String release, String lastUpdated,
+        String snapshotTimestamp, int snapshotBuildNumber) {
+        this.artifactId = artifactId;
+        this.version = version;
+        this.versions = versions;
+        this.latest = latest;
+        this.release = release;
+        this.lastUpdated = lastUpdated;
+        this.snapshotTimestamp = snapshotTimestamp;
+        this.snapshotBuildNumber = snapshotBuildNumber;
+    }
+
+    /**
+     * Read the metadata files of a directory.
+     *
+     * @param directory
+     *     The directory.
+     * @return The {@link RepositoryMetadata} or <code>null</code> if the
+     *     directory does not contain readable metadata.
+     */
+    static RepositoryMetadata read(File directory) {
+        Metadata current = null;
+        Set<String> versions = new LinkedHashSet<>();
+        for (String metadataFile : METADATA_FILES) {
+            File file = new File(directory, metadataFile);
+            if (file.isFile()) {
+                Metadata metadata = readFile(file);
+                if (metadata != null) {
+                    Versioning versioning = metadata.getVersioning();
+                    if (versioning != null) {
+                        versions.addAll(versioning.getVersions());
+                    }
+                    if (current == null || getLastUpdated(metadata).compareTo(getLastUpdated(current)) > 0) {
+                        current = metadata;
+                    }
+                }
+            }
+        }
+        if (current == null) {
+            return null;
+        }
+        Versioning versioning = current.getVersioning();
+        Snapshot snapshot = versioning != null ? versioning.getSnapshot() : null;
+        return new RepositoryMetadata(current.getArtifactId(), current.getVersion(), new ArrayList<>(versions),
+            versioning != null ? versioning.getLatest() : null, versioning != null ? versioning.getRelease() : null,
+            versioning != null ? versioning.getLastUpdated() : null, snapshot != null ? snapshot.getTimestamp() : null,
+            snapshot != null ? snapshot.getBuildNumber() : 0);
+    }
+
+    private static Metadata readFile(File file) {
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            return new MetadataXpp3Reader().read(stream, false);
+        } catch (IOException | XmlPullParserException e) {
+            LOGGER.warn("Cannot read repository metadata '{}'.", file, e);
+            return null;
+        }
+    }
+
+    private static String getLastUpdated(Metadata metadata) {
+        Versioning versioning = metadata.getVersioning();
+        return versioning != null && versioning.getLastUpdated() != null ? versioning.getLastUpdated() : "";
+    }
+
+    /**
+     * Determines if the metadata describes the versions of the given artifact
+     * id, i.e. it is neither group nor version metadata.
+     *
+     * @param artifactId
+     *     The artifact id.
+     * @return <code>true</code> if the metadata describes the artifact id.
+     */
+    boolean isArtifactMetadata(String artifactId) {
+        return artifactId.equals(this.artifactId) && version == null && !versions.isEmpty();
+    }
+
+    /**
+     * @return The versions of the artifact id in the order of the metadata.
+     */
+    public List<String> getVersions() {
+        return versions;
+    }
+
+    public String getLatest() {
+        return latest;
+    }
+
+    public String getRelease() {
+        return release;
+    }
+
+    /**
+     * @return The last update as <code>yyyyMMddHHmmss</code>.
+     */
+    public String getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * @return The timestamp of the latest snapshot as
+     * <code>yyyyMMdd.HHmmss</code>, <code>null</code> if it is not a deployed
+     * snapshot.
+     */
+    public String getSnapshotTimestamp() {
+        return snapshotTimestamp;
+    }
+
+    public int getSnapshotBuildNumber() {
+        return snapshotBuildNumber;
+    }
+}
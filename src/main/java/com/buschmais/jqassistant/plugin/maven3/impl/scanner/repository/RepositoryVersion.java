@@ -0,0 +1,137 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A version directory of a Maven repository, i.e.
+ * <code>group/artifactId/version</code>, and the names of the contained
+ * artifact files.
+ */
+public final class RepositoryVersion {
+
+    private final String groupId;
+
+    private final String artifactId;
+
+    private final String version;
+
+    private final Path directory;
+
+    private final List<String> files;
+
+    private final String pomFile;
+
+    private final long pomSize;
+
+    private final long pomLastModified;
+
+    private final boolean modified;
+
+    private final RepositoryMetadata artifactMetadata;
+
+    private final RepositoryMetadata versionMetadata;
+
+    RepositoryVersion(String groupId, String artifactId, String version, Path directory, List<String> files, String pomFile) {
+        this(groupId, artifactId, version, directory, files, pomFile, true);
+    }
+
+    RepositoryVersion(String groupId, String artifactId, String version, Path directory, List<String> files, String pomFile, boolean modified) {
+        this(groupId, artifactId, version, directory, files, pomFile, modified, null, null);
+    }
+
+    RepositoryVersion(String groupId, String artifactId, String version, Path directory, List<String> files, String pomFile, boolean modified,
+        RepositoryMetadata artifactMetadata, RepositoryMetadata versionMetadata) {
+        this(groupId, artifactId, version, directory, files, pomFile, 0, 0, modified, artifactMetadata, versionMetadata);
+    }
+
+    RepositoryVersion(String groupId, String artifactId, String version, Path directory, List<String> files, String pomFile, long pomSize,
+        long pomLastModified, boolean modified, RepositoryMetadata artifactMetadata, RepositoryMetadata versionMetadata) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.directory = directory;
+        this.files = files;
+        this.pomFile = pomFile;
+        this.pomSize = pomSize;
+        this.pomLastModified = pomLastModified;
+        this.modified = modified;
+        this.artifactMetadata = artifactMetadata;
+        this.versionMetadata = versionMetadata;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The sorted names of the artifact files, checksums, signatures and
+     * other repository metadata are not included.
+     */
+    public List<String> getFiles() {
+        return files;
+    }
+
+    /**
+     * @return The name of the POM file, <code>null</code> if the version does
+     * not contain a POM.
+     */
+    public String getPomFile() {
+        return pomFile;
+    }
+
+    /**
+     * @return The size of the POM file in bytes.
+     */
+    public long getPomSize() {
+        return pomSize;
+    }
+
+    /**
+     * @return The modification time of the POM file in milliseconds.
+     */
+    public long getPomLastModified() {
+        return pomLastModified;
+    }
+
+    /**
+     * @return <code>true</code> if the version directory, its POM file or the metadata of
+     * the artifact id has been modified since the last scan.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * @return The metadata of the artifact id, <code>null</code> if it does
+     * not provide metadata.
+     */
+    public RepositoryMetadata getArtifactMetadata() {
+        return artifactMetadata;
+    }
+
+    /**
+     * @return The metadata of a deployed snapshot version, <code>null</code>
+     * for releases and locally installed snapshots.
+     */
+    public RepositoryMetadata getVersionMetadata() {
+        return versionMetadata;
+    }
+
+    @Override
+    public String toString() {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+}
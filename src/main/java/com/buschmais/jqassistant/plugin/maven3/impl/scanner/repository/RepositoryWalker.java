@@ -0,0 +1,245 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+
+/**
+ * Walks the directory tree of a Maven repository in parallel and collects the
+ * contained {@link RepositoryVersion}s.
+ *
+ * Each directory is listed by its own fork/join task, files are only
+ * classified by their names, i.e. they are never opened. Repository metadata
+ * like <code>.lastUpdated</code> markers, checksums and signatures is skipped.
+ *
+ * For incremental scans a version is marked as modified if its directory, its
+ * POM file or a <code>maven-metadata*.xml</code> file of its artifact id has
+ * been modified since a given point in time, i.e. files which are added,
+ * removed or replaced in place are detected. Unmodified versions are still
+ * returned, i.e. the result can be used to detect deleted versions.
+ *
+ * The <code>maven-metadata.xml</code> and <code>maven-metadata-local.xml</code>
+ * files of artifact ids and snapshot versions are read and attached to the
+ * versions. If the content of the versions is not required the versions are
+ * taken from the metadata of the artifact id without listing the version
+ * directories.
+ */
+public class RepositoryWalker {
+
+    private static final String[] SKIPPED_SUFFIXES = { ".lastUpdated", ".md5", ".sha1", ".sha256", ".sha512", ".asc", ".sig", ".part", ".lock" };
+
+    private static final String POM_SUFFIX = ".pom";
+
+    private static final String METADATA_PREFIX = "maven-metadata";
+
+    private static final String METADATA_SUFFIX = ".xml";
+
+    private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+    private final int parallelism;
+
+    private final boolean content;
+
+    /**
+     * Constructor.
+     *
+     * @param parallelism
+     *     The number of threads used for walking the directory tree.
+     */
+    public RepositoryWalker(int parallelism) {
+        this(parallelism, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parallelism
+     *     The number of threads used for walking the directory tree.
+     * @param content
+     *     If <code>false</code> the version directories of artifact ids
+     *     providing metadata are not listed, i.e. the versions do not contain
+     *     files.
+     */
+    public RepositoryWalker(int parallelism, boolean content) {
+        this.parallelism = parallelism;
+        this.content = content;
+    }
+
+    /**
+     * Walk the given repository.
+     *
+     * @param root
+     *     The root directory of the repository.
+     * @return The {@link RepositoryVersion}s in no particular order.
+     */
+    public List<RepositoryVersion> walk(Path root) {
+        return walk(root, 0);
+    }
+
+    /**
+     * Walk the given repository and mark the versions modified since the given
+     * point in time.
+     *
+     * @param root
+     *     The root directory of the repository.
+     * @param since
+     *     The point in time in milliseconds, <code>0</code> marks all versions
+     *     as modified.
+     * @return The {@link RepositoryVersion}s in no particular order.
+     */
+    public List<RepositoryVersion> walk(Path root, long since) {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            return forkJoinPool.invoke(new DirectoryTask(root.toFile(), emptyList(), since, false, null));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Determines if a file is repository metadata which must be skipped.
+     *
+     * @param fileName
+     *     The file name.
+     * @return <code>true</code> if the file must be skipped.
+     */
+    static boolean isSkipped(String fileName) {
+        for (String suffix : SKIPPED_SUFFIXES) {
+            if (fileName.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMetadata(String fileName) {
+        for (String metadataFile : RepositoryMetadata.METADATA_FILES) {
+            if (metadataFile.equals(fileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RepositoryMetadata getSnapshotMetadata(RepositoryMetadata metadata) {
+        return metadata != null && metadata.getSnapshotTimestamp() != null ? metadata : null;
+    }
+
+    /**
+     * Lists a directory, forks tasks for its sub-directories and creates a
+     * {@link RepositoryVersion} if the directory contains artifact files.
+     */
+    private class DirectoryTask extends RecursiveTask<List<RepositoryVersion>> {
+
+        private final File directory;
+
+        /**
+         * The names of the directories from the repository root (exclusive) to
+         * this directory (inclusive).
+         */
+        private final List<String> segments;
+
+        private final long since;
+
+        /**
+         * <code>true</code> if the metadata of the parent directory has been
+         * modified.
+         */
+        private final boolean metadataModified;
+
+        /**
+         * The metadata of the parent directory if it is an artifact id.
+         */
+        private final RepositoryMetadata artifactMetadata;
+
+        private DirectoryTask(File directory, List<String> segments, long since, boolean metadataModified, RepositoryMetadata artifactMetadata) {
+            this.directory = directory;
+            this.segments = segments;
+            this.since = since;
+            this.metadataModified = metadataModified;
+            this.artifactMetadata = artifactMetadata;
+        }
+
+        @Override
+        protected List<RepositoryVersion> compute() {
+            File[] entries = directory.listFiles();
+            if (entries == null) {
+                return emptyList();
+            }
+            Arrays.sort(entries);
+            // group/artifactId/version requires at least three levels below the root
+            int depth = segments.size();
+            String artifactId = depth >= 3 ? segments.get(depth - 2) : null;
+            String prefix = artifactId != null ? artifactId + "-" : null;
+            List<File> directories = new ArrayList<>();
+            List<String> files = new ArrayList<>();
+            File pomFile = null;
+            boolean modifiedMetadata = false;
+            boolean hasMetadata = false;
+            for (File entry : entries) {
+                String name = entry.getName();
+                if (entry.isDirectory()) {
+                    directories.add(entry);
+                    continue;
+                }
+                hasMetadata = hasMetadata || isMetadata(name);
+                if (since > 0 && name.startsWith(METADATA_PREFIX) && name.endsWith(METADATA_SUFFIX) && entry.lastModified() >= since) {
+                    modifiedMetadata = true;
+                } else if (prefix != null && name.startsWith(prefix) && !isSkipped(name)) {
+                    files.add(name);
+                    if (name.endsWith(POM_SUFFIX)) {
+                        // the last one in case of timestamped snapshots
+                        pomFile = entry;
+                    }
+                }
+            }
+            RepositoryMetadata metadata = hasMetadata ? RepositoryMetadata.read(directory) : null;
+            RepositoryMetadata childArtifactMetadata = depth >= 2 && metadata != null && metadata.isArtifactMetadata(directory.getName()) ? metadata : null;
+            List<RepositoryVersion> versions = new ArrayList<>();
+            Set<String> metadataVersions = emptySet();
+            if (childArtifactMetadata != null && !content) {
+                // the versions are taken from the metadata, the version directories are not listed
+                metadataVersions = new HashSet<>(childArtifactMetadata.getVersions());
+                String groupId = String.join(".", segments.subList(0, depth - 1));
+                for (String version : childArtifactMetadata.getVersions()) {
+                    File versionDirectory = new File(directory, version);
+                    RepositoryMetadata versionMetadata = version.endsWith(SNAPSHOT_SUFFIX) ? getSnapshotMetadata(RepositoryMetadata.read(versionDirectory)) : null;
+                    versions.add(new RepositoryVersion(groupId, directory.getName(), version, versionDirectory.toPath(), emptyList(), null,
+                        since == 0 || modifiedMetadata, childArtifactMetadata, versionMetadata));
+                }
+            }
+            List<DirectoryTask> tasks = new ArrayList<>(directories.size());
+            for (File child : directories) {
+                if (!metadataVersions.contains(child.getName())) {
+                    List<String> childSegments = new ArrayList<>(depth + 1);
+                    childSegments.addAll(segments);
+                    childSegments.add(child.getName());
+                    tasks.add(new DirectoryTask(child, childSegments, since, modifiedMetadata, childArtifactMetadata));
+                }
+            }
+            invokeAll(tasks);
+            if (!files.isEmpty()) {
+                String groupId = String.join(".", segments.subList(0, depth - 2));
+                long pomSize = pomFile != null ? pomFile.length() : 0;
+                long pomLastModified = pomFile != null ? pomFile.lastModified() : 0;
+                boolean modified = metadataModified || modifiedMetadata || directory.lastModified() >= since || pomLastModified >= since;
+                RepositoryMetadata versionMetadata = getSnapshotMetadata(metadata);
+                versions.add(new RepositoryVersion(groupId, artifactId, segments.get(depth - 1), directory.toPath(), files,
+                    pomFile != null ? pomFile.getName() : null, pomSize, pomLastModified, modified, artifactMetadata, versionMetadata));
+            }
+            for (DirectoryTask task : tasks) {
+                versions.addAll(task.join());
+            }
+            return versions;
+        }
+    }
+}
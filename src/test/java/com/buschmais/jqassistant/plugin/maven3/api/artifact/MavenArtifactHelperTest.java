@@ -1,5 +1,9 @@
 package com.buschmais.jqassistant.plugin.maven3.api.artifact;
 
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -36,4 +40,34 @@ class MavenArtifactHelperTest {
         doReturn(version).when(coordinates).getVersion();
         assertThat(MavenArtifactHelper.isSnapshot(coordinates)).isEqualTo(expected);
     }
+
+    @Test
+    void ids() {
+        Coordinates coordinates = mock(Coordinates.class);
+        doReturn("com.acme").when(coordinates).getGroup();
+        doReturn("library").when(coordinates).getName();
+        doReturn("test-jar").when(coordinates).getType();
+        doReturn("tests").when(coordinates).getClassifier();
+        doReturn("1.0").when(coordinates).getVersion();
+        assertThat(MavenArtifactHelper.getGa(coordinates)).isEqualTo("com.acme:library");
+        assertThat(MavenArtifactHelper.getGatc(coordinates)).isEqualTo("com.acme:library:test-jar:tests");
+        assertThat(MavenArtifactHelper.getId(coordinates)).isEqualTo("com.acme:library:test-jar:tests:1.0");
+    }
+
+    @Test
+    void versionKey() {
+        List<String> versions = Arrays.asList("0", "0.9", "1", "1.0.1", "1.1", "1.9", "1.10", "1-1", "1.0-alpha", "1.0-alpha-1", "1.0-alpha10", "1.0-b2",
+            "1.0-M1", "1.0-RC1", "1.0-CR2", "1.0-SNAPSHOT", "1.0-20240101.120000-3", "1.0-20240102.080000-1", "1.0.Final", "1.0-sp1", "1.0-jre",
+            "1.0-foo", "1.0-foobar", "2.0.0-rc.1", "3.0-alpha-1-SNAPSHOT", "10.0", "123456789012.1");
+        for (String version : versions) {
+            for (String other : versions) {
+                int expected = Integer.signum(new ComparableVersion(version).compareTo(new ComparableVersion(other)));
+                int actual = Integer.signum(MavenArtifactHelper.getVersionKey(version)
+                    .compareTo(MavenArtifactHelper.getVersionKey(other)));
+                assertThat(actual).as("%s compared to %s", version, other)
+                    .isEqualTo(expected);
+            }
+        }
+        assertThat(MavenArtifactHelper.getVersionKey("1.0.0")).isEqualTo(MavenArtifactHelper.getVersionKey("1"));
+    }
 }
@@ -0,0 +1,80 @@
+package com.buschmais.jqassistant.plugin.maven3.api.scanner;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
+import com.buschmais.jqassistant.plugin.java.api.model.JavaClassesDirectoryDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenMainArtifactDescriptor;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DescriptorTypesTest {
+
+    @Mock
+    private Store store;
+
+    @Test
+    void skipExistingType() {
+        MavenMainArtifactDescriptor artifactDescriptor = mock(MavenMainArtifactDescriptor.class);
+
+        MavenArtifactDescriptor result = DescriptorTypes.add(artifactDescriptor, MavenArtifactDescriptor.class, store);
+
+        assertThat(result).isSameAs(artifactDescriptor);
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void migrateOnce() {
+        MavenArtifactDescriptor artifactDescriptor = mock(MavenArtifactDescriptor.class);
+        JavaClassesDirectoryDescriptor classesDirectoryDescriptor = mock(JavaClassesDirectoryDescriptor.class);
+        doReturn(42L).when(artifactDescriptor)
+            .getId();
+        doReturn(Caffeine.newBuilder()
+            .build()).when(store)
+            .getCache(DescriptorTypes.class.getName());
+        doReturn(classesDirectoryDescriptor).when(store)
+            .addDescriptorType(artifactDescriptor, JavaClassesDirectoryDescriptor.class);
+
+        JavaClassesDirectoryDescriptor first = DescriptorTypes.add(artifactDescriptor, JavaClassesDirectoryDescriptor.class, store);
+        JavaClassesDirectoryDescriptor second = DescriptorTypes.add(artifactDescriptor, JavaClassesDirectoryDescriptor.class, store);
+        // JavaClassesDirectoryDescriptor is a FileDescriptor
+        FileDescriptor third = DescriptorTypes.add(artifactDescriptor, FileDescriptor.class, store);
+
+        assertThat(first).isSameAs(classesDirectoryDescriptor);
+        assertThat(second).isSameAs(classesDirectoryDescriptor);
+        assertThat(third).isSameAs(classesDirectoryDescriptor);
+        verify(store).addDescriptorType(artifactDescriptor, JavaClassesDirectoryDescriptor.class);
+        verify(store, never()).addDescriptorType(any(), eq(FileDescriptor.class));
+    }
+
+    @Test
+    void evict() {
+        MavenArtifactDescriptor artifactDescriptor = mock(MavenArtifactDescriptor.class);
+        JavaClassesDirectoryDescriptor classesDirectoryDescriptor = mock(JavaClassesDirectoryDescriptor.class);
+        JavaClassesDirectoryDescriptor recreatedDescriptor = mock(JavaClassesDirectoryDescriptor.class);
+        doReturn(42L).when(artifactDescriptor)
+            .getId();
+        doReturn(Caffeine.newBuilder()
+            .build()).when(store)
+            .getCache(DescriptorTypes.class.getName());
+        doReturn(classesDirectoryDescriptor, recreatedDescriptor).when(store)
+            .addDescriptorType(artifactDescriptor, JavaClassesDirectoryDescriptor.class);
+
+        JavaClassesDirectoryDescriptor first = DescriptorTypes.add(artifactDescriptor, JavaClassesDirectoryDescriptor.class, store);
+        DescriptorTypes.evict(singletonList(42L), store);
+        JavaClassesDirectoryDescriptor second = DescriptorTypes.add(artifactDescriptor, JavaClassesDirectoryDescriptor.class, store);
+
+        assertThat(first).isSameAs(classesDirectoryDescriptor);
+        assertThat(second).isSameAs(recreatedDescriptor);
+        verify(store, times(2)).addDescriptorType(artifactDescriptor, JavaClassesDirectoryDescriptor.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.buschmais.jqassistant.plugin.maven3.api.scanner;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MavenRepositoryResolverTest {
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private MavenRepositoryDescriptor repositoryDescriptor;
+
+    @Test
+    void normalize() {
+        assertThat(MavenRepositoryResolver.normalize(" https://Repo.Example.ORG/Maven2/ ")).isEqualTo("https://repo.example.org/Maven2");
+        assertThat(MavenRepositoryResolver.normalize("HTTPS://repo.example.org")).isEqualTo("https://repo.example.org");
+        assertThat(MavenRepositoryResolver.normalize("file:/home/user/.m2/repository/")).isEqualTo("file:/home/user/.m2/repository");
+    }
+
+    @Test
+    void resolveOnce() {
+        doReturn(Caffeine.newBuilder()
+            .build()).when(store)
+            .getCache(anyString());
+        doReturn(repositoryDescriptor).when(store)
+            .create(MavenRepositoryDescriptor.class);
+
+        MavenRepositoryDescriptor first = MavenRepositoryResolver.resolve(store, "https://repo.example.org/maven2/");
+        MavenRepositoryDescriptor second = MavenRepositoryResolver.resolve(store, "HTTPS://Repo.Example.org/maven2");
+
+        assertThat(first).isSameAs(repositoryDescriptor);
+        assertThat(second).isSameAs(repositoryDescriptor);
+        // the declared url is used for the lookup and persisted
+        verify(store).find(MavenRepositoryDescriptor.class, "https://repo.example.org/maven2/");
+        verify(store, never()).find(MavenRepositoryDescriptor.class, "https://repo.example.org/maven2");
+        verify(store).create(MavenRepositoryDescriptor.class);
+        verify(repositoryDescriptor).setUrl("https://repo.example.org/maven2/");
+    }
+
+    @Test
+    void findByDeclaredUrl() {
+        doReturn(Caffeine.newBuilder()
+            .build()).when(store)
+            .getCache(anyString());
+        doReturn(repositoryDescriptor).when(store)
+            .find(MavenRepositoryDescriptor.class, "https://Repo.Example.org/maven2/");
+
+        MavenRepositoryDescriptor result = MavenRepositoryResolver.resolve(store, " https://Repo.Example.org/maven2/ ");
+
+        assertThat(result).isSameAs(repositoryDescriptor);
+        verify(store, never()).create(MavenRepositoryDescriptor.class);
+        verify(repositoryDescriptor, never()).setUrl(anyString());
+    }
+
+    @Test
+    void resolveWithoutUrl() {
+        doReturn(Caffeine.newBuilder()
+            .build()).when(store)
+            .getCache(anyString());
+        doReturn(repositoryDescriptor).when(store)
+            .create(MavenRepositoryDescriptor.class);
+
+        MavenRepositoryDescriptor first = MavenRepositoryResolver.resolve(store, null);
+        MavenRepositoryDescriptor second = MavenRepositoryResolver.resolve(store, null);
+
+        assertThat(first).isSameAs(repositoryDescriptor);
+        assertThat(second).isSameAs(repositoryDescriptor);
+        verify(store).find(MavenRepositoryDescriptor.class, null);
+        verify(store).create(MavenRepositoryDescriptor.class);
+    }
+}
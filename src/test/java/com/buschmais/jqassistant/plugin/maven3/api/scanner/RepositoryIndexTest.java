@@ -0,0 +1,191 @@
+package com.buschmais.jqassistant.plugin.maven3.api.scanner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPomXmlDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryIndexTest {
+
+    private static final String LOAD = "RETURN type(contains)";
+
+    private static final String ADD_MODELS = "CREATE (repository)-[:CONTAINS_POM]";
+
+    private static final String ADD_ARTIFACTS = "CREATE (repository)-[:CONTAINS_ARTIFACT]";
+
+    private static final String REMOVE_MODEL = "DELETE containsPom";
+
+    private static final String FIND = "RETURN element";
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private MavenRepositoryDescriptor repositoryDescriptor;
+
+    @Mock
+    private MavenPomXmlDescriptor pomXmlDescriptor;
+
+    @Mock
+    private MavenArtifactDescriptor artifactDescriptor;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(Caffeine.newBuilder()
+            .build()).when(store)
+            .getCache(anyString());
+        doReturn("file:/repository/").when(repositoryDescriptor)
+            .getUrl();
+    }
+
+    @Test
+    void load() {
+        stubQuery(LOAD, row("CONTAINS_POM", "com.acme:library:pom:1.0", 1L), row("CONTAINS_ARTIFACT", "com.acme:library:jar:1.0", 2L));
+        Query.Result<CompositeRowObject> findResult = stubQuery(FIND);
+        CompositeRowObject element = mock(CompositeRowObject.class);
+        doReturn(true).when(findResult)
+            .hasResult();
+        doReturn(element).when(findResult)
+            .getSingleResult();
+        doReturn(artifactDescriptor).when(element)
+            .get("element", MavenArtifactDescriptor.class);
+
+        RepositoryIndex repositoryIndex = RepositoryIndex.of(repositoryDescriptor, store);
+
+        assertThat(repositoryIndex.containsModel("com.acme:library:pom:1.0")).isTrue();
+        assertThat(repositoryIndex.containsModel("com.acme:library:jar:1.0")).isFalse();
+        assertThat(repositoryIndex.findArtifact("com.acme:library:jar:1.0")).isSameAs(artifactDescriptor);
+        assertThat(repositoryIndex.findArtifact("com.acme:library:jar:1.1")).isNull();
+        assertThat(RepositoryIndex.of(repositoryDescriptor, store)).isSameAs(repositoryIndex);
+        verify(store).executeQuery(contains(LOAD), anyMap());
+        verify(store).executeQuery(contains(FIND), anyMap());
+    }
+
+    @Test
+    void addAndFlush() {
+        stubQuery(LOAD, row("CONTAINS_ARTIFACT", "com.acme:library:jar:1.0", 2L));
+        stubQuery(ADD_MODELS);
+        doReturn(3L).when(pomXmlDescriptor)
+            .getId();
+        doReturn("com.acme:library:jar:1.0").when(artifactDescriptor)
+            .getFullQualifiedName();
+        doReturn(2L).when(artifactDescriptor)
+            .getId();
+
+        RepositoryIndex repositoryIndex = RepositoryIndex.of(repositoryDescriptor, store);
+        repositoryIndex.addModel("com.acme:library:pom:1.0", pomXmlDescriptor);
+        repositoryIndex.addModel("com.acme:library:pom:1.0", pomXmlDescriptor);
+        repositoryIndex.addArtifact(artifactDescriptor);
+
+        assertThat(repositoryIndex.containsModel("com.acme:library:pom:1.0")).isTrue();
+        verify(store, never()).executeQuery(contains(ADD_MODELS), anyMap());
+
+        repositoryIndex.flush();
+        repositoryIndex.flush();
+
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        verify(store).executeQuery(contains(ADD_MODELS), params.capture());
+        List<Map<String, Object>> elements = (List<Map<String, Object>>) params.getValue()
+            .get("elements");
+        assertThat(elements).hasSize(1);
+        assertThat(elements.get(0)).containsOnly(entry("id", 3L));
+        verify(store, never()).executeQuery(contains(ADD_ARTIFACTS), anyMap());
+    }
+
+    @Test
+    void remove() {
+        stubQuery(LOAD, row("CONTAINS_POM", "com.acme:library:pom:1.0", 1L), row("CONTAINS_ARTIFACT", "com.acme:library:jar:1.0", 2L));
+
+        RepositoryIndex repositoryIndex = RepositoryIndex.of(repositoryDescriptor, store);
+        repositoryIndex.remove(Arrays.asList("com.acme:library:pom:1.0", "com.acme:library:jar:1.0"));
+
+        assertThat(repositoryIndex.containsModel("com.acme:library:pom:1.0")).isFalse();
+        assertThat(repositoryIndex.containsArtifact("com.acme:library:jar:1.0")).isFalse();
+    }
+
+    @Test
+    void modifiedModel() {
+        stubQuery(LOAD, row("CONTAINS_POM", "com.acme:library:pom:1.0", 1L, 100L, 2000L));
+        stubQuery(ADD_MODELS);
+        stubQuery(REMOVE_MODEL);
+        doReturn(3L).when(pomXmlDescriptor)
+            .getId();
+        doReturn(120L).when(pomXmlDescriptor)
+            .getSize();
+        doReturn(3000L).when(pomXmlDescriptor)
+            .getLastModified();
+
+        RepositoryIndex repositoryIndex = RepositoryIndex.of(repositoryDescriptor, store);
+
+        assertThat(repositoryIndex.containsModel("com.acme:library:pom:1.0", 100L, 2000L)).isTrue();
+        assertThat(repositoryIndex.containsModel("com.acme:library:pom:1.0", 120L, 3000L)).isFalse();
+
+        repositoryIndex.removeModel("com.acme:library:pom:1.0");
+        repositoryIndex.addModel("com.acme:library:pom:1.0", pomXmlDescriptor);
+        repositoryIndex.flush();
+
+        assertThat(repositoryIndex.containsModel("com.acme:library:pom:1.0", 120L, 3000L)).isTrue();
+        ArgumentCaptor<Map<String, Object>> removeParams = ArgumentCaptor.forClass(Map.class);
+        verify(store).executeQuery(contains(REMOVE_MODEL), removeParams.capture());
+        assertThat(removeParams.getValue()).containsEntry("id", 1L);
+        ArgumentCaptor<Map<String, Object>> addParams = ArgumentCaptor.forClass(Map.class);
+        verify(store).executeQuery(contains(ADD_MODELS), addParams.capture());
+        assertThat((List<Map<String, Object>>) addParams.getValue()
+            .get("elements")).containsExactly(singletonMap("id", 3L));
+    }
+
+    private Query.Result<CompositeRowObject> stubQuery(String statement, CompositeRowObject... rows) {
+        Query.Result<CompositeRowObject> result = mock(Query.Result.class);
+        List<CompositeRowObject> rowList = Arrays.asList(rows);
+        lenient().doAnswer(invocation -> rowList.iterator())
+            .when(result)
+            .iterator();
+        doReturn(result).when(store)
+            .executeQuery(contains(statement), anyMap());
+        return result;
+    }
+
+    private static CompositeRowObject row(String type, String fqn, long id) {
+        return row(type, fqn, id, null, null);
+    }
+
+    private static CompositeRowObject row(String type, String fqn, long id, Long size, Long lastModified) {
+        CompositeRowObject row = mock(CompositeRowObject.class);
+        lenient().doReturn(size)
+            .when(row)
+            .get("size", Long.class);
+        lenient().doReturn(lastModified)
+            .when(row)
+            .get("lastModified", Long.class);
+        doReturn(type).when(row)
+            .get("type", String.class);
+        doReturn(fqn).when(row)
+            .get("fqn", String.class);
+        doReturn(id).when(row)
+            .get("id", Long.class);
+        return row;
+    }
+}
@@ -14,7 +14,10 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class MavenPomFileScannerPluginTest {
     private static final Answer NOT_MOCKED_ANSWER = new MethodNotMockedAnswer();
@@ -106,6 +109,43 @@ class MavenPomFileScannerPluginTest {
         assertThat(result).isEqualTo(false);
     }
 
+    @Test
+    void acceptAcceptsWithRootTagProjectAndMavenNamespaceIfExtensionIsXMLAndNonStandardName() throws Exception {
+        MavenPomFileScannerPlugin plugin = new MavenPomFileScannerPlugin();
+
+        String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- license header -->\n"
+                + "<project xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns=\"http://maven.apache.org/POM/4.0.0\"><a></a></project>";
+        InputStream inputStream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+
+        FileResource fileResource = Mockito.mock(FileResource.class, NOT_MOCKED_ANSWER);
+
+        doReturn(inputStream).when(fileResource).createStream();
+
+        String path = "/a/b/c/d.xml";
+
+        boolean result = plugin.accepts(fileResource, path, DUMMY_SCOPE);
+
+        assertThat(result).isEqualTo(true);
+    }
+
+    @Test
+    void acceptFallsBackToXMLFilterForPrefixedRootTag() throws Exception {
+        MavenPomFileScannerPlugin plugin = new MavenPomFileScannerPlugin();
+
+        String content = "<pom:project xmlns:pom=\"http://maven.apache.org/POM/4.0.0\"><pom:a></pom:a></pom:project>";
+
+        FileResource fileResource = Mockito.mock(FileResource.class, NOT_MOCKED_ANSWER);
+
+        doAnswer(invocation -> new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))).when(fileResource).createStream();
+
+        String path = "/a/b/c/d.xml";
+
+        boolean result = plugin.accepts(fileResource, path, DUMMY_SCOPE);
+
+        assertThat(result).isEqualTo(true);
+        verify(fileResource, times(2)).createStream();
+    }
+
     private static class MethodNotMockedAnswer implements Answer {
         @Override
         public Object answer(InvocationOnMock invocation) throws Throwable {
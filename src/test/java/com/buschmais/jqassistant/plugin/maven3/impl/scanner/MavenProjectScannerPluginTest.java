@@ -1,10 +1,15 @@
 package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.buschmais.jqassistant.core.scanner.api.Scanner;
 import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
@@ -13,6 +18,7 @@ import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
 import com.buschmais.jqassistant.plugin.common.api.model.ArtifactDescriptor;
 import com.buschmais.jqassistant.plugin.common.api.model.DependsOnDescriptor;
+import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
 import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
 import com.buschmais.jqassistant.plugin.java.api.model.JavaArtifactFileDescriptor;
 import com.buschmais.jqassistant.plugin.java.api.model.JavaClassesDirectoryDescriptor;
@@ -23,14 +29,18 @@ import com.buschmais.jqassistant.plugin.maven3.api.model.*;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.EffectiveModel;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
 import com.buschmais.jqassistant.plugin.maven3.impl.scanner.dependency.DependencyScanner;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingRequest;
@@ -41,13 +51,22 @@ import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.repository.LocalRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static com.buschmais.jqassistant.plugin.java.api.scanner.JavaScope.CLASSPATH;
+import static com.buschmais.jqassistant.plugin.junit.api.scanner.JunitScope.TESTREPORTS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
@@ -59,6 +78,9 @@ class MavenProjectScannerPluginTest {
 
     private final LocalRepository localRepo = new LocalRepository("target/test/.m2");
 
+    @TempDir
+    private Path buildDirectory;
+
     @Mock
     private Store store;
 
@@ -92,9 +114,244 @@ class MavenProjectScannerPluginTest {
     @Captor
     private ArgumentCaptor<ArtifactFilter> artifactFilterCaptor;
 
+    @Captor
+    private ArgumentCaptor<Map<String, Object>> paramsCaptor;
+
+    private MavenProject project;
+
+    private MavenProjectScannerPlugin scannerPlugin;
+
+    private Scanner scanner;
+
+    private File pomXml;
+
+    private Model effectiveModel;
+
+    private MavenProjectDirectoryDescriptor projectDescriptor;
+
+    private MavenProjectDescriptor parentProjectDescriptor;
+
+    private MavenPomXmlDescriptor pomXmlDescriptor;
+
+    private MavenPomDescriptor effectiveModelDescriptor;
+
+    private MavenMainArtifactDescriptor mainArtifactDescriptor;
+
+    private MavenTestArtifactDescriptor testArtifactDescriptor;
+
+    private JavaClassesDirectoryDescriptor mainClassesDirectory;
+
+    private JavaClassesDirectoryDescriptor testClassesDirectory;
+
+    private DependencyNode dependencyNode;
+
+    private final Map<String, Cache<String, Descriptor>> caches = new HashMap<>();
+
+    private List<ArtifactDescriptor> createsArtifacts;
+
     @Test
     void scan() throws DependencyGraphBuilderException {
-        scanAndVerify(new HashMap<>(), false);
+        scan(new HashMap<>());
+
+        verifyProject();
+        verify(projectDescriptor).setEffectiveModel(effectiveModelDescriptor);
+        verify(dependencyScanner).evaluate(eq(dependencyNode), eq(mainArtifactDescriptor), eq(testArtifactDescriptor), eq(false), eq(false),
+            any(ArtifactFilter.class), eq(localRepository), any(ModuleScan.class), eq(scanner));
+        verify(projectDescriptor).setTestReportsFingerprint(anyString());
+        verify(scanner).getConfiguration();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void effectiveModel(boolean enabled) throws DependencyGraphBuilderException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("maven3.model.effective", Boolean.toString(enabled));
+
+        scan(properties);
+
+        verifyProject();
+        verify(store, times(enabled ? 1 : 0)).create(MavenPomDescriptor.class);
+        verify(scannerContext, times(enabled ? 1 : 0)).push(MavenPomDescriptor.class, effectiveModelDescriptor);
+        verify(scanner, times(enabled ? 1 : 0)).scan(effectiveModelCaptor.capture(), eq(pomXml.getAbsolutePath()), eq(MavenScope.PROJECT));
+        assertThat(effectiveModelCaptor.getAllValues()).allMatch(model -> model.getDelegate() == effectiveModel);
+        verify(scannerContext, times(enabled ? 1 : 0)).pop(MavenPomDescriptor.class);
+        verify(projectDescriptor, times(enabled ? 1 : 0)).setEffectiveModel(effectiveModelDescriptor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void dependencyGraph(boolean enabled) throws DependencyGraphBuilderException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("maven3.dependencies.graph", Boolean.toString(enabled));
+
+        scan(properties);
+
+        verifyProject();
+        verify(dependencyGraphBuilder, times(enabled ? 1 : 0)).buildDependencyGraph(any(ProjectBuildingRequest.class), eq(null));
+        verify(dependencyScanner, times(enabled ? 1 : 0)).evaluate(eq(dependencyNode), eq(mainArtifactDescriptor), eq(testArtifactDescriptor), eq(false),
+            eq(false), any(ArtifactFilter.class), eq(localRepository), any(ModuleScan.class), eq(scanner));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void testReports(boolean enabled) throws DependencyGraphBuilderException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("maven3.testreports.scan", Boolean.toString(enabled));
+
+        scan(properties);
+
+        verifyProject();
+        verify(projectDescriptor, times(enabled ? 1 : 0)).setTestReportsFingerprint(anyString());
+    }
+
+    @Test
+    void unchangedTestReports() throws IOException, DependencyGraphBuilderException {
+        File surefireReports = createTestReport("surefire-reports");
+        File failsafeReports = new File(buildDirectory.toFile(), "failsafe-reports");
+        mockProject();
+        doReturn(MavenProjectScannerPlugin.getFingerprint(surefireReports, failsafeReports)).when(projectDescriptor)
+            .getTestReportsFingerprint();
+
+        scanProject(new HashMap<>());
+
+        verify(scanner, never()).scan(any(File.class), anyString(), eq(TESTREPORTS));
+        verify(projectDescriptor, never()).setTestReportsFingerprint(anyString());
+    }
+
+    @Test
+    void changedTestReports() throws IOException, DependencyGraphBuilderException {
+        File surefireReports = createTestReport("surefire-reports");
+        File failsafeReports = new File(buildDirectory.toFile(), "failsafe-reports");
+        File reportFile = new File(surefireReports, "TEST-Example.xml");
+        mockProject();
+        doReturn("previous").when(projectDescriptor)
+            .getTestReportsFingerprint();
+        Query.Result<CompositeRowObject> result = mock(Query.Result.class);
+        lenient().doAnswer(i -> new ArrayList<CompositeRowObject>().iterator())
+            .when(result)
+            .iterator();
+        doReturn(result).when(store)
+            .executeQuery(anyString(), anyMap());
+        FileDescriptor reportDescriptor = mock(FileDescriptor.class);
+        doReturn(7L).when(reportDescriptor)
+            .getId();
+        doReturn(reportDescriptor).when(scanner)
+            .scan(reportFile, reportFile.getAbsolutePath(), TESTREPORTS);
+        List<FileDescriptor> testReports = new ArrayList<>();
+        doReturn(testReports).when(projectDescriptor)
+            .getTestReports();
+
+        scanProject(new HashMap<>());
+
+        verify(scanner).scan(reportFile, reportFile.getAbsolutePath(), TESTREPORTS);
+        assertThat(testReports).containsExactly(reportDescriptor);
+        verify(store).executeQuery(contains("SET report.testReportSize"), anyMap());
+        verify(projectDescriptor).setTestReportsFingerprint(MavenProjectScannerPlugin.getFingerprint(surefireReports, failsafeReports));
+    }
+
+    @Test
+    void changedTestReportFiles() throws IOException, DependencyGraphBuilderException {
+        File surefireReports = createTestReport("surefire-reports");
+        File changedReport = new File(surefireReports, "TEST-Example.xml");
+        File unchangedReport = new File(surefireReports, "TEST-Unchanged.xml");
+        Files.write(unchangedReport.toPath(), "<testsuite/>".getBytes(UTF_8));
+        String removedReport = new File(buildDirectory.toFile(), "failsafe-reports/TEST-Removed.xml").getAbsolutePath();
+        mockProject();
+        doReturn("previous").when(projectDescriptor)
+            .getTestReportsFingerprint();
+        doReturn(mock(Query.Result.class)).when(store)
+            .executeQuery(anyString(), anyMap());
+        Query.Result<CompositeRowObject> scannedReports = mock(Query.Result.class);
+        List<CompositeRowObject> rows = asList(getTestReportRow(changedReport.getAbsolutePath(), -1L, changedReport.lastModified()),
+            getTestReportRow(unchangedReport.getAbsolutePath(), unchangedReport.length(), unchangedReport.lastModified()),
+            getTestReportRow(removedReport, 0L, 0L));
+        doAnswer(i -> rows.iterator()).when(scannedReports)
+            .iterator();
+        doReturn(scannedReports).when(store)
+            .executeQuery(contains("RETURN report.fileName"), anyMap());
+        lenient().doReturn(new ArrayList<>())
+            .when(projectDescriptor)
+            .getTestReports();
+
+        scanProject(new HashMap<>());
+
+        // only the changed report is replaced, the removed report is deleted
+        verify(store).executeQuery(contains("DETACH DELETE report"), paramsCaptor.capture());
+        assertThat((List<String>) paramsCaptor.getValue()
+            .get("fileNames")).containsExactly(changedReport.getAbsolutePath(), removedReport);
+        verify(scanner).scan(changedReport, changedReport.getAbsolutePath(), TESTREPORTS);
+        verify(scanner, never()).scan(unchangedReport, unchangedReport.getAbsolutePath(), TESTREPORTS);
+        verify(scannedReports).close();
+    }
+
+    private static CompositeRowObject getTestReportRow(String fileName, Long size, Long lastModified) {
+        CompositeRowObject row = mock(CompositeRowObject.class);
+        doReturn(fileName).when(row)
+            .get("fileName", String.class);
+        doReturn(size).when(row)
+            .get("size", Long.class);
+        doReturn(lastModified).when(row)
+            .get("lastModified", Long.class);
+        return row;
+    }
+
+    @Test
+    void missingTestReports() throws IOException, DependencyGraphBuilderException {
+        File surefireReports = new File(buildDirectory.toFile(), "surefire-reports");
+        File failsafeReports = new File(buildDirectory.toFile(), "failsafe-reports");
+        String missingFingerprint = MavenProjectScannerPlugin.getFingerprint(surefireReports, failsafeReports);
+
+        scan(new HashMap<>());
+
+        verify(scanner, never()).scan(any(File.class), anyString(), eq(TESTREPORTS));
+        verify(projectDescriptor).setTestReportsFingerprint(missingFingerprint);
+        // reports created later must be scanned
+        createTestReport("surefire-reports");
+        assertThat(MavenProjectScannerPlugin.getFingerprint(surefireReports, failsafeReports)).isNotEqualTo(missingFingerprint);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void includes(boolean enabled) throws DependencyGraphBuilderException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("maven3.includes.scan", Boolean.toString(enabled));
+
+        scan(properties);
+
+        verifyProject();
+        verify(scanner, times(enabled ? 1 : 0)).getConfiguration();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void scanStatistics(boolean failed) throws DependencyGraphBuilderException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("maven3.statistics", "true");
+        mockProject();
+        Query.Result<CompositeRowObject> countResult = mock(Query.Result.class);
+        doReturn(countResult).when(store)
+            .executeQuery(anyString());
+        MavenScanStatisticsDescriptor statisticsDescriptor = mock(MavenScanStatisticsDescriptor.class);
+        List<MavenScanStatisticsDescriptor> scanStatistics = new ArrayList<>();
+        lenient().doReturn(statisticsDescriptor)
+            .when(store)
+            .create(MavenScanStatisticsDescriptor.class);
+        lenient().doReturn(scanStatistics)
+            .when(projectDescriptor)
+            .getScanStatistics();
+
+        if (failed) {
+            // the includes are scanned last
+            doThrow(new IllegalStateException("Scan failed")).when(scanner)
+                .getConfiguration();
+            assertThatThrownBy(() -> scanProject(properties)).isInstanceOf(IllegalStateException.class);
+        } else {
+            scanProject(properties);
+        }
+
+        verify(store, times(failed ? 0 : 1)).create(MavenScanStatisticsDescriptor.class);
+        assertThat(scanStatistics).hasSize(failed ? 0 : 1);
+        assertThat(ModuleScan.current()).isEmpty();
     }
 
     @Test
@@ -104,15 +361,99 @@ class MavenProjectScannerPluginTest {
         properties.put("maven3.dependencies.includes", "included");
         properties.put("maven3.dependencies.excludes", "excluded");
 
-        scanAndVerify(properties, true);
+        scan(properties);
 
+        verifyProject();
+        verify(dependencyScanner).evaluate(eq(dependencyNode), eq(mainArtifactDescriptor), eq(testArtifactDescriptor), eq(true), eq(false),
+            artifactFilterCaptor.capture(), eq(localRepository), any(ModuleScan.class), eq(scanner));
         ArtifactFilter artifactFilter = artifactFilterCaptor.getValue();
         assertThat(artifactFilter.getIncludes(), hasItems("included"));
         assertThat(artifactFilter.getExcludes(), hasItems("excluded"));
     }
 
-    private void scanAndVerify(Map<String, Object> properties, boolean expectedDependenciesScan) throws DependencyGraphBuilderException {
-        MavenProjectScannerPlugin scannerPlugin = new MavenProjectScannerPlugin(dependencyScanner);
+    @Test
+    void reactorDependencies() {
+        MavenProject project = mock(MavenProject.class);
+        MavenProject library = mock(MavenProject.class);
+        MavenProject api = mock(MavenProject.class);
+        Map<String, MavenProject> reactorProjects = new HashMap<>();
+        reactorProjects.put("group:project:1.0.0", project);
+        reactorProjects.put("group:library:1.0.0", library);
+        reactorProjects.put("group:api:1.0.0", api);
+        doReturn(asList(getDependency("group", "api", "1.0.0", null, null), getDependency("group", "library", "1.0.0", null, "test"),
+            getDependency("group", "library", "1.0.0", "test-jar", "test"), getDependency("group", "library", "2.0.0", null, null),
+            getDependency("org.external", "external", "1.0.0", null, null))).when(project)
+            .getDependencies();
+
+        Map<MavenProject, Set<String>> dependencies = MavenProjectScannerPlugin.getReactorDependencies(project, reactorProjects);
+
+        assertThat(dependencies.keySet()).containsExactly(api, library);
+        assertThat(dependencies.get(api)).containsExactly(Artifact.SCOPE_COMPILE);
+        assertThat(dependencies.get(library)).containsExactly(Artifact.SCOPE_TEST);
+    }
+
+    @Test
+    void projectDependencies() throws DependencyGraphBuilderException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("maven3.dependencies.projects", "true");
+        mockProject();
+        MavenProject library = mock(MavenProject.class);
+        doReturn("group").when(library)
+            .getGroupId();
+        doReturn("library").when(library)
+            .getArtifactId();
+        doReturn("1.0.0").when(library)
+            .getVersion();
+        doReturn(asList(project, library)).when(mavenSession)
+            .getProjects();
+        doReturn(asList(getDependency("group", "library", "1.0.0", null, null), getDependency("group", "library", "1.0.0", "test-jar", "test"))).when(
+            project)
+            .getDependencies();
+        doReturn(42L).when(projectDescriptor)
+            .getId();
+        MavenProjectDirectoryDescriptor libraryDescriptor = mock(MavenProjectDirectoryDescriptor.class);
+        lenient().doReturn(libraryDescriptor)
+            .when(store)
+            .find(MavenProjectDescriptor.class, "group:library:1.0.0");
+        doReturn(mock(Query.Result.class)).when(store)
+            .executeQuery(anyString(), anyMap());
+        MavenProjectDependencyDescriptor compileDependency = mock(MavenProjectDependencyDescriptor.class);
+        MavenProjectDependencyDescriptor testDependency = mock(MavenProjectDependencyDescriptor.class);
+        doReturn(compileDependency, testDependency).when(store)
+            .create(projectDescriptor, MavenProjectDependencyDescriptor.class, libraryDescriptor);
+
+        scanProject(properties);
+
+        verifyProject();
+        // the relations of a previous scan are removed before they are created
+        verify(store).executeQuery(contains("DEPENDS_ON_PROJECT"), eq(singletonMap("project", 42L)));
+        verify(store, times(2)).create(projectDescriptor, MavenProjectDependencyDescriptor.class, libraryDescriptor);
+        verify(compileDependency).setScope(Artifact.SCOPE_COMPILE);
+        verify(testDependency).setScope(Artifact.SCOPE_TEST);
+    }
+
+    private static Dependency getDependency(String groupId, String artifactId, String version, String type, String scope) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        if (type != null) {
+            dependency.setType(type);
+        }
+        dependency.setScope(scope);
+        return dependency;
+    }
+
+    private File createTestReport(String directory) throws IOException {
+        File reportsDirectory = new File(buildDirectory.toFile(), directory);
+        reportsDirectory.mkdirs();
+        Files.write(reportsDirectory.toPath()
+            .resolve("TEST-Example.xml"), "<testsuite/>".getBytes(UTF_8));
+        return reportsDirectory;
+    }
+
+    private void mockProject() throws DependencyGraphBuilderException {
+        scannerPlugin = new MavenProjectScannerPlugin(dependencyScanner);
         doReturn(fileResolver).when(scannerContext)
             .peek(FileResolver.class);
 
@@ -121,14 +462,13 @@ class MavenProjectScannerPluginTest {
         when(parentProject.getGroupId()).thenReturn("group");
         when(parentProject.getArtifactId()).thenReturn("parent-artifact");
         when(parentProject.getVersion()).thenReturn("1.0.0");
-        when(parentProject.getPackaging()).thenReturn("jar");
         when(parentProject.getPackaging()).thenReturn("pom");
 
         // Mock project
-        MavenProject project = mock(MavenProject.class);
+        project = mock(MavenProject.class);
         doReturn(new File("/project")).when(project)
             .getBasedir();
-        File pomXml = new File("pom.xml");
+        pomXml = new File("pom.xml");
         when(project.getFile()).thenReturn(pomXml);
         when(project.getName()).thenReturn("project");
         File artifactFile = mock(File.class);
@@ -143,79 +483,89 @@ class MavenProjectScannerPluginTest {
         when(project.getArtifact()).thenReturn(artifact);
         when(project.getPackaging()).thenReturn("jar");
         when(project.getParent()).thenReturn(parentProject);
-        properties.put(MavenProject.class.getName(), project);
 
         Build build = new Build();
         build.setOutputDirectory("target/classes");
         build.setTestOutputDirectory("target/test-classes");
+        build.setDirectory(buildDirectory.toString());
         when(project.getBuild()).thenReturn(build);
-        MavenProjectDirectoryDescriptor projectDescriptor = mock(MavenProjectDirectoryDescriptor.class);
-        List<ArtifactDescriptor> createsArtifacts = new LinkedList<>();
+        projectDescriptor = mock(MavenProjectDirectoryDescriptor.class);
+        createsArtifacts = new LinkedList<>();
         when(projectDescriptor.getCreatesArtifacts()).thenReturn(createsArtifacts);
         doReturn(projectDescriptor).when(fileResolver)
             .match("/project", MavenProjectDirectoryDescriptor.class, scannerContext);
 
-        Scanner scanner = mock(Scanner.class);
-        doReturn(scanConfiguration).when(scanner)
+        scanner = mock(Scanner.class);
+        // includes
+        lenient().doReturn(scanConfiguration)
+            .when(scanner)
             .getConfiguration();
 
         // pom.xml
-        MavenPomXmlDescriptor pomXmlDescriptor = mock(MavenPomXmlDescriptor.class);
+        pomXmlDescriptor = mock(MavenPomXmlDescriptor.class);
         when(scanner.scan(pomXml, pomXml.getAbsolutePath(), MavenScope.PROJECT)).thenReturn(pomXmlDescriptor);
 
-        // Effective effective model
-        MavenPomDescriptor effectiveModelDescriptor = mock(MavenPomDescriptor.class);
-        doReturn(effectiveModelDescriptor).when(store)
+        // effective model
+        effectiveModelDescriptor = mock(MavenPomDescriptor.class);
+        effectiveModel = mock(Model.class);
+        lenient().doReturn(effectiveModelDescriptor)
+            .when(store)
             .create(MavenPomDescriptor.class);
-        Model effectiveModel = mock(Model.class);
-        when(project.getModel()).thenReturn(effectiveModel);
-        doReturn(effectiveModelDescriptor).when(scanner)
+        lenient().doReturn(effectiveModel)
+            .when(project)
+            .getModel();
+        lenient().doReturn(effectiveModelDescriptor)
+            .when(scanner)
             .scan(any(Model.class), eq(pomXml.getAbsolutePath()), eq(MavenScope.PROJECT));
 
         // Store and cache
         when(scannerContext.getStore()).thenReturn(store);
-        Cache<String, ? extends Descriptor> artifactCache = mock(Cache.class);
-        doReturn(artifactCache).when(store)
+        doAnswer(i -> caches.computeIfAbsent(i.getArgument(0), key -> Caffeine.newBuilder()
+            .build())).when(store)
             .getCache(anyString());
         when(scanner.getContext()).thenReturn(scannerContext);
 
         // classes directory
-        MavenMainArtifactDescriptor mainArtifactDescriptor = mock(MavenMainArtifactDescriptor.class);
-        JavaClassesDirectoryDescriptor mainClassesDirectory = mock(JavaClassesDirectoryDescriptor.class);
-        MavenTestArtifactDescriptor testArtifactDescriptor = mock(MavenTestArtifactDescriptor.class);
-        JavaClassesDirectoryDescriptor testClassesDirectory = mock(JavaClassesDirectoryDescriptor.class);
-        doReturn(mainArtifactDescriptor).when(artifactCache)
-            .get(argThat(fqn -> fqn.contains(":jar:")), any());
+        String repositoryRoot = localRepo.getBasedir()
+            .getAbsolutePath()
+            .replace('\\', '/');
+        mainArtifactDescriptor = mock(MavenMainArtifactDescriptor.class);
+        mainClassesDirectory = mock(JavaClassesDirectoryDescriptor.class);
+        testArtifactDescriptor = mock(MavenTestArtifactDescriptor.class);
+        testClassesDirectory = mock(JavaClassesDirectoryDescriptor.class);
+        doReturn(mainArtifactDescriptor).when(fileResolver)
+            .require(repositoryRoot + "/group/artifact/1.0.0/artifact-1.0.0-main.jar", MavenArtifactFileDescriptor.class, scannerContext);
         doReturn(mainClassesDirectory).when(scanner)
             .scan(any(File.class), eq("target/classes"), eq(CLASSPATH));
-        doReturn(mainArtifactDescriptor).when(store)
-            .addDescriptorType(mainArtifactDescriptor, MavenMainArtifactDescriptor.class);
 
         // test classes directory
         doReturn(testClassesDirectory).when(scanner)
             .scan(any(File.class), eq("target/test-classes"), eq(CLASSPATH));
-        doReturn(testArtifactDescriptor).when(artifactCache)
-            .get(argThat(fqn -> fqn.contains(":test-jar:")), any());
+        doReturn(testArtifactDescriptor).when(fileResolver)
+            .require(repositoryRoot + "/group/artifact/1.0.0/artifact-1.0.0-tests.test-jar", MavenArtifactFileDescriptor.class, scannerContext);
         doReturn(testClassesDirectory).when(store)
             .addDescriptorType(testArtifactDescriptor, JavaClassesDirectoryDescriptor.class);
-        doReturn(testArtifactDescriptor).when(store)
-            .addDescriptorType(testArtifactDescriptor, MavenTestArtifactDescriptor.class);
         doReturn(mainClassesDirectory).when(store)
             .addDescriptorType(mainArtifactDescriptor, JavaClassesDirectoryDescriptor.class);
 
-        doReturn(dependencyGraphBuilder).when(scannerContext)
+        // dependency graph
+        dependencyNode = mock(DependencyNode.class);
+        lenient().doReturn(dependencyGraphBuilder)
+            .when(scannerContext)
             .peek(DependencyGraphBuilder.class);
-        DependencyNode dependencyNode = mock(DependencyNode.class);
-        doReturn(dependencyNode).when(dependencyGraphBuilder)
+        lenient().doReturn(dependencyNode)
+            .when(dependencyGraphBuilder)
             .buildDependencyGraph(any(ProjectBuildingRequest.class), eq(null));
+        lenient().doReturn(localRepository)
+            .when(mavenSession)
+            .getLocalRepository();
 
         // dependency artifacts
-
         DependsOnDescriptor testDependsOnMainDescriptor = mock(DependsOnDescriptor.class);
         doReturn(testDependsOnMainDescriptor).when(store)
             .create(testArtifactDescriptor, DependsOnDescriptor.class, mainArtifactDescriptor);
 
-        MavenProjectDescriptor parentProjectDescriptor = mock(MavenProjectDescriptor.class);
+        parentProjectDescriptor = mock(MavenProjectDescriptor.class);
         doReturn(parentProjectDescriptor).when(store)
             .create(MavenProjectDescriptor.class);
 
@@ -226,19 +576,29 @@ class MavenProjectScannerPluginTest {
             .getProjectBuildingRequest();
         doReturn(localRepo).when(repositorySystemSession)
             .getLocalRepository();
-        doReturn(localRepository).when(mavenSession)
-            .getLocalRepository();
 
         doReturn(mavenSession).when(scannerContext)
             .peek(MavenSession.class);
+    }
+
+    private void scan(Map<String, Object> properties) throws DependencyGraphBuilderException {
+        mockProject();
+        scanProject(properties);
+    }
 
-        // scan
+    private void scanProject(Map<String, Object> properties) {
+        properties.put(MavenProject.class.getName(), project);
         scannerPlugin.configure(scannerContext, properties);
         scannerPlugin.scan(project, null, null, scanner);
+    }
 
-        // verify
-        verify(scannerContext).push(eq(ArtifactResolver.class), any(MavenRepositoryArtifactResolver.class));
-        verify(scannerContext).pop(ArtifactResolver.class);
+    /**
+     * Verifies the project information and artifacts which are created
+     * independent of the configured stages.
+     */
+    private void verifyProject() {
+        verify(scannerContext, never()).push(eq(ArtifactResolver.class), any(ArtifactResolver.class));
+        assertThat(ModuleScan.current()).isEmpty();
 
         verify(scanner).scan(any(File.class), eq("target/classes"), eq(CLASSPATH));
         verify(scanner).scan(any(File.class), eq("target/test-classes"), eq(CLASSPATH));
@@ -257,23 +617,17 @@ class MavenProjectScannerPluginTest {
         // Model
         verify(scanner).scan(pomXml, pomXml.getAbsolutePath(), MavenScope.PROJECT);
         verify(projectDescriptor).setModel(pomXmlDescriptor);
-        // Effective model
-        verify(store).create(MavenPomDescriptor.class);
-        verify(scannerContext).push(MavenPomDescriptor.class, effectiveModelDescriptor);
-        verify(scanner, atLeastOnce()).scan(effectiveModelCaptor.capture(), eq(pomXml.getAbsolutePath()), eq(MavenScope.PROJECT));
-        assertThat(effectiveModelCaptor.getValue()
-            .getDelegate()).isEqualTo(effectiveModel);
-        verify(scannerContext).pop(MavenPomDescriptor.class);
-        verify(projectDescriptor).setEffectiveModel(effectiveModelDescriptor);
-        verify(artifactCache).get(argThat(fqn -> fqn.contains(":jar:")), any());
+        // Artifacts
+        assertThat(caches.get(MavenRepositoryArtifactResolver.class.getName())
+            .asMap()).containsOnly(entry("group:artifact:jar:main:1.0.0", mainArtifactDescriptor),
+                entry("group:artifact:test-jar:tests:1.0.0", testArtifactDescriptor));
+        verify(mainArtifactDescriptor).setFullQualifiedName("group:artifact:jar:main:1.0.0");
         verify(store).addDescriptorType(mainArtifactDescriptor, JavaClassesDirectoryDescriptor.class);
-        verify(artifactCache).get(argThat(fqn -> fqn.contains(":test-jar:tests:")), any());
+        verify(testArtifactDescriptor).setFullQualifiedName("group:artifact:test-jar:tests:1.0.0");
         verify(store).addDescriptorType(testArtifactDescriptor, JavaClassesDirectoryDescriptor.class);
-
-        verify(dependencyGraphBuilder).buildDependencyGraph(any(ProjectBuildingRequest.class), eq(null));
-        verify(dependencyScanner).evaluate(eq(dependencyNode), eq(mainArtifactDescriptor), eq(testArtifactDescriptor), eq(expectedDependenciesScan),
-            artifactFilterCaptor.capture(), eq(localRepository), eq(scanner));
-
+        // the artifacts already have the required types
+        verify(store, never()).addDescriptorType(mainArtifactDescriptor, MavenMainArtifactDescriptor.class);
+        verify(store, never()).addDescriptorType(testArtifactDescriptor, MavenTestArtifactDescriptor.class);
         verify(store).create(testArtifactDescriptor, DependsOnDescriptor.class, mainArtifactDescriptor);
 
         verify(scannerContext).push(JavaArtifactFileDescriptor.class, mainClassesDirectory);
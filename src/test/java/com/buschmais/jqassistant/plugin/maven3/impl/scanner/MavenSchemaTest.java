@@ -0,0 +1,77 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MavenSchemaTest {
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private Query.Result<CompositeRowObject> result;
+
+    @Test
+    void statements() {
+        assertThat(MavenSchema.getCreateIndex(new String[] { "maven3_artifact_group_name", "Artifact", "group", "name" })).isEqualTo(
+            "CREATE INDEX maven3_artifact_group_name IF NOT EXISTS FOR (n:Artifact) ON (n.group, n.name)");
+        assertThat(MavenSchema.getCreateConstraint(new String[] { "maven3_artifact_fqn", "Artifact", "fqn" })).isEqualTo(
+            "CREATE CONSTRAINT maven3_artifact_fqn_unique IF NOT EXISTS FOR (n:Artifact) REQUIRE n.fqn IS UNIQUE");
+    }
+
+    @Test
+    void provisionIndexesOnce() {
+        doReturn(result).when(store)
+            .executeQuery(anyString(), anyMap());
+
+        MavenSchema.provision(store, false);
+        MavenSchema.provision(store, false);
+
+        verify(store, times(9)).executeQuery(startsWith("CREATE INDEX"), anyMap());
+        verify(store, never()).executeQuery(startsWith("CREATE CONSTRAINT"), anyMap());
+        verify(store).executeQuery(eq("CREATE INDEX maven3_pom_fqn IF NOT EXISTS FOR (n:Pom) ON (n.fqn)"), anyMap());
+        verify(store, times(9)).beginTransaction();
+        verify(store, times(9)).commitTransaction();
+    }
+
+    @Test
+    void provisionConstraints() {
+        doReturn(result).when(store)
+            .executeQuery(anyString(), anyMap());
+        doThrow(new IllegalStateException("Duplicate fqn")).when(store)
+            .executeQuery(eq("CREATE CONSTRAINT maven3_artifact_fqn_unique IF NOT EXISTS FOR (n:Artifact) REQUIRE n.fqn IS UNIQUE"), anyMap());
+        // no active transaction before provisioning, an active one after the failed constraint
+        doReturn(false, true).when(store)
+            .hasActiveTransaction();
+
+        MavenSchema.provision(store, true);
+
+        verify(store, times(3)).executeQuery(startsWith("CREATE CONSTRAINT"), anyMap());
+        // the index is created as fallback for the failed constraint only
+        verify(store).executeQuery(eq("CREATE INDEX maven3_artifact_fqn IF NOT EXISTS FOR (n:Artifact) ON (n.fqn)"), anyMap());
+        verify(store, never()).executeQuery(eq("CREATE INDEX maven3_repository_url IF NOT EXISTS FOR (n:Repository) ON (n.url)"), anyMap());
+        verify(store).rollbackTransaction();
+    }
+
+    @Test
+    void skipActiveTransaction() {
+        doReturn(true).when(store)
+            .hasActiveTransaction();
+
+        MavenSchema.provision(store, false);
+
+        verify(store, never()).executeQuery(anyString(), anyMap());
+        verify(store, never()).beginTransaction();
+        verify(store, never()).commitTransaction();
+    }
+}
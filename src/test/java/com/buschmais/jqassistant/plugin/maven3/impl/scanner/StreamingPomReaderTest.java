@@ -0,0 +1,89 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.StreamingPomReader.Section;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingPomReaderTest {
+
+    private final StreamingPomReader streamingPomReader = new StreamingPomReader();
+
+    @Test
+    void streamedModelEqualsRawModel() throws IOException, XmlPullParserException {
+        Model model = readModel("/pom.xml");
+        Map<Section, List<Object>> streamedElements = new EnumMap<>(Section.class);
+        Model skeleton;
+        try (InputStream stream = StreamingPomReaderTest.class.getResourceAsStream("/pom.xml")) {
+            skeleton = streamingPomReader.read(stream, new StreamingPomReader.SectionHandler() {
+                @Override
+                public void dependency(Section section, Dependency dependency) {
+                    streamedElements.computeIfAbsent(section, key -> new ArrayList<>()).add(dependency);
+                }
+
+                @Override
+                public void plugin(Section section, Plugin plugin) {
+                    streamedElements.computeIfAbsent(section, key -> new ArrayList<>()).add(plugin);
+                }
+            });
+        }
+
+        // skeleton
+        assertThat(skeleton.getGroupId()).isEqualTo(model.getGroupId());
+        assertThat(skeleton.getArtifactId()).isEqualTo(model.getArtifactId());
+        assertThat(skeleton.getVersion()).isEqualTo(model.getVersion());
+        assertThat(skeleton.getPackaging()).isEqualTo(model.getPackaging());
+        assertThat(skeleton.getLicenses()).hasSameSizeAs(model.getLicenses());
+        assertThat(skeleton.getDevelopers()).hasSameSizeAs(model.getDevelopers());
+        assertThat(skeleton.getProperties()).isEqualTo(model.getProperties());
+        assertThat(skeleton.getModules()).isEqualTo(model.getModules());
+        assertThat(skeleton.getProfiles()).hasSameSizeAs(model.getProfiles());
+        assertThat(skeleton.getDependencies()).isEmpty();
+        assertThat(skeleton.getBuild().getPlugins()).isEmpty();
+        assertThat(skeleton.getBuild().getPluginManagement().getPlugins()).isEmpty();
+        // streamed sections
+        verify(streamedElements, Section.DEPENDENCIES, model.getDependencies(), this::getId);
+        verify(streamedElements, Section.MANAGED_DEPENDENCIES, model.getDependencyManagement().getDependencies(), this::getId);
+        verify(streamedElements, Section.PLUGINS, model.getBuild().getPlugins(), this::getId);
+        verify(streamedElements, Section.MANAGED_PLUGINS, model.getBuild().getPluginManagement().getPlugins(), this::getId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void verify(Map<Section, List<Object>> streamedElements, Section section, List<T> expected, Function<T, String> id) {
+        List<String> actualIds = streamedElements.getOrDefault(section, emptyList()).stream().map(element -> id.apply((T) element)).collect(toList());
+        List<String> expectedIds = expected.stream().map(id).collect(toList());
+        assertThat(actualIds).isEqualTo(expectedIds);
+    }
+
+    private String getId(Dependency dependency) {
+        return dependency.getManagementKey() + ":" + dependency.getVersion() + ":" + dependency.getScope() + ":" + dependency.isOptional() + ":"
+                + dependency.getExclusions().size();
+    }
+
+    private String getId(Plugin plugin) {
+        return plugin.getKey() + ":" + plugin.getVersion() + ":" + plugin.getConfiguration() + ":" + plugin.getExecutions().size() + ":"
+                + plugin.getDependencies().size();
+    }
+
+    private Model readModel(String resource) throws IOException, XmlPullParserException {
+        try (InputStream stream = StreamingPomReaderTest.class.getResourceAsStream(resource)) {
+            return new MavenXpp3Reader().read(stream);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlIncludeCacheTest {
+
+    private static final String CONTENT = "<rules/>";
+
+    private static final String ETAG = "\"v1\"";
+
+    @TempDir
+    Path cacheDirectory;
+
+    private HttpServer server;
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/rules.xml", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders()
+                .getFirst("If-None-Match");
+            requests.add(ifNoneMatch != null ? ifNoneMatch : "");
+            exchange.getResponseHeaders()
+                .add("ETag", ETAG);
+            if (ETAG.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = CONTENT.getBytes(UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream stream = exchange.getResponseBody()) {
+                    stream.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.createContext("/slow.xml", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            }
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+        });
+        server.createContext("/stalled.xml", exchange -> {
+            // send a part of the announced content and stall
+            exchange.sendResponseHeaders(200, 1024);
+            OutputStream stream = exchange.getResponseBody();
+            stream.write(CONTENT.getBytes(UTF_8));
+            stream.flush();
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchOnce() throws IOException {
+        String url = getUrl();
+        UrlIncludeCache urlIncludeCache = new UrlIncludeCache(cacheDirectory);
+
+        urlIncludeCache.prefetch(asList(url, url));
+        Optional<Path> file = urlIncludeCache.get(url);
+
+        assertThat(file).isPresent();
+        assertThat(Files.readAllLines(file.get(), UTF_8)).containsExactly(CONTENT);
+        assertThat(urlIncludeCache.get(url)).isEqualTo(file);
+        assertThat(requests).containsExactly("");
+    }
+
+    @Test
+    void revalidate() {
+        String url = getUrl();
+        Optional<Path> file = new UrlIncludeCache(cacheDirectory).get(url);
+
+        Optional<Path> revalidatedFile = new UrlIncludeCache(cacheDirectory).get(url);
+
+        assertThat(revalidatedFile).isPresent()
+            .isEqualTo(file);
+        assertThat(requests).containsExactly("", ETAG);
+    }
+
+    @Test
+    void notCacheable() {
+        UrlIncludeCache urlIncludeCache = new UrlIncludeCache(cacheDirectory);
+
+        assertThat(urlIncludeCache.get("file:///rules.xml")).isEmpty();
+        assertThat(urlIncludeCache.get("http://localhost:" + server.getAddress()
+            .getPort() + "/unknown.xml")).isEmpty();
+    }
+
+    @Test
+    void timeout() {
+        UrlIncludeCache urlIncludeCache = new UrlIncludeCache(cacheDirectory, 100, 100);
+        long start = System.nanoTime();
+
+        Optional<Path> file = urlIncludeCache.get(getUrl("/slow.xml"));
+
+        assertThat(file).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void incompleteDownload() throws IOException {
+        UrlIncludeCache urlIncludeCache = new UrlIncludeCache(cacheDirectory, 1000, 100);
+
+        Optional<Path> file = urlIncludeCache.get(getUrl("/stalled.xml"));
+
+        assertThat(file).isEmpty();
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+        private String getUrl() {
+        return getUrl("/rules.xml");
+    }
+
+    private String getUrl(String path) {
+        return "http://localhost:" + server.getAddress()
+            .getPort() + path;
+    }
+}
@@ -2,14 +2,18 @@ package com.buschmais.jqassistant.plugin.maven3.impl.scanner.dependency;
 
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactResolver;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactCoordinates;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.xo.api.Query;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DefaultArtifact;
@@ -19,10 +23,13 @@ import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,8 +41,16 @@ class GraphResolverTest {
     @Mock
     private ScannerContext context;
 
+    @Mock
+    private Store store;
+
+    @Captor
+    private ArgumentCaptor<Map<String, Object>> paramsCaptor;
+
     private Map<String, MavenArtifactDescriptor> resolvedArtifacts = new HashMap<>();
 
+    private AtomicLong ids = new AtomicLong();
+
     private GraphResolver graphResolver;
 
     @BeforeEach
@@ -46,10 +61,12 @@ class GraphResolverTest {
             return resolvedArtifacts.computeIfAbsent(fqn, f -> {
                 MavenArtifactDescriptor mavenArtifactDescriptor = mock(MavenArtifactDescriptor.class);
                 MavenArtifactHelper.setCoordinates(mavenArtifactDescriptor, coordinates);
+                lenient().doReturn(ids.incrementAndGet())
+                    .when(mavenArtifactDescriptor)
+                    .getId();
                 return mavenArtifactDescriptor;
             });
         }).when(artifactResolver).resolve(any(Coordinates.class), eq(context));
-        doReturn(artifactResolver).when(context).peek(ArtifactResolver.class);
         graphResolver = new GraphResolver();
     }
 
@@ -66,7 +83,7 @@ class GraphResolverTest {
         MavenArtifactDescriptor mainArtifact = resolve(mainNode, false);
         MavenArtifactDescriptor testArtifact = resolve(mainNode, true);
 
-        graphResolver.resolve(mainNode, mainArtifact, testArtifact, context);
+        graphResolver.resolve(mainNode, mainArtifact, testArtifact, false, artifactResolver, context);
 
         MavenArtifactDescriptor directDependency = resolve(directDependencyNode, false);
         MavenArtifactDescriptor transitiveDependency = resolve(transitiveDependencyNode, false);
@@ -86,6 +103,131 @@ class GraphResolverTest {
         verify(directDependency, never()).addDependency(eq(testDependency), anyString(), anyBoolean());
         // Transitive dependency does not depend on anything else
         verify(transitiveDependency, never()).addDependency(any(MavenArtifactDescriptor.class), anyString(), anyBoolean());
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void resolveTransitiveDependencies() {
+        DependencyNode mainNode = getDependencyNode(null, "main", Artifact.SCOPE_COMPILE);
+        DependencyNode directDependencyNode = getDependencyNode(mainNode, "direct-dependency", Artifact.SCOPE_COMPILE);
+        DependencyNode transitiveDependencyNode = getDependencyNode(directDependencyNode, "transitive-dependency", Artifact.SCOPE_RUNTIME);
+        DependencyNode testDependencyNode = getDependencyNode(mainNode, "test-dependency", Artifact.SCOPE_TEST);
+        DependencyNode duplicateDependencyNode = getDependencyNode(testDependencyNode, "direct-dependency", Artifact.SCOPE_TEST);
+        DependencyNode testTransitiveDependencyNode = getDependencyNode(testDependencyNode, "test-transitive-dependency", Artifact.SCOPE_TEST);
+
+        mainNode.getChildren().addAll(asList(directDependencyNode, testDependencyNode));
+        directDependencyNode.getChildren().add(transitiveDependencyNode);
+        testDependencyNode.getChildren().addAll(asList(duplicateDependencyNode, testTransitiveDependencyNode));
+
+        MavenArtifactDescriptor mainArtifact = resolve(mainNode, false);
+        MavenArtifactDescriptor testArtifact = resolve(mainNode, true);
+        doReturn(store).when(context).getStore();
+        doReturn(mock(Query.Result.class)).when(store).executeQuery(anyString(), anyMap());
+
+        graphResolver.resolve(mainNode, mainArtifact, testArtifact, true, artifactResolver, context);
+
+        long directDependency = resolve(directDependencyNode, false).getId();
+        long transitiveDependency = resolve(transitiveDependencyNode, false).getId();
+        long testDependency = resolve(testDependencyNode, false).getId();
+        long testTransitiveDependency = resolve(testTransitiveDependencyNode, false).getId();
+        verify(store, times(2)).executeQuery(contains("DEPENDS_ON_TRANSITIVELY"), paramsCaptor.capture());
+        List<Map<String, Object>> params = paramsCaptor.getAllValues();
+        // Main artifact depends transitively on all non-test artifacts in classpath order
+        assertThat(params.get(0)).containsEntry("artifact", mainArtifact.getId());
+        List<Map<String, Object>> mainDependencies = (List<Map<String, Object>>) params.get(0).get("dependencies");
+        assertThat(mainDependencies).hasSize(2);
+        assertDependency(mainDependencies.get(0), directDependency, 1, Artifact.SCOPE_COMPILE, 0);
+        assertDependency(mainDependencies.get(1), transitiveDependency, 2, Artifact.SCOPE_RUNTIME, 1);
+        // Test artifact depends transitively on all artifacts, duplicates keep the depth and scope of the nearest occurrence
+        assertThat(params.get(1)).containsEntry("artifact", testArtifact.getId());
+        List<Map<String, Object>> testDependencies = (List<Map<String, Object>>) params.get(1).get("dependencies");
+        assertThat(testDependencies).hasSize(4);
+        assertDependency(testDependencies.get(0), directDependency, 1, Artifact.SCOPE_COMPILE, 0);
+        assertDependency(testDependencies.get(1), transitiveDependency, 2, Artifact.SCOPE_RUNTIME, 1);
+        assertDependency(testDependencies.get(2), testDependency, 1, Artifact.SCOPE_TEST, 2);
+        assertDependency(testDependencies.get(3), testTransitiveDependency, 2, Artifact.SCOPE_TEST, 3);
+    }
+
+    @Test
+    void replaceTransitiveDependencies() {
+        DependencyNode mainNode = getDependencyNode(null, "main", Artifact.SCOPE_COMPILE);
+        DependencyNode testDependencyNode = getDependencyNode(mainNode, "test-dependency", Artifact.SCOPE_TEST);
+        mainNode.getChildren().add(testDependencyNode);
+
+        MavenArtifactDescriptor mainArtifact = resolve(mainNode, false);
+        MavenArtifactDescriptor testArtifact = resolve(mainNode, true);
+        doReturn(store).when(context).getStore();
+        doReturn(mock(Query.Result.class)).when(store).executeQuery(anyString(), anyMap());
+
+        graphResolver.resolve(mainNode, mainArtifact, testArtifact, true, artifactResolver, context);
+
+        ArgumentCaptor<String> statementCaptor = ArgumentCaptor.forClass(String.class);
+        verify(store, times(2)).executeQuery(statementCaptor.capture(), paramsCaptor.capture());
+        // Existing relations are deleted before the closure is created
+        assertThat(statementCaptor.getValue()).contains("DELETE existing")
+            .contains("CREATE (artifact)-[:DEPENDS_ON_TRANSITIVELY");
+        // The main artifact has no non-test dependencies, i.e. only its existing relations are deleted
+        List<Map<String, Object>> params = paramsCaptor.getAllValues();
+        assertThat(params.get(0)).containsEntry("artifact", mainArtifact.getId());
+        assertThat((List<Map<String, Object>>) params.get(0).get("dependencies")).isEmpty();
+        assertThat(params.get(1)).containsEntry("artifact", testArtifact.getId());
+        assertThat((List<Map<String, Object>>) params.get(1).get("dependencies")).hasSize(1);
+    }
+
+    @Test
+    void resolveTransitiveDependenciesWithVersionConflict() {
+        DependencyNode mainNode = getDependencyNode(null, "main", "1.0.0", Artifact.SCOPE_COMPILE);
+        DependencyNode directDependencyNode = getDependencyNode(mainNode, "direct-dependency", "1.0.0", Artifact.SCOPE_COMPILE);
+        // the verbose tree contains the version which lost the conflict
+        DependencyNode losingLibraryNode = getDependencyNode(directDependencyNode, "library", "1.0.0", Artifact.SCOPE_COMPILE);
+        DependencyNode winningLibraryNode = getDependencyNode(mainNode, "library", "2.0.0", Artifact.SCOPE_COMPILE);
+        // a cycle back to the main artifact
+        DependencyNode cycleNode = getDependencyNode(winningLibraryNode, "main", "1.0.0", Artifact.SCOPE_COMPILE);
+
+        mainNode.getChildren().addAll(asList(directDependencyNode, winningLibraryNode));
+        directDependencyNode.getChildren().add(losingLibraryNode);
+        winningLibraryNode.getChildren().add(cycleNode);
+
+        MavenArtifactDescriptor mainArtifact = resolve(mainNode, false);
+        MavenArtifactDescriptor testArtifact = resolve(mainNode, true);
+        doReturn(store).when(context).getStore();
+        doReturn(mock(Query.Result.class)).when(store).executeQuery(anyString(), anyMap());
+
+        graphResolver.resolve(mainNode, mainArtifact, testArtifact, true, artifactResolver, context);
+
+        long directDependency = resolve(directDependencyNode, false).getId();
+        long winningLibrary = resolve(winningLibraryNode, false).getId();
+        verify(store, times(2)).executeQuery(contains("DEPENDS_ON_TRANSITIVELY"), paramsCaptor.capture());
+        // Only the winning version is linked at the position of its nearest occurrence
+        for (Map<String, Object> params : paramsCaptor.getAllValues()) {
+            List<Map<String, Object>> dependencies = (List<Map<String, Object>>) params.get("dependencies");
+            assertThat(dependencies).hasSize(2);
+            assertDependency(dependencies.get(0), directDependency, 1, Artifact.SCOPE_COMPILE, 0);
+            assertDependency(dependencies.get(1), winningLibrary, 1, Artifact.SCOPE_COMPILE, 1);
+        }
+    }
+
+    @Test
+    void resolveTransitiveDependenciesWithoutTestArtifact() {
+        DependencyNode mainNode = getDependencyNode(null, "main", Artifact.SCOPE_COMPILE);
+        DependencyNode directDependencyNode = getDependencyNode(mainNode, "direct-dependency", Artifact.SCOPE_COMPILE);
+        mainNode.getChildren().add(directDependencyNode);
+
+        MavenArtifactDescriptor mainArtifact = resolve(mainNode, false);
+        doReturn(store).when(context).getStore();
+        doReturn(mock(Query.Result.class)).when(store).executeQuery(anyString(), anyMap());
+
+        graphResolver.resolve(mainNode, mainArtifact, null, true, artifactResolver, context);
+
+        verify(store).executeQuery(contains("DEPENDS_ON_TRANSITIVELY"), paramsCaptor.capture());
+        assertThat(paramsCaptor.getValue()).containsEntry("artifact", mainArtifact.getId());
+    }
+
+    private static void assertDependency(Map<String, Object> dependency, long id, int depth, String scope, int order) {
+        assertThat(dependency).containsEntry("id", id)
+            .containsEntry("depth", depth)
+            .containsEntry("scope", scope)
+            .containsEntry("order", order);
     }
 
     private MavenArtifactDescriptor resolve(DependencyNode node, boolean testJar) {
@@ -93,7 +235,11 @@ class GraphResolverTest {
     }
 
     private DependencyNode getDependencyNode(DependencyNode parent, String artifactId, String scope) {
-        DefaultArtifact artifact = new DefaultArtifact("com.acme", artifactId, "1.0.0", scope, "jar", null, mock(ArtifactHandler.class));
+        return getDependencyNode(parent, artifactId, "1.0.0", scope);
+    }
+
+    private DependencyNode getDependencyNode(DependencyNode parent, String artifactId, String version, String scope) {
+        DefaultArtifact artifact = new DefaultArtifact("com.acme", artifactId, version, scope, "jar", null, mock(ArtifactHandler.class));
         DefaultDependencyNode dependencyNode = new DefaultDependencyNode(parent, artifact, null, null, null);
         dependencyNode.setChildren(new LinkedList<>());
         return dependencyNode;
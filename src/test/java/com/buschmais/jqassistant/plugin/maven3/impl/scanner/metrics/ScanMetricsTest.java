@@ -0,0 +1,167 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ScanMetricsTest {
+
+    @TempDir
+    Path reportDirectory;
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private Query.Result<CompositeRowObject> nodesResult;
+
+    @Mock
+    private CompositeRowObject nodesRow;
+
+    @Mock
+    private Query.Result<CompositeRowObject> relationsResult;
+
+    @Mock
+    private CompositeRowObject relationsRow;
+
+    @BeforeEach
+    void stubCounts() {
+        doReturn(nodesResult).when(store)
+            .executeQuery("MATCH (n) RETURN count(n) AS count");
+        doReturn(true).when(nodesResult)
+            .hasResult();
+        doReturn(nodesRow).when(nodesResult)
+            .getSingleResult();
+        doReturn(relationsResult).when(store)
+            .executeQuery("MATCH ()-[r]->() RETURN count(r) AS count");
+        doReturn(true).when(relationsResult)
+            .hasResult();
+        doReturn(relationsRow).when(relationsResult)
+            .getSingleResult();
+    }
+
+    @Test
+    void report() throws IOException {
+        // nodes and relations before and after scanning the modules and their phases
+        doReturn(1L, 1L, 3L, 3L, 3L, 3L, 8L, 8L).when(nodesRow)
+            .get("count", Long.class);
+        doReturn(0L, 0L, 1L, 1L, 1L, 1L, 1L, 1L).when(relationsRow)
+            .get("count", Long.class);
+        Path reportFile = reportDirectory.resolve("metrics/maven3.json");
+        ScanMetrics scanMetrics = new ScanMetrics(reportFile, 1);
+
+        ModuleScanMetrics fastModule = scanMetrics.startModule("com.acme:fast:jar:1.0", store);
+        fastModule.measure(ScanPhase.CLASSES, () -> {
+        });
+        fastModule.recordPom("fast/pom.xml", 1_000_000);
+        scanMetrics.finishModule(fastModule);
+        ModuleScanMetrics slowModule = scanMetrics.startModule("com.acme:slow:jar:1.0", store);
+        String result = slowModule.measure(ScanPhase.MODEL, () -> {
+            sleep();
+            return "model";
+        });
+        slowModule.recordPom("slow/pom.xml", 50_000_000);
+        scanMetrics.finishModule(slowModule);
+
+        assertThat(result).isEqualTo("model");
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertThat(report.get("modules")
+            .asInt()).isEqualTo(2);
+        assertThat(report.get("poms")
+            .asLong()).isEqualTo(2);
+        assertThat(report.get("nodes")
+            .asLong()).isEqualTo(7);
+        assertThat(report.get("relations")
+            .asLong()).isEqualTo(1);
+        assertThat(report.get("phases")
+            .size()).isEqualTo(2);
+        assertThat(report.get("phases")
+            .has("CLASSES")).isTrue();
+        assertThat(report.get("phases")
+            .get("CLASSES")
+            .get("nodes")
+            .asLong()).isEqualTo(2);
+        assertThat(report.get("phases")
+            .get("CLASSES")
+            .get("relations")
+            .asLong()).isEqualTo(1);
+        assertThat(report.get("phases")
+            .get("MODEL")
+            .get("nodes")
+            .asLong()).isEqualTo(5);
+        JsonNode slowestModules = report.get("slowestModules");
+        assertThat(slowestModules).hasSize(1);
+        assertThat(slowestModules.get(0)
+            .get("module")
+            .asText()).isEqualTo("com.acme:slow:jar:1.0");
+        assertThat(slowestModules.get(0)
+            .get("nodes")
+            .asLong()).isEqualTo(5);
+        assertThat(slowestModules.get(0)
+            .get("phases")
+            .get("MODEL")
+            .get("relations")
+            .asLong()).isZero();
+        JsonNode slowestPoms = report.get("slowestPoms");
+        assertThat(slowestPoms).hasSize(1);
+        assertThat(slowestPoms.get(0)
+            .get("path")
+            .asText()).isEqualTo("slow/pom.xml");
+        assertThat(slowestPoms.get(0)
+            .get("wallTimeMillis")
+            .asLong()).isEqualTo(50);
+    }
+
+    @Test
+    void moduleTotalsWithoutReport() {
+        // nodes and relations before and after scanning the module
+        doReturn(10L, 25L).when(nodesRow)
+            .get("count", Long.class);
+        doReturn(4L, 9L).when(relationsRow)
+            .get("count", Long.class);
+        ScanMetrics scanMetrics = new ScanMetrics(null, 1);
+
+        ModuleScanMetrics moduleScanMetrics = scanMetrics.startModule("com.acme:module:jar:1.0", store);
+        moduleScanMetrics.recordDependency(true);
+        moduleScanMetrics.recordDependency(false);
+        moduleScanMetrics.recordDependency(false);
+        scanMetrics.finishModule(moduleScanMetrics);
+
+        assertThat(moduleScanMetrics.getCreatedNodes()).isEqualTo(15);
+        assertThat(moduleScanMetrics.getCreatedRelations()).isEqualTo(5);
+        assertThat(moduleScanMetrics.getScannedDependencies()).isEqualTo(1);
+        assertThat(moduleScanMetrics.getSkippedDependencies()).isEqualTo(2);
+        assertThat(moduleScanMetrics.getWallTime(ScanPhase.CLASSES)).isZero();
+        assertThat(reportDirectory.toFile()
+            .list()).isEmpty();
+        verify(nodesResult, times(2)).close();
+        verify(relationsResult, times(2)).close();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryArtifactCoordinatesTest {
+
+    @Test
+    void release() {
+        RepositoryVersion version = version("1.0");
+
+        RepositoryArtifactCoordinates jar = RepositoryArtifactCoordinates.of(version, "library-1.0.jar")
+            .get();
+        RepositoryArtifactCoordinates sources = RepositoryArtifactCoordinates.of(version, "library-1.0-sources.jar")
+            .get();
+        RepositoryArtifactCoordinates distribution = RepositoryArtifactCoordinates.of(version, "library-1.0-bin.tar.gz")
+            .get();
+
+        assertThat(jar.getGroup()).isEqualTo("com.acme");
+        assertThat(jar.getName()).isEqualTo("library");
+        assertThat(jar.getVersion()).isEqualTo("1.0");
+        assertThat(jar.getClassifier()).isNull();
+        assertThat(jar.getType()).isEqualTo("jar");
+        assertThat(sources.getClassifier()).isEqualTo("sources");
+        assertThat(sources.getType()).isEqualTo("jar");
+        assertThat(distribution.getClassifier()).isEqualTo("bin");
+        assertThat(distribution.getType()).isEqualTo("tar.gz");
+    }
+
+    @Test
+    void snapshot() {
+        RepositoryVersion version = version("1.1-SNAPSHOT");
+
+        RepositoryArtifactCoordinates snapshot = RepositoryArtifactCoordinates.of(version, "library-1.1-SNAPSHOT.pom")
+            .get();
+        RepositoryArtifactCoordinates timestamped = RepositoryArtifactCoordinates.of(version, "library-1.1-20240103.123456-2-tests.jar")
+            .get();
+
+        assertThat(snapshot.getVersion()).isEqualTo("1.1-SNAPSHOT");
+        assertThat(snapshot.getType()).isEqualTo("pom");
+        assertThat(timestamped.getVersion()).isEqualTo("1.1-20240103.123456-2");
+        assertThat(timestamped.getClassifier()).isEqualTo("tests");
+        assertThat(timestamped.getType()).isEqualTo("jar");
+    }
+
+    @Test
+    void unknownLayout() {
+        Optional<RepositoryArtifactCoordinates> coordinates = RepositoryArtifactCoordinates.of(version("1.0"), "library-2.0.jar");
+
+        assertThat(coordinates).isEmpty();
+    }
+
+    private static RepositoryVersion version(String version) {
+        return new RepositoryVersion("com.acme", "library", version, Paths.get("com/acme/library", version), emptyList(), null);
+    }
+}
@@ -0,0 +1,212 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenVersionDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.DescriptorTypes;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryHierarchyTest {
+
+    private static final String LOAD = "OPTIONAL MATCH";
+
+    private static final String CREATE_GROUP_IDS = "CREATE (repository)";
+
+    private static final String CREATE_ARTIFACT_IDS = "CREATE (groupId)";
+
+    private static final String CREATE_VERSIONS = "CREATE (artifactId)";
+
+    private static final String FIND_VERSIONS = "WHERE id(version) IN $ids";
+
+    private static final String REMOVE_VERSIONS = "DETACH DELETE version";
+
+    private static final String REMOVE_FILES = "DELETE containsVersion";
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private MavenRepositoryDescriptor repositoryDescriptor;
+
+    @Mock
+    private MavenVersionDescriptor versionDescriptor;
+
+    private Cache<Object, Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = Caffeine.newBuilder()
+            .build();
+        doReturn(cache).when(store)
+            .getCache(anyString());
+        doReturn("file:/repository/").when(repositoryDescriptor)
+            .getUrl();
+    }
+
+    @Test
+    void createOnce() {
+        stubQuery(LOAD);
+        stubQuery(CREATE_GROUP_IDS, row("com.acme", 1L, null));
+        stubQuery(CREATE_ARTIFACT_IDS, row("library", 2L, null));
+        stubQuery(CREATE_VERSIONS, row("1.0", 3L, versionDescriptor));
+        stubQuery(FIND_VERSIONS, row("1.0", null, versionDescriptor));
+
+        for (int i = 0; i < 2; i++) {
+            RepositoryHierarchy repositoryHierarchy = RepositoryHierarchy.of(repositoryDescriptor, 100, store);
+            repositoryHierarchy.addGroupIds(singletonList("com.acme"), store);
+            repositoryHierarchy.addArtifactIds("com.acme", singletonList("library"), store);
+            Map<String, MavenVersionDescriptor> versions = repositoryHierarchy.addVersions("com.acme", "library", singletonList("1.0"), store);
+            assertThat(versions).containsEntry("1.0", versionDescriptor);
+        }
+
+        verify(store).executeQuery(contains(LOAD), anyMap());
+        verify(store).executeQuery(contains(CREATE_GROUP_IDS), anyMap());
+        verify(store).executeQuery(contains(CREATE_ARTIFACT_IDS), anyMap());
+        verify(store).executeQuery(contains(CREATE_VERSIONS), anyMap());
+        verify(store).executeQuery(contains(FIND_VERSIONS), anyMap());
+    }
+
+    @Test
+    void load() {
+        stubQuery(LOAD, row("com.acme", "library", "1.0", 4L), row("com.acme", "library", "1.1", 5L));
+        stubQuery(CREATE_VERSIONS, row("1.2", 6L, versionDescriptor));
+        stubQuery(FIND_VERSIONS, row("1.0", null, versionDescriptor), row("1.1", null, versionDescriptor));
+
+        RepositoryHierarchy repositoryHierarchy = RepositoryHierarchy.of(repositoryDescriptor, 100, store);
+        repositoryHierarchy.addGroupIds(singletonList("com.acme"), store);
+        repositoryHierarchy.addArtifactIds("com.acme", singletonList("library"), store);
+        Map<String, MavenVersionDescriptor> versions = repositoryHierarchy.addVersions("com.acme", "library", Arrays.asList("1.0", "1.1", "1.2"), store);
+
+        assertThat(versions).containsOnlyKeys("1.0", "1.1", "1.2");
+        verify(store, never()).executeQuery(contains(CREATE_GROUP_IDS), anyMap());
+        verify(store, never()).executeQuery(contains(CREATE_ARTIFACT_IDS), anyMap());
+    }
+
+    @Test
+    void removeVersions() {
+        stubQuery(LOAD, row("com.acme", "library", "1.0", 4L), row("com.acme", "library", "1.1", 5L));
+        CompositeRowObject removedRow = mock(CompositeRowObject.class);
+        doReturn(Arrays.asList("com.acme:library:jar:1.0", "com.acme:library:pom:1.0")).when(removedRow)
+            .get("fqns", List.class);
+        stubQuery(REMOVE_VERSIONS, removedRow);
+        cache.put(4L, versionDescriptor);
+        cache.put(5L, versionDescriptor);
+
+        RepositoryHierarchy repositoryHierarchy = RepositoryHierarchy.of(repositoryDescriptor, 100, store);
+        List<String> removed = repositoryHierarchy.removeVersions(singleton("com.acme:library:1.1"), store);
+        List<String> removedAgain = repositoryHierarchy.removeVersions(singleton("com.acme:library:1.1"), store);
+
+        assertThat(removed).containsExactly("com.acme:library:jar:1.0", "com.acme:library:pom:1.0");
+        assertThat(removedAgain).isEmpty();
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        verify(store).executeQuery(contains(REMOVE_VERSIONS), params.capture());
+        List<Map<String, Object>> versions = (List<Map<String, Object>>) params.getValue()
+            .get("versions");
+        assertThat(versions).hasSize(1);
+        assertThat(versions.get(0)).containsEntry("id", 4L)
+            .containsEntry("directory", "/com/acme/library/1.0/");
+        // the deleted version is evicted from the descriptor types
+        verify(store, atLeastOnce()).getCache(DescriptorTypes.class.getName());
+        assertThat(cache.getIfPresent(4L)).isNull();
+        assertThat(cache.getIfPresent(5L)).isSameAs(versionDescriptor);
+    }
+
+    @Test
+    void removeFiles() {
+        stubQuery(LOAD, row("com.acme", "library", "1.0", 4L));
+        CompositeRowObject removedRow = mock(CompositeRowObject.class);
+        doReturn(singletonList("com.acme:library:jar:sources:1.0")).when(removedRow)
+            .get("fqns", List.class);
+        doReturn(singletonList(6L)).when(removedRow)
+            .get("ids", List.class);
+        stubQuery(REMOVE_FILES, removedRow);
+        MavenArtifactDescriptor sourcesDescriptor = mock(MavenArtifactDescriptor.class);
+        cache.put(6L, sourcesDescriptor);
+        cache.put("com.acme:library:jar:sources:1.0", sourcesDescriptor);
+
+        RepositoryHierarchy repositoryHierarchy = RepositoryHierarchy.of(repositoryDescriptor, 100, store);
+        assertThat(repositoryHierarchy.containsVersion("com.acme", "library", "1.0", store)).isTrue();
+        assertThat(repositoryHierarchy.containsVersion("com.acme", "library", "1.1", store)).isFalse();
+        List<String> removed = repositoryHierarchy.removeFiles("com.acme", "library", "1.0", Arrays.asList("com.acme:library:jar:1.0",
+            "com.acme:library:pom:1.0"), singletonList("library-1.0.pom"), store);
+
+        assertThat(removed).containsExactly("com.acme:library:jar:sources:1.0");
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        verify(store).executeQuery(contains(REMOVE_FILES), params.capture());
+        assertThat(params.getValue()).containsEntry("version", 4L)
+            .containsEntry("directory", "/com/acme/library/1.0/")
+            .containsEntry("retainedArtifacts", Arrays.asList("com.acme:library:jar:1.0", "com.acme:library:pom:1.0"))
+            .containsEntry("retainedPoms", singletonList("/com/acme/library/1.0/library-1.0.pom"));
+        // the deleted artifact is evicted by its id and its fully qualified name
+        verify(store).getCache(DescriptorTypes.class.getName());
+        assertThat(cache.getIfPresent(6L)).isNull();
+        assertThat(cache.getIfPresent("com.acme:library:jar:sources:1.0")).isNull();
+    }
+
+    private void stubQuery(String statement, CompositeRowObject... rows) {
+        Query.Result<CompositeRowObject> result = mock(Query.Result.class);
+        List<CompositeRowObject> rowList = rows.length > 0 ? Arrays.asList(rows) : Collections.emptyList();
+        lenient().doAnswer(invocation -> rowList.iterator())
+            .when(result)
+            .iterator();
+        doReturn(result).when(store)
+            .executeQuery(contains(statement), anyMap());
+    }
+
+    private static CompositeRowObject row(String name, Long id, MavenVersionDescriptor version) {
+        CompositeRowObject row = mock(CompositeRowObject.class);
+        lenient().doReturn(name)
+            .when(row)
+            .get("name", String.class);
+        lenient().doReturn(id)
+            .when(row)
+            .get("id", Long.class);
+        lenient().doReturn(version)
+            .when(row)
+            .get("version", MavenVersionDescriptor.class);
+        return row;
+    }
+
+    private static CompositeRowObject row(String groupId, String artifactId, String version, long versionId) {
+        CompositeRowObject row = mock(CompositeRowObject.class);
+        doReturn(groupId).when(row)
+            .get("groupId", String.class);
+        doReturn(1L).when(row)
+            .get("groupIdId", Long.class);
+        doReturn(artifactId).when(row)
+            .get("artifactId", String.class);
+        lenient().doReturn(2L)
+            .when(row)
+            .get("artifactIdId", Long.class);
+        doReturn(version).when(row)
+            .get("version", String.class);
+        doReturn(versionId).when(row)
+            .get("versionId", Long.class);
+        return row;
+    }
+}
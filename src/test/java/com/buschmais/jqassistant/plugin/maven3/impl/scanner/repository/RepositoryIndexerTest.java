@@ -0,0 +1,45 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryIndexerTest {
+
+    @Test
+    void versionOrder() {
+        List<RepositoryVersion> versions = Stream.of("1.10", "1.9", "1.10-SNAPSHOT", "1.9.1", "2.0-beta-1", "2.0")
+            .map(version -> new RepositoryVersion("com.acme", "library", version, null, emptyList(), null))
+            .collect(toList());
+
+        Map<String, Map<String, List<RepositoryVersion>>> hierarchy = RepositoryIndexer.getHierarchy(versions);
+
+        assertThat(hierarchy.get("com.acme")
+            .get("library")).extracting(RepositoryVersion::getVersion)
+            .containsExactly("1.9", "1.9.1", "1.10-SNAPSHOT", "1.10", "2.0-beta-1", "2.0");
+    }
+
+    @Test
+    void retainedSnapshots() {
+        Set<String> retained = RepositoryIndexer.getRetainedSnapshots("1.0-SNAPSHOT",
+            Arrays.asList("1.0-SNAPSHOT", "1.0-20240101.120000-1", "1.0-20240101.120000-1", "1.0-20240102.080000-9", "1.0-20240102.080000-10",
+                "1.0-20231231.235959-8"), 2);
+
+        assertThat(retained).containsExactlyInAnyOrder("1.0-20240102.080000-10", "1.0-20240102.080000-9");
+    }
+
+    @Test
+    void allSnapshotsRetained() {
+        Set<String> retained = RepositoryIndexer.getRetainedSnapshots("1.0-SNAPSHOT", Arrays.asList("1.0-20240101.120000-1", "1.0-20240102.080000-2"), 5);
+
+        assertThat(retained).containsExactlyInAnyOrder("1.0-20240101.120000-1", "1.0-20240102.080000-2");
+    }
+}
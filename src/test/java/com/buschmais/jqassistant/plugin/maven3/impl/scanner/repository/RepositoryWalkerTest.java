@@ -0,0 +1,133 @@
+package com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryWalkerTest {
+
+    @TempDir
+    Path repository;
+
+    @Test
+    void walk() throws IOException {
+        Path release = repository.resolve("com/acme/library/1.0");
+        touch(release, "library-1.0.pom", "library-1.0.pom.sha1", "library-1.0.jar", "library-1.0.jar.md5", "library-1.0.jar.asc", "library-1.0-sources.jar",
+            "_remote.repositories", "maven-metadata-central.xml");
+        touch(repository.resolve("com/acme/library"), "maven-metadata-local.xml");
+        Path snapshot = repository.resolve("com/acme/library/1.1-SNAPSHOT");
+        touch(snapshot, "library-1.1-20240102.123456-1.pom", "library-1.1-20240103.123456-2.pom", "library-1.1-20240103.123456-2.jar");
+        touch(repository.resolve("org/other/tool/2.0"), "tool-2.0.pom.lastUpdated", "tool-2.0.jar.lastUpdated");
+
+        List<RepositoryVersion> versions = new RepositoryWalker(2).walk(repository);
+
+        assertThat(versions).hasSize(2);
+        Map<String, Map<String, List<RepositoryVersion>>> hierarchy = RepositoryIndexer.getHierarchy(versions);
+        assertThat(hierarchy).containsOnlyKeys("com.acme");
+        List<RepositoryVersion> libraryVersions = hierarchy.get("com.acme")
+            .get("library");
+        assertThat(libraryVersions).extracting(RepositoryVersion::getVersion)
+            .containsExactly("1.0", "1.1-SNAPSHOT");
+        RepositoryVersion releaseVersion = libraryVersions.get(0);
+        assertThat(releaseVersion.toString()).isEqualTo("com.acme:library:1.0");
+        assertThat(releaseVersion.getFiles()).containsExactly("library-1.0-sources.jar", "library-1.0.jar", "library-1.0.pom");
+        assertThat(releaseVersion.getPomFile()).isEqualTo("library-1.0.pom");
+        RepositoryVersion snapshotVersion = libraryVersions.get(1);
+        assertThat(snapshotVersion.getPomFile()).isEqualTo("library-1.1-20240103.123456-2.pom");
+    }
+
+    @Test
+    void incremental() throws IOException {
+        Path unmodified = repository.resolve("com/acme/library/1.0");
+        touch(unmodified, "library-1.0.pom");
+        Path modified = repository.resolve("com/acme/library/1.1");
+        touch(modified, "library-1.1.pom");
+        Path metadata = repository.resolve("com/acme/tool/2.0");
+        touch(metadata, "tool-2.0.pom");
+        touch(repository.resolve("com/acme/tool"), "maven-metadata-central.xml");
+        FileTime before = FileTime.fromMillis(1000000L);
+        Files.setLastModifiedTime(unmodified, before);
+        Files.setLastModifiedTime(metadata, before);
+        Files.setLastModifiedTime(repository.resolve("com/acme/tool/maven-metadata-central.xml"), FileTime.fromMillis(3000000L));
+        Files.setLastModifiedTime(modified, FileTime.fromMillis(3000000L));
+
+        List<RepositoryVersion> versions = new RepositoryWalker(2).walk(repository, 2000000L);
+
+        assertThat(versions).hasSize(3);
+        assertThat(versions).filteredOn(RepositoryVersion::isModified)
+            .extracting(RepositoryVersion::toString)
+            .containsExactlyInAnyOrder("com.acme:library:1.1", "com.acme:tool:2.0");
+    }
+
+    @Test
+    void modifiedPom() throws IOException {
+        Path version = repository.resolve("com/acme/library/1.0");
+        touch(version, "library-1.0.jar");
+        Path pom = version.resolve("library-1.0.pom");
+        Files.write(pom, "<project/>".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(pom, FileTime.fromMillis(3000000L));
+        Files.setLastModifiedTime(version, FileTime.fromMillis(1000000L));
+
+        List<RepositoryVersion> versions = new RepositoryWalker(2).walk(repository, 2000000L);
+
+        assertThat(versions).hasSize(1);
+        RepositoryVersion modified = versions.get(0);
+        assertThat(modified.isModified()).isTrue();
+        assertThat(modified.getPomSize()).isEqualTo(10L);
+        assertThat(modified.getPomLastModified()).isEqualTo(3000000L);
+    }
+
+    @Test
+    void metadata() throws IOException {
+        Path artifact = repository.resolve("com/acme/library");
+        touch(artifact.resolve("1.0"), "library-1.0.pom");
+        touch(artifact.resolve("1.1-SNAPSHOT"), "library-1.1-20240103.123456-2.pom");
+        Files.write(artifact.resolve("maven-metadata.xml"), ("<metadata><groupId>com.acme</groupId><artifactId>library</artifactId><versioning>"
+            + "<latest>1.1-SNAPSHOT</latest><release>1.0</release><versions><version>0.9</version><version>1.0</version><version>1.1-SNAPSHOT</version>"
+            + "</versions><lastUpdated>20240103123456</lastUpdated></versioning></metadata>").getBytes(StandardCharsets.UTF_8));
+        Files.write(artifact.resolve("1.1-SNAPSHOT/maven-metadata.xml"), ("<metadata><groupId>com.acme</groupId><artifactId>library</artifactId>"
+            + "<version>1.1-SNAPSHOT</version><versioning><snapshot><timestamp>20240103.123456</timestamp><buildNumber>2</buildNumber></snapshot>"
+            + "</versioning></metadata>").getBytes(StandardCharsets.UTF_8));
+
+        List<RepositoryVersion> withContent = new RepositoryWalker(2, true).walk(repository);
+        List<RepositoryVersion> withoutContent = new RepositoryWalker(2, false).walk(repository);
+
+        assertThat(withContent).extracting(RepositoryVersion::getVersion)
+            .containsExactlyInAnyOrder("1.0", "1.1-SNAPSHOT");
+        assertThat(withoutContent).extracting(RepositoryVersion::getVersion)
+            .containsExactlyInAnyOrder("0.9", "1.0", "1.1-SNAPSHOT");
+        assertThat(withoutContent).allSatisfy(version -> {
+            assertThat(version.getFiles()).isEmpty();
+            assertThat(version.getArtifactMetadata()
+                .getLatest()).isEqualTo("1.1-SNAPSHOT");
+            assertThat(version.getArtifactMetadata()
+                .getRelease()).isEqualTo("1.0");
+        });
+        assertThat(withContent).filteredOn(version -> version.getVersionMetadata() != null)
+            .extracting(RepositoryVersion::getVersion)
+            .containsExactly("1.1-SNAPSHOT");
+        RepositoryMetadata snapshotMetadata = withoutContent.stream()
+            .filter(version -> version.getVersionMetadata() != null)
+            .findFirst()
+            .get()
+            .getVersionMetadata();
+        assertThat(snapshotMetadata.getSnapshotTimestamp()).isEqualTo("20240103.123456");
+        assertThat(snapshotMetadata.getSnapshotBuildNumber()).isEqualTo(2);
+    }
+
+    private static void touch(Path directory, String... files) throws IOException {
+        Files.createDirectories(directory);
+        for (String file : files) {
+            Files.createFile(directory.resolve(file));
+        }
+    }
+}
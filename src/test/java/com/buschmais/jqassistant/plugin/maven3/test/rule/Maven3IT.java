@@ -9,13 +9,21 @@ import com.buschmais.jqassistant.core.report.api.model.Result;
 import com.buschmais.jqassistant.core.report.api.model.Row;
 import com.buschmais.jqassistant.core.rule.api.model.Constraint;
 import com.buschmais.jqassistant.core.test.plugin.AbstractPluginIT;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactCoordinates;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactFamilyDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenProjectDirectoryDescriptor;
 
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.junit.jupiter.api.Test;
 
 import static com.buschmais.jqassistant.core.report.api.model.Result.Status.FAILURE;
+import static com.buschmais.jqassistant.core.report.api.model.Result.Status.SUCCESS;
 import static com.buschmais.jqassistant.core.test.matcher.ConstraintMatcher.constraint;
 import static com.buschmais.jqassistant.core.test.matcher.ResultMatcher.result;
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -45,4 +53,25 @@ class Maven3IT extends AbstractPluginIT {
         store.commitTransaction();
     }
 
+    @Test
+    void artifactFamily() throws Exception {
+        store.beginTransaction();
+        for (String version : asList("1.0", "1.1")) {
+            MavenArtifactDescriptor artifact = store.create(MavenArtifactDescriptor.class);
+            MavenArtifactHelper.setCoordinates(artifact, new MavenArtifactCoordinates(
+                new DefaultArtifact("com.acme", "library", version, null, "jar", null, new DefaultArtifactHandler("jar")), false));
+        }
+        store.commitTransaction();
+        assertThat(applyConcept("maven3:ArtifactFamily").getStatus()).isEqualTo(SUCCESS);
+        store.beginTransaction();
+        List<MavenArtifactFamilyDescriptor> families = query("MATCH (family:Maven:ArtifactFamily) RETURN family").getColumn("family");
+        assertThat(families.size()).isEqualTo(1);
+        MavenArtifactFamilyDescriptor family = families.get(0);
+        assertThat(family.getGa()).isEqualTo("com.acme:library");
+        assertThat(family.getGroup()).isEqualTo("com.acme");
+        assertThat(family.getName()).isEqualTo("library");
+        assertThat(family.getArtifacts().size()).isEqualTo(2);
+        store.commitTransaction();
+    }
+
 }
@@ -0,0 +1,114 @@
+package com.buschmais.jqassistant.plugin.maven3.test.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.buschmais.jqassistant.plugin.java.test.AbstractJavaPluginIT;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenSchema;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+
+/**
+ * Measures the latency of the <code>MERGE</code> statement used for resolving
+ * artifacts by their fully qualified names on a graph of synthetic artifacts
+ * before and after the schema has been provisioned by {@link MavenSchema}.
+ *
+ * The number of artifacts and lookups are configured using system properties,
+ * e.g. {@code -Dmaven3.scale.artifacts=1000000 -Dmaven3.scale.lookups=1000}.
+ * The measured values are written to {@code target/maven3-merge-latency.json},
+ * each measurement is preceded by a warm-up round using different artifacts.
+ * The latencies depend on the environment, therefore they are only logged.
+ */
+class MergeLatencyScaleIT extends AbstractJavaPluginIT {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MergeLatencyScaleIT.class);
+
+    private static final String PROPERTY_PREFIX = "maven3.scale.";
+
+    private static final int BATCH_SIZE = 10000;
+
+    private static final String CREATE_ARTIFACTS = "UNWIND range($from, $to) AS i "
+        + "CREATE (:Maven:Artifact{fqn:'com.acme:artifact-' + i + ':jar:1.0', group:'com.acme', name:'artifact-' + i, type:'jar', version:'1.0'})";
+
+    private static final String MERGE_ARTIFACT = "MERGE (a:Maven:Artifact{fqn:$fqn}) RETURN a";
+
+    @Test
+    void mergeLatency() throws IOException {
+        int artifacts = getProperty("artifacts", 50000);
+        int lookups = getProperty("lookups", 200);
+        MavenSchema.drop(store);
+        createArtifacts(artifacts);
+
+        long before = warmUpAndMeasure(artifacts, lookups);
+        MavenSchema.provision(store, false);
+        store.beginTransaction();
+        store.executeQuery("CALL db.awaitIndexes(600)", emptyMap())
+            .close();
+        store.commitTransaction();
+        long after = warmUpAndMeasure(artifacts, lookups);
+
+        writeResult(artifacts, lookups, before, after);
+        if (after >= before) {
+            LOGGER.warn("MERGE latency with schema ({}µs) is not below the latency without schema ({}µs).", after, before);
+        }
+    }
+
+    private void createArtifacts(int artifacts) {
+        for (int from = 0; from < artifacts; from += BATCH_SIZE) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("from", from);
+            params.put("to", Math.min(from + BATCH_SIZE, artifacts) - 1);
+            store.beginTransaction();
+            store.executeQuery(CREATE_ARTIFACTS, params)
+                .close();
+            store.commitTransaction();
+        }
+    }
+
+    private long warmUpAndMeasure(int artifacts, int lookups) {
+        measure(artifacts, lookups, 7);
+        return measure(artifacts, lookups, 42);
+    }
+
+    /**
+     * Merges randomly chosen existing artifacts.
+     *
+     * @return The average latency in microseconds.
+     */
+    private long measure(int artifacts, int lookups, long seed) {
+        Random random = new Random(seed);
+        store.beginTransaction();
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("fqn", "com.acme:artifact-" + random.nextInt(artifacts) + ":jar:1.0");
+            store.executeQuery(MERGE_ARTIFACT, params)
+                .close();
+        }
+        long latency = (System.nanoTime() - start) / lookups / 1000;
+        store.commitTransaction();
+        return latency;
+    }
+
+    private void writeResult(int artifacts, int lookups, long before, long after) throws IOException {
+        String result = String.format("{ \"artifacts\": %d, \"lookups\": %d, \"mergeMicrosWithoutSchema\": %d, \"mergeMicrosWithSchema\": %d }%n", artifacts,
+            lookups, before, after);
+        LOGGER.info("Measured MERGE latency: {}", result.trim());
+        File targetDirectory = getClassesDirectory(MergeLatencyScaleIT.class).getParentFile();
+        Files.write(targetDirectory.toPath()
+            .resolve("maven3-merge-latency.json"), result.getBytes(UTF_8));
+    }
+
+    private static int getProperty(String name, int defaultValue) {
+        return Integer.getInteger(PROPERTY_PREFIX + name, defaultValue);
+    }
+}
@@ -0,0 +1,240 @@
+package com.buschmais.jqassistant.plugin.maven3.test.scale;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generates a synthetic multi-module reactor and a matching offline local Maven
+ * repository for scale tests.
+ *
+ * The reactor is a tree of aggregator projects with the given fan-out and
+ * depth, the leaves are JAR modules. Each JAR module declares dependencies to
+ * external libraries (managed by an imported BOM) and to the previously
+ * generated JAR module. The root project declares a managed plugin with a
+ * configuration of the given size. The local repository contains the BOM and
+ * POMs and JARs of all external libraries.
+ */
+class SyntheticReactorGenerator {
+
+    static final String GROUP_ID = "com.example.synthetic";
+
+    static final String EXTERNAL_GROUP_ID = "com.example.external";
+
+    static final String VERSION = "1.0.0";
+
+    private final int fanOut;
+
+    private final int depth;
+
+    private final int dependenciesPerModule;
+
+    private final int pluginConfigurationSize;
+
+    private final int bomSize;
+
+    private int modules = 0;
+
+    private int jarModules = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param fanOut
+     *     The number of modules per aggregator.
+     * @param depth
+     *     The depth of the module tree.
+     * @param dependenciesPerModule
+     *     The number of external dependencies per JAR module.
+     * @param pluginConfigurationSize
+     *     The number of elements of the managed plugin configuration.
+     * @param bomSize
+     *     The number of external libraries managed by the BOM.
+     */
+    SyntheticReactorGenerator(int fanOut, int depth, int dependenciesPerModule, int pluginConfigurationSize, int bomSize) {
+        this.fanOut = fanOut;
+        this.depth = depth;
+        this.dependenciesPerModule = Math.min(dependenciesPerModule, bomSize);
+        this.pluginConfigurationSize = pluginConfigurationSize;
+        this.bomSize = bomSize;
+    }
+
+    /**
+     * Write the reactor.
+     *
+     * @param reactorDirectory
+     *     The root directory of the reactor.
+     * @return The number of generated modules including aggregators.
+     * @throws IOException
+     *     If writing fails.
+     */
+    int writeReactor(Path reactorDirectory) throws IOException {
+        modules = 0;
+        jarModules = 0;
+        writeModule(reactorDirectory, "root", null, 0);
+        return modules;
+    }
+
+    /**
+     * Write the local repository.
+     *
+     * @param repositoryDirectory
+     *     The root directory of the repository.
+     * @throws IOException
+     *     If writing fails.
+     */
+    void writeRepository(Path repositoryDirectory) throws IOException {
+        StringBuilder managedDependencies = new StringBuilder();
+        for (int i = 0; i < bomSize; i++) {
+            String artifactId = getLibraryId(i);
+            managedDependencies.append(dependency(EXTERNAL_GROUP_ID, artifactId, VERSION, null));
+            Path directory = getRepositoryDirectory(repositoryDirectory, EXTERNAL_GROUP_ID, artifactId);
+            write(directory.resolve(artifactId + "-" + VERSION + ".pom"), project(EXTERNAL_GROUP_ID, artifactId, "jar", null, ""));
+            writeJar(directory.resolve(artifactId + "-" + VERSION + ".jar"), artifactId);
+        }
+        Path bomDirectory = getRepositoryDirectory(repositoryDirectory, EXTERNAL_GROUP_ID, "bom");
+        write(bomDirectory.resolve("bom-" + VERSION + ".pom"),
+            project(EXTERNAL_GROUP_ID, "bom", "pom", null, "<dependencyManagement><dependencies>" + managedDependencies + "</dependencies></dependencyManagement>"));
+    }
+
+    private void writeModule(Path directory, String artifactId, String parentArtifactId, int level) throws IOException {
+        modules++;
+        StringBuilder content = new StringBuilder();
+        String packaging;
+        if (level < depth) {
+            packaging = "pom";
+            content.append("<modules>");
+            List<String> children = new ArrayList<>();
+            for (int i = 0; i < fanOut; i++) {
+                String child = artifactId + "-" + i;
+                children.add(child);
+                content.append("<module>")
+                    .append(child)
+                    .append("</module>");
+            }
+            content.append("</modules>");
+            if (level == 0) {
+                content.append("<dependencyManagement><dependencies>")
+                    .append(dependency(EXTERNAL_GROUP_ID, "bom", VERSION, "<type>pom</type><scope>import</scope>"))
+                    .append("</dependencies></dependencyManagement>");
+                content.append("<build><pluginManagement><plugins>")
+                    .append(plugin())
+                    .append("</plugins></pluginManagement></build>");
+            }
+            for (String child : children) {
+                writeModule(directory.resolve(child), child, artifactId, level + 1);
+            }
+        } else {
+            packaging = "jar";
+            content.append("<dependencies>");
+            for (int i = 0; i < dependenciesPerModule; i++) {
+                content.append(dependency(EXTERNAL_GROUP_ID, getLibraryId((jarModules + i) % bomSize), null, null));
+            }
+            if (jarModules > 0) {
+                content.append(dependency(GROUP_ID, "module-" + (jarModules - 1), VERSION, null));
+            }
+            content.append("</dependencies>");
+            jarModules++;
+        }
+        String moduleArtifactId = level < depth ? artifactId : "module-" + (jarModules - 1);
+        write(directory.resolve("pom.xml"), project(GROUP_ID, moduleArtifactId, packaging, parentArtifactId, content.toString()));
+    }
+
+    private String plugin() {
+        StringBuilder plugin = new StringBuilder("<plugin><groupId>org.apache.maven.plugins</groupId><artifactId>maven-synthetic-plugin</artifactId>");
+        plugin.append("<version>")
+            .append(VERSION)
+            .append("</version><configuration>");
+        for (int i = 0; i < pluginConfigurationSize; i++) {
+            plugin.append("<parameter")
+                .append(i)
+                .append(">value-")
+                .append(i)
+                .append("</parameter")
+                .append(i)
+                .append('>');
+        }
+        plugin.append("</configuration></plugin>");
+        return plugin.toString();
+    }
+
+    private static String project(String groupId, String artifactId, String packaging, String parentArtifactId, String content) {
+        StringBuilder project = new StringBuilder();
+        project.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion>");
+        if (parentArtifactId != null) {
+            project.append("<parent><groupId>")
+                .append(GROUP_ID)
+                .append("</groupId><artifactId>")
+                .append(parentArtifactId)
+                .append("</artifactId><version>")
+                .append(VERSION)
+                .append("</version></parent>");
+        }
+        project.append("<groupId>")
+            .append(groupId)
+            .append("</groupId><artifactId>")
+            .append(artifactId)
+            .append("</artifactId><version>")
+            .append(VERSION)
+            .append("</version><packaging>")
+            .append(packaging)
+            .append("</packaging>")
+            .append(content)
+            .append("</project>\n");
+        return project.toString();
+    }
+
+    private static String dependency(String groupId, String artifactId, String version, String additionalElements) {
+        StringBuilder dependency = new StringBuilder("<dependency><groupId>").append(groupId)
+            .append("</groupId><artifactId>")
+            .append(artifactId)
+            .append("</artifactId>");
+        if (version != null) {
+            dependency.append("<version>")
+                .append(version)
+                .append("</version>");
+        }
+        if (additionalElements != null) {
+            dependency.append(additionalElements);
+        }
+        return dependency.append("</dependency>")
+            .toString();
+    }
+
+    private static String getLibraryId(int index) {
+        return "library-" + index;
+    }
+
+    private static Path getRepositoryDirectory(Path repositoryDirectory, String groupId, String artifactId) {
+        return repositoryDirectory.resolve(groupId.replace('.', '/'))
+            .resolve(artifactId)
+            .resolve(VERSION);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(UTF_8));
+    }
+
+    private static void writeJar(Path file, String artifactId) throws IOException {
+        Files.createDirectories(file.getParent());
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes()
+            .put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        try (OutputStream stream = Files.newOutputStream(file); JarOutputStream jar = new JarOutputStream(stream, manifest)) {
+            jar.putNextEntry(new ZipEntry(artifactId.replace('-', '/') + "/library.properties"));
+            jar.write(("artifactId=" + artifactId + "\n").getBytes(UTF_8));
+            jar.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.buschmais.jqassistant.plugin.maven3.test.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import com.buschmais.jqassistant.plugin.java.test.AbstractJavaPluginIT;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scans a reactor and local repository created by the
+ * {@link SyntheticReactorGenerator} and verifies scan time, peak heap and graph
+ * size against budgets. The peak heap is sampled from the total heap usage
+ * while scanning, the peaks of the heap pools are reported separately.
+ *
+ * The size of the reactor and the budgets are configured using system
+ * properties, e.g.
+ * {@code -Dmaven3.scale.fanOut=10 -Dmaven3.scale.depth=3 -Dmaven3.scale.budget.scanTime=600000}.
+ * The measured values are written to {@code target/maven3-scale-test.json}.
+ */
+class SyntheticReactorScaleIT extends AbstractJavaPluginIT {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyntheticReactorScaleIT.class);
+
+    private static final String PROPERTY_PREFIX = "maven3.scale.";
+
+    @TempDir
+    Path workDirectory;
+
+    @Test
+    void scanSyntheticReactor() throws IOException {
+        int bomSize = getProperty("bom", 50);
+        SyntheticReactorGenerator generator = new SyntheticReactorGenerator(getProperty("fanOut", 3), getProperty("depth", 2),
+            getProperty("dependencies", 5), getProperty("pluginConfiguration", 20), bomSize);
+        Path reactorDirectory = workDirectory.resolve("reactor");
+        Path repositoryDirectory = workDirectory.resolve("repository");
+        int modules = generator.writeReactor(reactorDirectory);
+        generator.writeRepository(repositoryDirectory);
+
+        List<MemoryPoolMXBean> heapPools = getHeapPools();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        long peakHeap;
+        try (HeapSampler heapSampler = new HeapSampler()) {
+            scanClassPathDirectory(reactorDirectory.toFile());
+            scanClassPathDirectory(repositoryDirectory.toFile());
+            peakHeap = heapSampler.getPeak() / (1024 * 1024);
+        }
+        long scanTime = NANOSECONDS.toMillis(System.nanoTime() - start);
+        // the peaks of the pools are reached at different times, so they are reported separately
+        Map<String, Long> poolPeaks = new TreeMap<>();
+        heapPools.forEach(pool -> poolPeaks.put(pool.getName(), pool.getPeakUsage()
+            .getUsed() / (1024 * 1024)));
+
+        store.beginTransaction();
+        long nodes = count("MATCH (n) RETURN count(n) AS count");
+        long relations = count("MATCH ()-[r]->() RETURN count(r) AS count");
+        long poms = count("MATCH (p:Maven:Pom:Xml) RETURN count(p) AS count");
+        store.commitTransaction();
+
+        writeResult(modules, scanTime, peakHeap, poolPeaks, nodes, relations);
+        // reactor modules, libraries and BOM
+        assertThat(poms).isEqualTo(modules + bomSize + 1);
+        assertThat(scanTime).as("Scan time in ms")
+            .isLessThanOrEqualTo(getProperty("budget.scanTime", 120000));
+        assertThat(peakHeap).as("Peak heap in MB")
+            .isLessThanOrEqualTo(getProperty("budget.heap", 2048));
+        assertThat(nodes).as("Number of nodes")
+            .isLessThanOrEqualTo(getProperty("budget.nodes", 100000));
+    }
+
+    private long count(String query) {
+        return query(query).getColumn("count")
+            .stream()
+            .mapToLong(count -> ((Number) count).longValue())
+            .sum();
+    }
+
+    private void writeResult(int modules, long scanTime, long peakHeap, Map<String, Long> poolPeaks, long nodes, long relations) throws IOException {
+        String poolPeaksJson = poolPeaks.entrySet()
+            .stream()
+            .map(entry -> String.format("\"%s\": %d", entry.getKey(), entry.getValue()))
+            .collect(joining(", ", "{ ", " }"));
+        String result = String.format(
+            "{ \"modules\": %d, \"scanTimeMillis\": %d, \"peakHeapMegabytes\": %d, \"peakHeapPoolMegabytes\": %s, \"nodes\": %d, \"relations\": %d }%n", modules,
+            scanTime, peakHeap, poolPeaksJson, nodes, relations);
+        LOGGER.info("Scanned synthetic reactor: {}", result.trim());
+        File targetDirectory = getClassesDirectory(SyntheticReactorScaleIT.class).getParentFile();
+        Files.write(targetDirectory.toPath()
+            .resolve("maven3-scale-test.json"), result.getBytes(UTF_8));
+    }
+
+    private static List<MemoryPoolMXBean> getHeapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>(ManagementFactory.getMemoryPoolMXBeans());
+        pools.removeIf(pool -> pool.getType() != MemoryType.HEAP);
+        return pools;
+    }
+
+    private static int getProperty(String name, int defaultValue) {
+        return Integer.getInteger(PROPERTY_PREFIX + name, defaultValue);
+    }
+
+    /**
+     * Samples the used heap in the background and keeps the maximum.
+     */
+    private static class HeapSampler implements AutoCloseable {
+
+        private static final long INTERVAL_MILLIS = 10;
+
+        private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+        private final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+
+        private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heap-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private HeapSampler() {
+            executorService.scheduleAtFixedRate(this::sample, 0, INTERVAL_MILLIS, MILLISECONDS);
+        }
+
+        private void sample() {
+            peak.accumulate(memoryMXBean.getHeapMemoryUsage()
+                .getUsed());
+        }
+
+        long getPeak() {
+            sample();
+            return peak.get();
+        }
+
+        @Override
+        public void close() {
+            executorService.shutdownNow();
+        }
+    }
+}
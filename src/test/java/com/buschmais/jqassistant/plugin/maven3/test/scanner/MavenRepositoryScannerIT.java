@@ -0,0 +1,235 @@
+package com.buschmais.jqassistant.plugin.maven3.test.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.java.test.AbstractJavaPluginIT;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenRepositoryArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPomXmlDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.DescriptorTypes;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenRepositoryResolver;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.RepositoryIndex;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.artifact.MavenArtifactResolver;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository.RepositoryHierarchy;
+import com.buschmais.jqassistant.plugin.maven3.impl.scanner.repository.RepositoryIndexer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Indexes a Maven repository directory using the
+ * {@link com.buschmais.jqassistant.plugin.maven3.impl.scanner.MavenRepositoryScannerPlugin}
+ * and verifies the group/artifact/version hierarchy, the POMs and the
+ * artifacts of the repository in the graph.
+ */
+class MavenRepositoryScannerIT extends AbstractJavaPluginIT {
+
+    private static final String LIBRARY = "com/acme/library";
+
+    @TempDir
+    Path repository;
+
+    @Test
+    void initialIndex() throws IOException {
+        createVersion("1.0", "library-1.0.pom", "library-1.0.jar", "library-1.0-sources.jar");
+        createVersion("1.1", "library-1.1.pom", "library-1.1.jar");
+
+        scanRepository();
+
+        store.beginTransaction();
+        assertThat(getVersions()).containsExactly("com.acme:library:1.0", "com.acme:library:1.1");
+        assertThat(getContainedPoms()).containsExactly("com.acme:library:pom:1.0", "com.acme:library:pom:1.1");
+        assertThat(getContainedArtifacts()).containsExactly("com.acme:library:jar:1.0", "com.acme:library:jar:1.1", "com.acme:library:jar:sources:1.0",
+            "com.acme:library:pom:1.0", "com.acme:library:pom:1.1");
+        assertThat(getVersionArtifacts("1.0")).containsExactly("com.acme:library:jar:1.0", "com.acme:library:jar:sources:1.0",
+            "com.acme:library:pom:1.0");
+        MavenPomXmlDescriptor pomXmlDescriptor = getContainedPom("com.acme:library:pom:1.0");
+        assertThat(pomXmlDescriptor.getFileName()).isEqualTo("/com/acme/library/1.0/library-1.0.pom");
+        assertThat(pomXmlDescriptor.getSize()).isEqualTo(Files.size(repository.resolve(LIBRARY + "/1.0/library-1.0.pom")));
+        assertThat(pomXmlDescriptor.isValid()).isTrue();
+        store.commitTransaction();
+    }
+
+    @Test
+    void rescanInNewSession() throws IOException {
+        createVersion("1.0", "library-1.0.pom", "library-1.0.jar", "library-1.0-sources.jar");
+        createVersion("1.1", "library-1.1.pom", "library-1.1.jar");
+        scanRepository();
+
+        newSession();
+        store.beginTransaction();
+        // enforce a full rescan of all versions
+        store.executeQuery("MATCH (repository:Maven:Repository) SET repository.lastUpdate=0", emptyMap())
+            .close();
+        store.commitTransaction();
+        scanRepository();
+
+        store.beginTransaction();
+        assertThat(count("MATCH (repository:Maven:Repository) RETURN count(repository) AS count")).isEqualTo(1);
+        assertThat(count("MATCH (groupId:Maven:GroupId) RETURN count(groupId) AS count")).isEqualTo(1);
+        assertThat(count("MATCH (artifactId:Maven:ArtifactId) RETURN count(artifactId) AS count")).isEqualTo(1);
+        assertThat(getVersions()).containsExactly("com.acme:library:1.0", "com.acme:library:1.1");
+        assertThat(count("MATCH (pom:Maven:Pom:Xml) WHERE pom.fqn IS NOT NULL RETURN count(pom) AS count")).isEqualTo(2);
+        assertThat(count("MATCH (artifact:Maven:Artifact) WITH artifact.fqn AS fqn, count(artifact) AS artifacts WHERE artifacts > 1 "
+            + "RETURN count(fqn) AS count")).isZero();
+        assertThat(getContainedPoms()).containsExactly("com.acme:library:pom:1.0", "com.acme:library:pom:1.1");
+        assertThat(getContainedArtifacts()).containsExactly("com.acme:library:jar:1.0", "com.acme:library:jar:1.1", "com.acme:library:jar:sources:1.0",
+            "com.acme:library:pom:1.0", "com.acme:library:pom:1.1");
+        assertThat(getVersionArtifacts("1.0")).containsExactly("com.acme:library:jar:1.0", "com.acme:library:jar:sources:1.0",
+            "com.acme:library:pom:1.0");
+        store.commitTransaction();
+    }
+
+    @Test
+    void removeVersionsAndFiles() throws IOException {
+        createVersion("1.0", "library-1.0.pom", "library-1.0.jar", "library-1.0-sources.jar");
+        createVersion("1.1", "library-1.1.pom", "library-1.1.jar");
+        scanRepository();
+
+        Path version = repository.resolve(LIBRARY + "/1.0");
+        Files.delete(version.resolve("library-1.0-sources.jar"));
+        Path pom = version.resolve("library-1.0.pom");
+        Files.write(pom, pom("1.0", "<url>https://acme.com/library</url>").getBytes(UTF_8));
+        FileTime modified = FileTime.fromMillis(System.currentTimeMillis() + 60000);
+        Files.setLastModifiedTime(pom, modified);
+        Files.setLastModifiedTime(version, modified);
+        delete(repository.resolve(LIBRARY + "/1.1"));
+        scanRepository();
+
+        store.beginTransaction();
+        assertThat(getVersions()).containsExactly("com.acme:library:1.0");
+        assertThat(getContainedPoms()).containsExactly("com.acme:library:pom:1.0");
+        assertThat(getContainedArtifacts()).containsExactly("com.acme:library:jar:1.0", "com.acme:library:pom:1.0");
+        assertThat(getVersionArtifacts("1.0")).containsExactly("com.acme:library:jar:1.0", "com.acme:library:pom:1.0");
+        MavenPomXmlDescriptor pomXmlDescriptor = getContainedPom("com.acme:library:pom:1.0");
+        assertThat(pomXmlDescriptor.getSize()).isEqualTo(Files.size(pom));
+        assertThat(pomXmlDescriptor.getLastModified()).isEqualTo(modified.toMillis());
+        assertThat(pomXmlDescriptor.getUrl()).isEqualTo("https://acme.com/library");
+        store.commitTransaction();
+    }
+
+    @Test
+    void pruneSnapshots() throws IOException {
+        createVersion("1.1-SNAPSHOT", "library-1.1-20240101.120000-1.pom", "library-1.1-20240101.120000-1.jar", "library-1.1-20240102.120000-2.pom",
+            "library-1.1-20240102.120000-2.jar", "library-1.1-20240103.120000-3.pom", "library-1.1-20240103.120000-3.jar");
+        index(0);
+
+        store.beginTransaction();
+        assertThat(getVersionArtifacts("1.1-SNAPSHOT")).hasSize(6);
+        store.commitTransaction();
+
+        index(1);
+
+        store.beginTransaction();
+        assertThat(getVersions()).containsExactly("com.acme:library:1.1-SNAPSHOT");
+        assertThat(getVersionArtifacts("1.1-SNAPSHOT")).containsExactly("com.acme:library:jar:1.1-20240103.120000-3",
+            "com.acme:library:pom:1.1-20240103.120000-3");
+        assertThat(getContainedArtifacts()).containsExactly("com.acme:library:jar:1.1-20240103.120000-3", "com.acme:library:pom:1.1-20240103.120000-3");
+        assertThat(getContainedPoms()).containsExactly("com.acme:library:pom:1.1-20240103.120000-3");
+        // the pruned artifacts are not referenced by other nodes
+        assertThat(count("MATCH (artifact:Maven:Artifact) WHERE artifact.fqn IN ['com.acme:library:jar:1.1-20240101.120000-1', "
+            + "'com.acme:library:jar:1.1-20240102.120000-2'] RETURN count(artifact) AS count")).isZero();
+        store.commitTransaction();
+    }
+
+    private void scanRepository() {
+        File directory = repository.toFile();
+        execute(ARTIFACT_ID, (artifact, scanner) -> {
+            scanner.scan(directory, directory.getAbsolutePath(), MavenScope.REPOSITORY);
+            return Collections.emptyList();
+        });
+    }
+
+    /**
+     * Index the repository using a {@link RepositoryIndexer} with the given
+     * snapshot retention.
+     */
+    private void index(int snapshotRetention) {
+        execute(ARTIFACT_ID, (artifact, scanner) -> {
+            Store scannerStore = scanner.getContext()
+                .getStore();
+            MavenRepositoryDescriptor repositoryDescriptor = MavenRepositoryResolver.resolve(scannerStore, repository.toUri()
+                .toString());
+            new RepositoryIndexer(1, 100, true, snapshotRetention).index(repository, repositoryDescriptor, scanner);
+            return Collections.emptyList();
+        });
+    }
+
+    /**
+     * Invalidate the caches held by the store for the repository, i.e. the next
+     * scan behaves like a scan using a new store session.
+     */
+    private void newSession() {
+        for (Class<?> type : Arrays.asList(MavenRepositoryResolver.class, RepositoryHierarchy.class, RepositoryIndex.class, MavenArtifactResolver.class,
+            MavenRepositoryArtifactResolver.class, DescriptorTypes.class)) {
+            store.getCache(type.getName())
+                .invalidateAll();
+        }
+    }
+
+    private List<String> getVersions() {
+        return query("MATCH (:Maven:Repository)-[:CONTAINS_GROUP_ID]->(:Maven:GroupId)-[:CONTAINS_ARTIFACT_ID]->(:Maven:ArtifactId)"
+            + "-[:CONTAINS_VERSION]->(version:Maven:Version) RETURN version.fqn AS fqn ORDER BY fqn").getColumn("fqn");
+    }
+
+    private List<String> getContainedPoms() {
+        return query("MATCH (:Maven:Repository)-[:CONTAINS_POM]->(pom:Maven:Pom:Xml) RETURN pom.fqn AS fqn ORDER BY fqn").getColumn("fqn");
+    }
+
+    private MavenPomXmlDescriptor getContainedPom(String fqn) {
+        List<MavenPomXmlDescriptor> poms = query("MATCH (:Maven:Repository)-[:CONTAINS_POM]->(pom:Maven:Pom:Xml{fqn:'" + fqn + "'}) RETURN pom").getColumn(
+            "pom");
+        assertThat(poms).hasSize(1);
+        return poms.get(0);
+    }
+
+    private List<String> getContainedArtifacts() {
+        return query("MATCH (:Maven:Repository)-[:CONTAINS_ARTIFACT]->(artifact:Maven:Artifact) RETURN artifact.fqn AS fqn ORDER BY fqn").getColumn("fqn");
+    }
+
+    private List<String> getVersionArtifacts(String version) {
+        return query("MATCH (:Maven:Version{fqn:'com.acme:library:" + version + "'})-[:CONTAINS_ARTIFACT]->(artifact:Maven:Artifact) "
+            + "RETURN artifact.fqn AS fqn ORDER BY fqn").getColumn("fqn");
+    }
+
+    private long count(String query) {
+        List<Long> counts = query(query).getColumn("count");
+        return counts.get(0);
+    }
+
+    private void createVersion(String version, String... files) throws IOException {
+        Path directory = Files.createDirectories(repository.resolve(LIBRARY + "/" + version));
+        for (String file : files) {
+            String content = file.endsWith(".pom") ? pom(version, "") : "";
+            Files.write(directory.resolve(file), content.getBytes(UTF_8));
+        }
+    }
+
+    private static String pom(String version, String elements) {
+        return "<project><modelVersion>4.0.0</modelVersion><groupId>com.acme</groupId><artifactId>library</artifactId><version>" + version + "</version>"
+            + elements + "</project>";
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}